@@ -75,6 +75,32 @@ public interface PlaceholderManager {
      */
     @NotNull Placeholder getPlaceholder(@NonNull String identifier);
 
+    /**
+     * Marks value of relational placeholder for given pair of players as outdated.
+     * When incremental relational refresh is enabled in config, relational placeholders
+     * only re-evaluate pairs that were invalidated, either by this method or internally
+     * on join, world switch and server switch. When it is disabled, this method does nothing,
+     * because all pairs are re-evaluated on every refresh.
+     *
+     * @param   identifier
+     *          Identifier of relational placeholder
+     * @param   viewer
+     *          Player viewing the placeholder
+     * @param   target
+     *          Player the placeholder is displayed on
+     */
+    void invalidateRelationalPlaceholder(@NonNull String identifier, @NonNull TabPlayer viewer, @NonNull TabPlayer target);
+
+    /**
+     * Marks values of all relational placeholders for all pairs including given player
+     * as either viewer or target as outdated. See {@link #invalidateRelationalPlaceholder(String, TabPlayer, TabPlayer)}
+     * for more information.
+     *
+     * @param   player
+     *          Player to invalidate values of
+     */
+    void invalidateRelationalPlaceholders(@NonNull TabPlayer player);
+
     /**
      * Unregisters placeholder and makes plugin no longer refresh it.
      *
@@ -0,0 +1,12 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(projects.shared)
+    jmh("com.google.guava:guava:31.1-jre")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+}
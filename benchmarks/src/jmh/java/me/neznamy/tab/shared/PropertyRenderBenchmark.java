@@ -0,0 +1,85 @@
+package me.neznamy.tab.shared;
+
+import me.neznamy.tab.shared.chat.EnumChatFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering of a property using {@code String.format} followed by coloring
+ * the whole result, which {@link Property} used before, with rendering pre-colored
+ * literals and placeholder values into a single pre-sized builder as
+ * {@link Property#update()} does now. The render loop mirrors the one in Property,
+ * which cannot be created without a loaded plugin instance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyRenderBenchmark {
+
+    /** Typical tabprefix with placeholders, escaped for String.format */
+    private static final String FORMAT = "&7[&b%s&7] &f%s &8| &e$%s &8| &a%s%%";
+
+    /** Values of placeholders in the format */
+    private final String[] values = {"&cAdmin", "Notch", "1,234.56", "97"};
+
+    /** Colored format for String.format */
+    private String coloredFormat;
+
+    /** Colored literals between placeholders */
+    private String[] literals;
+
+    /** Combined length of all literals */
+    private int literalsLength;
+
+    /** Values used in last rendering for the unchanged fast path */
+    private String[] lastValues;
+
+    @Setup
+    public void setup() {
+        coloredFormat = EnumChatFormat.color(FORMAT);
+        String[] parts = FORMAT.replace("%%", "%").split("%s", -1);
+        literals = new String[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            literals[i] = EnumChatFormat.color(parts[i]);
+            literalsLength += literals[i].length();
+        }
+        lastValues = values.clone();
+        if (!stringFormat().equals(template())) throw new IllegalStateException("Renderings differ");
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return EnumChatFormat.color(String.format(coloredFormat, (Object[]) values));
+    }
+
+    @Benchmark
+    public String template() {
+        int length = literalsLength;
+        for (String value : values) {
+            length += value.length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            EnumChatFormat.appendColored(builder, values[i]);
+            EnumChatFormat.appendColored(builder, literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public boolean templateUnchanged() {
+        boolean changed = false;
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].equals(lastValues[i])) {
+                lastValues[i] = values[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
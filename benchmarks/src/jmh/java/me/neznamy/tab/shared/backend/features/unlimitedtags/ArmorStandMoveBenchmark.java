@@ -0,0 +1,102 @@
+package me.neznamy.tab.shared.backend.features.unlimitedtags;
+
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.backend.Location;
+import me.neznamy.tab.shared.backend.entityview.DummyEntityView;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cost of processing a player move packet for a viewer who already sees
+ * the armor stands. Compares moving the armor stands directly on the packet thread,
+ * as {@link BackendArmorStandManager#moveDirectly} does, with submitting a task
+ * to the processing thread for every move packet as before. Both variants send
+ * the same move packets into an entity view which only counts them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ArmorStandMoveBenchmark.MOVES)
+public class ArmorStandMoveBenchmark {
+
+    /** Amount of move packets processed in one invocation */
+    static final int MOVES = 1000;
+
+    /** Amount of armor stands of each player */
+    @Param({"1", "3"})
+    public int lines;
+
+    /** Processing thread to submit tasks to */
+    private CpuManager cpu;
+
+    /** Entity view counting moved entities */
+    private final CountingEntityView view = new CountingEntityView();
+
+    /** Move difference of the packet */
+    private final Location diff = new Location(0.1, 0, 0.1);
+
+    /** Entity ids of armor stands */
+    private int[] entityIds;
+
+    @Setup
+    public void setup() {
+        cpu = new CpuManager();
+        cpu.enable();
+        entityIds = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            entityIds[i] = Integer.MAX_VALUE - i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cpu.cancelAllTasks();
+    }
+
+    @Benchmark
+    public int inline() {
+        for (int i = 0; i < MOVES; i++) {
+            move();
+        }
+        return view.moved;
+    }
+
+    @Benchmark
+    public int processingThread() throws InterruptedException {
+        for (int i = 0; i < MOVES; i++) {
+            cpu.runMeasuredTask("NameTags", TabConstants.CpuUsageCategory.PACKET_PLAYER_MOVE, this::move);
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        cpu.runTask(latch::countDown);
+        latch.await();
+        return view.moved;
+    }
+
+    private void move() {
+        for (int entityId : entityIds) {
+            view.moveEntity(entityId, diff);
+        }
+    }
+
+    /**
+     * Entity view counting moved entities instead of sending packets.
+     */
+    private static class CountingEntityView extends DummyEntityView {
+
+        /** Amount of moved entities */
+        private volatile int moved;
+
+        @Override
+        @SuppressWarnings("NonAtomicOperationOnVolatileField")
+        public void moveEntity(int entityId, @NotNull Location moveDiff) {
+            moved++;
+        }
+    }
+}
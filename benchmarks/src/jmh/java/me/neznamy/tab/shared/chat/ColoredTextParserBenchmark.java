@@ -0,0 +1,53 @@
+package me.neznamy.tab.shared.chat;
+
+import me.neznamy.tab.shared.chat.rgb.RGBUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting colored text into components using {@link ColoredTextParser}
+ * with applying all formats using {@link RGBUtils#applyFormats(String)} first
+ * and processing the result, on typical gradient-heavy tab formats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColoredTextParserBenchmark {
+
+    @Param({
+            "&7[&bAdmin&7] &fNotch",
+            "<#FF0000>&lOwner</#FFAA00> &7| &fNotch &8[&a97%&8]",
+            "{#55FFFF>}Online players{#5555FF<} &7- &#FFAA00Server &lLobby-1",
+            "<gradient:#FF0000>Gradient header</gradient:#0000FF> &r&7and <$#00FF00>text<$#FFFF00>"
+    })
+    public String text;
+
+    /** Text with legacy colors translated */
+    private String colored;
+
+    @Setup
+    public void setup() {
+        colored = EnumChatFormat.color(text);
+        if (ColoredTextParser.parse(colored, null) == null) throw new IllegalStateException("Text is not supported by single-pass parser");
+    }
+
+    @Benchmark
+    public List<StructuredComponent> singlePass() {
+        return ColoredTextParser.parse(colored, null);
+    }
+
+    @Benchmark
+    public List<StructuredComponent> applyFormats() {
+        return TabComponent.applyFormatsAndParse(colored, null);
+    }
+
+    @Benchmark
+    public TabComponent fromColoredText() {
+        return TabComponent.fromColoredText(text);
+    }
+}
@@ -0,0 +1,102 @@
+package me.neznamy.tab.shared.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link IntObjectMap} with {@link ConcurrentHashMap} with boxed keys, which
+ * were used for indexing entities by their id before. Lookups use random entity ids,
+ * half of which are present, the same as entity packets of players and other entities.
+ * Passenger lookups also iterate the passengers, which were stored as boxed lists before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(IntObjectMapBenchmark.LOOKUPS)
+public class IntObjectMapBenchmark {
+
+    /** Amount of lookups in one invocation */
+    static final int LOOKUPS = 1024;
+
+    /** Amount of tracked entities */
+    @Param({"1000", "5000"})
+    public int entities;
+
+    private final IntObjectMap<Object> intMap = new IntObjectMap<>();
+    private final Map<Integer, Object> boxedMap = new ConcurrentHashMap<>();
+    private final IntObjectMap<int[]> intPassengers = new IntObjectMap<>();
+    private final Map<Integer, List<Integer>> boxedPassengers = new ConcurrentHashMap<>();
+
+    /** Entity ids to look up */
+    private final int[] ids = new int[LOOKUPS];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        int[] present = new int[entities];
+        for (int i = 0; i < entities; i++) {
+            int id = random.nextInt(Integer.MAX_VALUE);
+            present[i] = id;
+            Object value = new Object();
+            intMap.put(id, value);
+            boxedMap.put(id, value);
+            int[] passengers = {random.nextInt(), random.nextInt()};
+            intPassengers.put(id, passengers);
+            List<Integer> list = new ArrayList<>();
+            for (int passenger : passengers) list.add(passenger);
+            boxedPassengers.put(id, list);
+        }
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = i % 2 == 0 ? present[random.nextInt(entities)] : random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public int intObjectMap() {
+        int found = 0;
+        for (int id : ids) {
+            if (intMap.get(id) != null) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int concurrentHashMap() {
+        int found = 0;
+        for (int id : ids) {
+            if (boxedMap.get(id) != null) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int intObjectMapPassengers() {
+        int sum = 0;
+        for (int id : ids) {
+            int[] passengers = intPassengers.get(id);
+            if (passengers == null) continue;
+            for (int passenger : passengers) sum += passenger;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int concurrentHashMapPassengers() {
+        int sum = 0;
+        for (int id : ids) {
+            List<Integer> passengers = boxedPassengers.get(id);
+            if (passengers == null) continue;
+            for (Integer passenger : passengers) sum += passenger;
+        }
+        return sum;
+    }
+}
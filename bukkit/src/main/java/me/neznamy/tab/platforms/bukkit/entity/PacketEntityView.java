@@ -77,6 +77,9 @@ public class PacketEntityView implements EntityView {
     /** Player this view belongs to */
     private final BukkitTabPlayer player;
 
+    /** Packets collected by {@link #sendBundle(Runnable)} on current thread, {@code null} if not bundling */
+    private final ThreadLocal<List<Object>> bundledPackets = new ThreadLocal<>();
+
     /**
      * Loads all required classes and fields and marks class as available.
      * If something goes wrong, a warning is printed and class is not marked as available.
@@ -337,13 +340,13 @@ public class PacketEntityView implements EntityView {
     @Override
     @SneakyThrows
     public void updateEntityMetadata(int entityId, @NotNull EntityData data) {
-        packetSender.sendPacket(player.getPlayer(), newEntityMetadata.apply(entityId, data));
+        send(newEntityMetadata.apply(entityId, data));
     }
 
     @SneakyThrows
     @Override
     public void teleportEntity(int entityId, @NotNull Location location) {
-        packetSender.sendPacket(player.getPlayer(), newEntityTeleport.apply(entityId, location));
+        send(newEntityTeleport.apply(entityId, location));
     }
 
     @SneakyThrows
@@ -426,7 +429,45 @@ public class PacketEntityView implements EntityView {
     @Override
     @SneakyThrows
     public void moveEntity(int entityId, @NotNull Location moveDiff) {
-        packetSender.sendPacket(player.getPlayer(), newMovePacket.apply(
+        send(newMovePacket.apply(
                 entityId, (long) moveDiff.getX(), (long) moveDiff.getY(), (long) moveDiff.getZ()));
     }
+
+    @Override
+    @SneakyThrows
+    public void sendBundle(@NotNull Runnable task) {
+        if (newClientboundBundlePacket == null || bundledPackets.get() != null) {
+            task.run();
+            return;
+        }
+        List<Object> packets = new ArrayList<>();
+        bundledPackets.set(packets);
+        try {
+            task.run();
+        } finally {
+            bundledPackets.remove();
+        }
+        if (packets.size() == 1) {
+            packetSender.sendPacket(player.getPlayer(), packets.get(0));
+        } else if (!packets.isEmpty()) {
+            sendAsBundle.accept(player, packets);
+        }
+    }
+
+    /**
+     * Sends packet to the player or adds it into the bundle if
+     * called from {@link #sendBundle(Runnable)}.
+     *
+     * @param   packet
+     *          Packet to send
+     */
+    @SneakyThrows
+    private void send(@NotNull Object packet) {
+        List<Object> bundle = bundledPackets.get();
+        if (bundle != null) {
+            bundle.add(packet);
+        } else {
+            packetSender.sendPacket(player.getPlayer(), packet);
+        }
+    }
 }
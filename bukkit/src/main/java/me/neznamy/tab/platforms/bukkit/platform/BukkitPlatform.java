@@ -76,6 +76,9 @@ public class BukkitPlatform implements BackendPlatform {
     /** Detection for presence of Paper's MSPT getter */
     private final boolean paperMspt = ReflectionUtils.methodExists(Bukkit.class, "getAverageTickTime");
 
+    /** Batcher evaluating sync placeholders on the main thread */
+    private final SyncPlaceholderBatcher syncPlaceholderBatcher = new SyncPlaceholderBatcher(this);
+
     /**
      * Constructs new instance with given plugin.
      *
@@ -204,18 +207,27 @@ public class BukkitPlatform implements BackendPlatform {
      *          Placeholder refresh
      */
     public void registerSyncPlaceholder(@NotNull String identifier, int refresh) {
-        String syncedPlaceholder = "%" + identifier.substring(6);
         PlayerPlaceholderImpl[] ppl = new PlayerPlaceholderImpl[1];
         ppl[0] = TAB.getInstance().getPlaceholderManager().registerPlayerPlaceholder(identifier, refresh, p -> {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                long time = System.nanoTime();
-                ppl[0].updateValue(p, placeholderAPI ? PlaceholderAPI.setPlaceholders((Player) p.getPlayer(), syncedPlaceholder) : identifier);
-                TAB.getInstance().getCPUManager().addPlaceholderTime(identifier, System.nanoTime() - time);
-            });
+            syncPlaceholderBatcher.request(p, ppl[0]);
             return null;
         });
     }
 
+    /**
+     * Evaluates sync placeholder for player. Must be called on the main thread.
+     *
+     * @param   player
+     *          Player to evaluate placeholder for
+     * @param   identifier
+     *          Placeholder identifier starting with %sync:
+     * @return  Placeholder output
+     */
+    @NotNull
+    public String evaluateSyncPlaceholder(@NotNull TabPlayer player, @NotNull String identifier) {
+        return placeholderAPI ? PlaceholderAPI.setPlaceholders((Player) player.getPlayer(), "%" + identifier.substring(6)) : identifier;
+    }
+
     @Override
     public void logInfo(@NotNull TabComponent message) {
         Bukkit.getConsoleSender().sendMessage("[TAB] " + toBukkitFormat(message, true));
@@ -1,7 +1,6 @@
 package me.neznamy.tab.platforms.bukkit.platform;
 
 import lombok.SneakyThrows;
-import me.clip.placeholderapi.PlaceholderAPI;
 import me.neznamy.tab.platforms.bukkit.features.PerWorldPlayerList;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
@@ -15,6 +14,7 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.*;
 import java.util.function.Consumer;
 
 /**
@@ -22,6 +22,9 @@ import java.util.function.Consumer;
  */
 public class FoliaPlatform extends BukkitPlatform {
 
+    /** Sync placeholders waiting to be evaluated by player, weak keys to not keep players whose task never ran */
+    private final Map<TabPlayer, Set<PlayerPlaceholderImpl>> pendingSyncPlaceholders = new WeakHashMap<>();
+
     /**
      * Constructs new instance with given plugin.
      *
@@ -57,16 +60,50 @@ public class FoliaPlatform extends BukkitPlatform {
 
     @Override
     public void registerSyncPlaceholder(@NotNull String identifier, int refresh) {
-        String syncedPlaceholder = "%" + identifier.substring(6);
         PlayerPlaceholderImpl[] ppl = new PlayerPlaceholderImpl[1];
         ppl[0] = TAB.getInstance().getPlaceholderManager().registerPlayerPlaceholder(identifier, refresh, p -> {
-            runSync((Entity) p.getPlayer(), () -> {
+            requestSyncPlaceholder(p, ppl[0]);
+            return null;
+        });
+    }
+
+    /**
+     * Requests sync placeholder to be evaluated for player. All placeholders requested
+     * before the player's entity task runs are evaluated in the same task and their
+     * results are saved in a single task on the processing thread.
+     *
+     * @param   player
+     *          Player to evaluate placeholder for
+     * @param   placeholder
+     *          Placeholder to evaluate
+     */
+    private void requestSyncPlaceholder(@NotNull TabPlayer player, @NotNull PlayerPlaceholderImpl placeholder) {
+        synchronized (pendingSyncPlaceholders) {
+            Set<PlayerPlaceholderImpl> pending = pendingSyncPlaceholders.get(player);
+            if (pending != null) {
+                pending.add(placeholder);
+                return;
+            }
+            pending = new LinkedHashSet<>();
+            pending.add(placeholder);
+            pendingSyncPlaceholders.put(player, pending);
+        }
+        runSync((Entity) player.getPlayer(), () -> {
+            Set<PlayerPlaceholderImpl> placeholders;
+            synchronized (pendingSyncPlaceholders) {
+                placeholders = pendingSyncPlaceholders.remove(player);
+            }
+            if (placeholders == null) return;
+            Map<PlayerPlaceholderImpl, String> results = new LinkedHashMap<>();
+            for (PlayerPlaceholderImpl pl : placeholders) {
                 long time = System.nanoTime();
-                String output = isPlaceholderAPI() ? PlaceholderAPI.setPlaceholders((Player) p.getPlayer(), syncedPlaceholder) : identifier;
-                TAB.getInstance().getCPUManager().addPlaceholderTime(identifier, System.nanoTime()-time);
-                TAB.getInstance().getCPUManager().runTask(() -> ppl[0].updateValue(p, output)); // To ensure player is loaded
+                results.put(pl, evaluateSyncPlaceholder(player, pl.getIdentifier()));
+                TAB.getInstance().getCPUManager().addPlaceholderTime(pl.getIdentifier(), System.nanoTime()-time);
+            }
+            TAB.getInstance().getCPUManager().runTask(() -> { // To ensure player is loaded
+                if (!player.isOnline()) return;
+                results.forEach((pl, output) -> pl.updateValue(player, output));
             });
-            return null;
         });
     }
 
@@ -0,0 +1,98 @@
+package me.neznamy.tab.platforms.bukkit.platform;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Evaluates %sync:<placeholder>% placeholders on the main thread. Requests of all
+ * players and placeholders are collected and evaluated in a single task. If evaluating
+ * them takes longer than the configured budget, the remaining requests are evaluated
+ * in the next tick. Time spent over the budget is shown in /tab cpu.
+ */
+@RequiredArgsConstructor
+public class SyncPlaceholderBatcher {
+
+    /** Platform for scheduling tasks and evaluating placeholders */
+    @NotNull private final BukkitPlatform platform;
+
+    /** Requests waiting to be evaluated, guarded by this */
+    private final Set<Request> pending = new LinkedHashSet<>();
+
+    /** Flag tracking whether a task evaluating pending requests is scheduled */
+    private boolean scheduled;
+
+    /**
+     * Requests placeholder to be evaluated for player on the main thread. If the same
+     * placeholder is already waiting to be evaluated for the player, the request is ignored.
+     *
+     * @param   player
+     *          Player to evaluate placeholder for
+     * @param   placeholder
+     *          Placeholder to update with the result
+     */
+    public synchronized void request(@NotNull TabPlayer player, @NotNull PlayerPlaceholderImpl placeholder) {
+        pending.add(new Request(player, placeholder));
+        if (scheduled) return;
+        scheduled = true;
+        Bukkit.getScheduler().runTask(platform.getPlugin(), this::process);
+    }
+
+    /**
+     * Evaluates pending requests until there are none left or the budget runs out,
+     * in which case another task is scheduled for the next tick.
+     */
+    private void process() {
+        long budget = TAB.getInstance().getConfiguration().getSyncPlaceholderTickBudget();
+        long start = System.nanoTime();
+        while (true) {
+            Request request;
+            synchronized (this) {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed > budget) {
+                    TAB.getInstance().getCPUManager().addTime(TabConstants.Feature.PLACEHOLDER_MANAGER,
+                            TabConstants.CpuUsageCategory.TIME_OVER_BUDGET, elapsed - budget);
+                }
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    return;
+                }
+                if (elapsed >= budget) {
+                    Bukkit.getScheduler().runTask(platform.getPlugin(), this::process);
+                    return;
+                }
+                Iterator<Request> iterator = pending.iterator();
+                request = iterator.next();
+                iterator.remove();
+            }
+            if (!request.player.isOnline()) continue;
+            long time = System.nanoTime();
+            String value = platform.evaluateSyncPlaceholder(request.player, request.placeholder.getIdentifier());
+            TAB.getInstance().getCPUManager().addPlaceholderTime(request.placeholder.getIdentifier(), System.nanoTime() - time);
+            request.placeholder.updateValue(request.player, value);
+        }
+    }
+
+    /**
+     * Request to evaluate placeholder for a player.
+     */
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class Request {
+
+        /** Player to evaluate placeholder for */
+        @NotNull private final TabPlayer player;
+
+        /** Placeholder to evaluate */
+        @NotNull private final PlayerPlaceholderImpl placeholder;
+    }
+}
@@ -90,23 +90,34 @@ public class PacketTabList1193 extends PacketTabList18 {
 
     @Override
     @SneakyThrows
-    public void removeEntry(@NonNull UUID entry) {
+    public void removeEntry0(@NonNull UUID entry) {
         packetSender.sendPacket(player.getPlayer(), newRemovePacket.newInstance(Collections.singletonList(entry)));
     }
 
+    @Override
+    @SneakyThrows
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        if (entries.isEmpty()) return;
+        packetSender.sendPacket(player.getPlayer(), newRemovePacket.newInstance(new ArrayList<>(entries)));
+    }
+
     @Override
     public void updateListed(@NonNull UUID entry, boolean listed) {
         packetSender.sendPacket(player.getPlayer(),
                 createPacket(Action.UPDATE_LISTED, entry, "", null, listed, 0, 0, null));
     }
 
-    @SneakyThrows
     @NonNull
     @Override
-    public Object createPacket(@NonNull Action action, @NonNull UUID id, @NonNull String name, @Nullable Skin skin,
-                               boolean listed, int latency, int gameMode, @Nullable Object displayName) {
-        Object packet = newPlayerInfo.newInstance(actionToEnumSet.get(action), Collections.emptyList());
-        PLAYERS.set(packet, Collections.singletonList(newPlayerInfoData.newInstance(
+    protected Object newPacket(@NonNull Action action) throws ReflectiveOperationException {
+        return newPlayerInfo.newInstance(actionToEnumSet.get(action), Collections.emptyList());
+    }
+
+    @NonNull
+    @Override
+    protected Object createInfoData(@NonNull Object packet, @NonNull Action action, @NonNull UUID id, @NonNull String name, @Nullable Skin skin,
+                                    boolean listed, int latency, int gameMode, @Nullable Object displayName) throws ReflectiveOperationException {
+        return newPlayerInfoData.newInstance(
                 id,
                 action == Action.ADD_PLAYER ? createProfile(id, name, skin) : null,
                 listed,
@@ -114,8 +125,7 @@ public class PacketTabList1193 extends PacketTabList18 {
                 gameModes[gameMode],
                 displayName,
                 null
-        )));
-        return packet;
+        );
     }
 
     @Override
@@ -109,17 +109,43 @@ public class PacketTabList18 extends TabListBase<Object> {
     }
 
     @Override
-    public void removeEntry(@NonNull UUID entry) {
+    public void removeEntry0(@NonNull UUID entry) {
         packetSender.sendPacket(player.getPlayer(),
                 createPacket(Action.REMOVE_PLAYER, entry, "", null, false, 0, 0, null));
     }
 
+    @Override
+    @SneakyThrows
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        if (entries.isEmpty()) return;
+        Object packet = newPacket(Action.REMOVE_PLAYER);
+        List<Object> players = new ArrayList<>(entries.size());
+        for (UUID entry : entries) {
+            players.add(createInfoData(packet, Action.REMOVE_PLAYER, entry, "", null, false, 0, 0, null));
+        }
+        PLAYERS.set(packet, players);
+        packetSender.sendPacket(player.getPlayer(), packet);
+    }
+
     @Override
     public void updateDisplayName0(@NonNull UUID entry, @Nullable Object displayName) {
         packetSender.sendPacket(player.getPlayer(),
                 createPacket(Action.UPDATE_DISPLAY_NAME, entry, "", null, false, 0, 0, displayName));
     }
 
+    @Override
+    @SneakyThrows
+    public void updateDisplayNames0(@NonNull Map<UUID, Object> displayNames) {
+        if (displayNames.isEmpty()) return;
+        Object packet = newPacket(Action.UPDATE_DISPLAY_NAME);
+        List<Object> players = new ArrayList<>(displayNames.size());
+        for (Map.Entry<UUID, Object> entry : displayNames.entrySet()) {
+            players.add(createInfoData(packet, Action.UPDATE_DISPLAY_NAME, entry.getKey(), "", null, false, 0, 0, entry.getValue()));
+        }
+        PLAYERS.set(packet, players);
+        packetSender.sendPacket(player.getPlayer(), packet);
+    }
+
     @Override
     public void updateLatency(@NonNull UUID entry, int latency) {
         packetSender.sendPacket(player.getPlayer(),
@@ -143,6 +169,20 @@ public class PacketTabList18 extends TabListBase<Object> {
                 createPacket(Action.ADD_PLAYER, id, name, skin, listed, latency, gameMode, displayName));
     }
 
+    @Override
+    @SneakyThrows
+    public void addEntries0(@NonNull List<Entry> entries, @NonNull List<Object> displayNames) {
+        Object packet = newPacket(Action.ADD_PLAYER);
+        List<Object> players = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            players.add(createInfoData(packet, Action.ADD_PLAYER, entry.getUniqueId(), entry.getName(), entry.getSkin(),
+                    entry.isListed(), entry.getLatency(), entry.getGameMode(), displayNames.get(i)));
+        }
+        PLAYERS.set(packet, players);
+        packetSender.sendPacket(player.getPlayer(), packet);
+    }
+
     /**
      * Creates packet from given parameters.
      *
@@ -168,7 +208,53 @@ public class PacketTabList18 extends TabListBase<Object> {
     @NonNull
     public Object createPacket(@NonNull Action action, @NonNull UUID id, @NonNull String name, @Nullable Skin skin,
                                boolean listed, int latency, int gameMode, @Nullable Object displayName) {
-        Object packet = newPlayerInfo.newInstance(Enum.valueOf(ActionClass, action.name()), Collections.emptyList());
+        Object packet = newPacket(action);
+        PLAYERS.set(packet, Collections.singletonList(createInfoData(packet, action, id, name, skin, listed, latency, gameMode, displayName)));
+        return packet;
+    }
+
+    /**
+     * Creates packet with given action and no entries.
+     *
+     * @param   action
+     *          Packet action
+     * @return  Packet with given action
+     * @throws  ReflectiveOperationException
+     *          If thrown by reflective operation
+     */
+    @NonNull
+    protected Object newPacket(@NonNull Action action) throws ReflectiveOperationException {
+        return newPlayerInfo.newInstance(Enum.valueOf(ActionClass, action.name()), Collections.emptyList());
+    }
+
+    /**
+     * Creates entry data of packet from given parameters.
+     *
+     * @param   packet
+     *          Packet the entry data will belong to
+     * @param   action
+     *          Packet action
+     * @param   id
+     *          Entry UUID
+     * @param   name
+     *          Entry name
+     * @param   skin
+     *          Entry skin
+     * @param   listed
+     *          Whether entry should be listed or not
+     * @param   latency
+     *          Entry latency
+     * @param   gameMode
+     *          Entry game mode
+     * @param   displayName
+     *          Entry display name
+     * @return  Entry data from given parameters
+     * @throws  ReflectiveOperationException
+     *          If thrown by reflective operation
+     */
+    @NonNull
+    protected Object createInfoData(@NonNull Object packet, @NonNull Action action, @NonNull UUID id, @NonNull String name, @Nullable Skin skin,
+                                    boolean listed, int latency, int gameMode, @Nullable Object displayName) throws ReflectiveOperationException {
         List<Object> parameters = new ArrayList<>();
         if (newPlayerInfoData.getParameterTypes()[0] == PlayerInfoClass) {
             parameters.add(packet);
@@ -178,8 +264,7 @@ public class PacketTabList18 extends TabListBase<Object> {
         parameters.add(gameModes[gameMode]);
         parameters.add(displayName);
         if (BukkitReflection.getMinorVersion() >= 19) parameters.add(null);
-        PLAYERS.set(packet, Collections.singletonList(newPlayerInfoData.newInstance(parameters.toArray())));
-        return packet;
+        return newPlayerInfoData.newInstance(parameters.toArray());
     }
 
     /**
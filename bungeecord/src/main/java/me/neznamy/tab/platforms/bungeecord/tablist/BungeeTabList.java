@@ -17,6 +17,8 @@ import net.md_5.bungee.tab.ServerUnique;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -95,6 +97,46 @@ public abstract class BungeeTabList extends TabList<BungeeTabPlayer, BaseCompone
         return item;
     }
 
+    /**
+     * Converts entries to items and adds them to BungeeCord's tablist uuid tracker.
+     *
+     * @param   entries
+     *          Entries to convert
+     * @param   displayNames
+     *          Converted display names of entries in the same order
+     * @return  Converted items
+     */
+    @NonNull
+    public Item[] entriesToItems(@NonNull List<Entry> entries, @NonNull List<BaseComponent> displayNames) {
+        Item[] items = new Item[entries.size()];
+        for (int i = 0; i < items.length; i++) {
+            Entry entry = entries.get(i);
+            addUuid(entry.getUniqueId());
+            items[i] = entryToItem(entry.getUniqueId(), entry.getName(), entry.getSkin(), entry.isListed(),
+                    entry.getLatency(), entry.getGameMode(), displayNames.get(i));
+        }
+        return items;
+    }
+
+    /**
+     * Converts display names to items.
+     *
+     * @param   displayNames
+     *          Map of entries and their display names
+     * @return  Converted items
+     */
+    @NonNull
+    public Item[] displayNameItems(@NonNull Map<UUID, BaseComponent> displayNames) {
+        Item[] items = new Item[displayNames.size()];
+        int i = 0;
+        for (Map.Entry<UUID, BaseComponent> entry : displayNames.entrySet()) {
+            Item item = item(entry.getKey());
+            item.setDisplayName(entry.getValue());
+            items[i++] = item;
+        }
+        return items;
+    }
+
     /**
      * Adds given UUID to BungeeCord's tablist uuid tracker.
      *
@@ -46,13 +46,22 @@ public class BungeeTabList1193 extends BungeeTabList {
     }
 
     @Override
-    public void removeEntry(@NonNull UUID entry) {
+    public void removeEntry0(@NonNull UUID entry) {
         removeUuid(entry);
         PlayerListItemRemove remove = new PlayerListItemRemove();
         remove.setUuids(new UUID[]{entry});
         player.sendPacket(remove);
     }
 
+    @Override
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        if (entries.isEmpty()) return;
+        entries.forEach(this::removeUuid);
+        PlayerListItemRemove remove = new PlayerListItemRemove();
+        remove.setUuids(entries.toArray(new UUID[0]));
+        player.sendPacket(remove);
+    }
+
     @Override
     public void updateDisplayName0(@NonNull UUID entry, @Nullable BaseComponent displayName) {
         Item item = item(entry);
@@ -60,6 +69,12 @@ public class BungeeTabList1193 extends BungeeTabList {
         sendPacket(Action.UPDATE_DISPLAY_NAME, item);
     }
 
+    @Override
+    public void updateDisplayNames0(@NonNull Map<UUID, BaseComponent> displayNames) {
+        if (displayNames.isEmpty()) return;
+        sendPacket(Action.UPDATE_DISPLAY_NAME, displayNameItems(displayNames));
+    }
+
     @Override
     public void updateLatency(@NonNull UUID entry, int latency) {
         Item item = item(entry);
@@ -87,10 +102,15 @@ public class BungeeTabList1193 extends BungeeTabList {
         sendPacket(Action.ADD_PLAYER, entryToItem(id, name, skin, listed, latency, gameMode, displayName));
     }
 
-    private void sendPacket(@NonNull Action action, @NonNull Item item) {
+    @Override
+    public void addEntries0(@NonNull List<Entry> entries, @NonNull List<BaseComponent> displayNames) {
+        sendPacket(Action.ADD_PLAYER, entriesToItems(entries, displayNames));
+    }
+
+    private void sendPacket(@NonNull Action action, @NonNull Item... items) {
         PlayerListItemUpdate packet = new PlayerListItemUpdate();
         packet.setActions(actions.get(action));
-        packet.setItems(new Item[]{item});
+        packet.setItems(items);
         player.sendPacket(packet);
     }
 }
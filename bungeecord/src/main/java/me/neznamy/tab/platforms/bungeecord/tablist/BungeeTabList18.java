@@ -7,6 +7,9 @@ import net.md_5.bungee.protocol.packet.PlayerListItem;
 import net.md_5.bungee.protocol.packet.PlayerListItem.Item;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -26,11 +29,23 @@ public class BungeeTabList18 extends BungeeTabList {
     }
 
     @Override
-    public void removeEntry(@NonNull UUID entry) {
+    public void removeEntry0(@NonNull UUID entry) {
         removeUuid(entry);
         sendPacket(PlayerListItem.Action.REMOVE_PLAYER, item(entry));
     }
 
+    @Override
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        if (entries.isEmpty()) return;
+        Item[] items = new Item[entries.size()];
+        int i = 0;
+        for (UUID entry : entries) {
+            removeUuid(entry);
+            items[i++] = item(entry);
+        }
+        sendPacket(PlayerListItem.Action.REMOVE_PLAYER, items);
+    }
+
     @Override
     public void updateDisplayName0(@NonNull UUID entry, @Nullable BaseComponent displayName) {
         Item item = item(entry);
@@ -38,6 +53,12 @@ public class BungeeTabList18 extends BungeeTabList {
         sendPacket(PlayerListItem.Action.UPDATE_DISPLAY_NAME, item);
     }
 
+    @Override
+    public void updateDisplayNames0(@NonNull Map<UUID, BaseComponent> displayNames) {
+        if (displayNames.isEmpty()) return;
+        sendPacket(PlayerListItem.Action.UPDATE_DISPLAY_NAME, displayNameItems(displayNames));
+    }
+
     @Override
     public void updateLatency(@NonNull UUID entry, int latency) {
         Item item = item(entry);
@@ -63,10 +84,15 @@ public class BungeeTabList18 extends BungeeTabList {
         sendPacket(PlayerListItem.Action.ADD_PLAYER, entryToItem(id, name, skin, listed, latency, gameMode, displayName));
     }
 
-    private void sendPacket(@NonNull PlayerListItem.Action action, @NonNull Item item) {
+    @Override
+    public void addEntries0(@NonNull List<Entry> entries, @NonNull List<BaseComponent> displayNames) {
+        sendPacket(PlayerListItem.Action.ADD_PLAYER, entriesToItems(entries, displayNames));
+    }
+
+    private void sendPacket(@NonNull PlayerListItem.Action action, @NonNull Item... items) {
         PlayerListItem packet = new PlayerListItem();
         packet.setAction(action);
-        packet.setItems(new Item[]{item});
+        packet.setItems(items);
         player.sendPacket(packet);
     }
 }
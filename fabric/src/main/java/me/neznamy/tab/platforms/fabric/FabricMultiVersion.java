@@ -27,6 +27,7 @@ import net.minecraft.world.scores.criteria.ObjectiveCriteria.RenderType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -349,15 +350,15 @@ public class FabricMultiVersion {
      *
      * @param   action
      *          Tablist action
-     * @param   builder
-     *          Entry data
+     * @param   entries
+     *          Data of all entries to include in the packet
      * @return  Tablist entry packet with given parameters
      */
     @NotNull
-    public static Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull FabricTabList.Builder builder) {
-        if (serverVersion.getNetworkId() >= ProtocolVersion.V1_19_3.getNetworkId()) return loaderNew.buildTabListPacket(action, builder);
-        else if (serverVersion.getMinorVersion() >= 17) return loader1_18_2.buildTabListPacket(action, builder);
-        return loader1_14_4.buildTabListPacket(action, builder);
+    public static Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull List<FabricTabList.Builder> entries) {
+        if (serverVersion.getNetworkId() >= ProtocolVersion.V1_19_3.getNetworkId()) return loaderNew.buildTabListPacket(action, entries);
+        else if (serverVersion.getMinorVersion() >= 17) return loader1_18_2.buildTabListPacket(action, entries);
+        return loader1_14_4.buildTabListPacket(action, entries);
     }
 
     /**
@@ -10,7 +10,7 @@ import net.minecraft.network.protocol.Packet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
+import java.util.*;
 
 /**
  * TabList implementation for Fabric using packets.
@@ -28,41 +28,72 @@ public class FabricTabList extends TabList<FabricTabPlayer, Component> {
     }
 
     @Override
-    public void removeEntry(@NonNull UUID entry) {
-        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.REMOVE_PLAYER,
-                new Builder(entry, "", null, false, 0, 0, null)));
+    public void removeEntry0(@NonNull UUID entry) {
+        sendPacket(Action.REMOVE_PLAYER,
+                new Builder(entry, "", null, false, 0, 0, null));
     }
 
     @Override
     public void updateDisplayName0(@NonNull UUID entry, @Nullable Component displayName) {
-        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.UPDATE_DISPLAY_NAME,
-                new Builder(entry, "", null, false, 0, 0, displayName)));
+        sendPacket(Action.UPDATE_DISPLAY_NAME,
+                new Builder(entry, "", null, false, 0, 0, displayName));
+    }
+
+    @Override
+    public void updateDisplayNames0(@NonNull Map<UUID, Component> displayNames) {
+        if (displayNames.isEmpty()) return;
+        List<Builder> builders = new ArrayList<>(displayNames.size());
+        for (Map.Entry<UUID, Component> entry : displayNames.entrySet()) {
+            builders.add(new Builder(entry.getKey(), "", null, false, 0, 0, entry.getValue()));
+        }
+        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.UPDATE_DISPLAY_NAME, builders));
     }
 
     @Override
     public void updateLatency(@NonNull UUID entry, int latency) {
-        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.UPDATE_LATENCY,
-                new Builder(entry, "", null, false, latency, 0, null)));
+        sendPacket(Action.UPDATE_LATENCY,
+                new Builder(entry, "", null, false, latency, 0, null));
     }
 
     @Override
     public void updateGameMode(@NonNull UUID entry, int gameMode) {
-        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.UPDATE_GAME_MODE,
-                new Builder(entry, "", null, false, 0, gameMode, null)));
+        sendPacket(Action.UPDATE_GAME_MODE,
+                new Builder(entry, "", null, false, 0, gameMode, null));
     }
 
     @Override
     public void updateListed(@NonNull UUID entry, boolean listed) {
         if (player.getPlatform().getServerVersion().getNetworkId() >= ProtocolVersion.V1_19_3.getNetworkId()) {
-            player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.UPDATE_LISTED,
-                    new Builder(entry, "", null, listed, 0, 0, null)));
+            sendPacket(Action.UPDATE_LISTED,
+                    new Builder(entry, "", null, listed, 0, 0, null));
         }
     }
 
     @Override
     public void addEntry0(@NonNull UUID id, @NonNull String name, @Nullable Skin skin, boolean listed, int latency, int gameMode, @Nullable Component displayName) {
-        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.ADD_PLAYER,
-                new Builder(id, name, skin, listed, latency, gameMode, displayName)));
+        sendPacket(Action.ADD_PLAYER,
+                new Builder(id, name, skin, listed, latency, gameMode, displayName));
+    }
+
+    @Override
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        if (entries.isEmpty()) return;
+        List<Builder> builders = new ArrayList<>(entries.size());
+        for (UUID entry : entries) {
+            builders.add(new Builder(entry, "", null, false, 0, 0, null));
+        }
+        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.REMOVE_PLAYER, builders));
+    }
+
+    @Override
+    public void addEntries0(@NonNull List<Entry> entries, @NonNull List<Component> displayNames) {
+        List<Builder> builders = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            builders.add(new Builder(entry.getUniqueId(), entry.getName(), entry.getSkin(), entry.isListed(),
+                    entry.getLatency(), entry.getGameMode(), displayNames.get(i)));
+        }
+        player.sendPacket(FabricMultiVersion.buildTabListPacket(Action.ADD_PLAYER, builders));
     }
 
     @Override
@@ -82,6 +113,10 @@ public class FabricTabList extends TabList<FabricTabPlayer, Component> {
         }
     }
 
+    private void sendPacket(@NonNull Action action, @NonNull Builder entry) {
+        player.sendPacket(FabricMultiVersion.buildTabListPacket(action, Collections.singletonList(entry)));
+    }
+
     /**
      * TabList entry builder.
      */
@@ -26,6 +26,7 @@ import net.minecraft.world.scores.criteria.ObjectiveCriteria.RenderType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -244,12 +245,12 @@ public interface Loader {
      *
      * @param   action
      *          Tablist action
-     * @param   builder
-     *          Entry data
+     * @param   entries
+     *          Data of all entries to include in the packet
      * @return  Tablist entry packet with given parameters
      */
     @NotNull
-    Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull FabricTabList.Builder builder);
+    Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull List<FabricTabList.Builder> entries);
 
     /**
      * Returns {@code true} if packet is bundle packet, {@code false} if not.
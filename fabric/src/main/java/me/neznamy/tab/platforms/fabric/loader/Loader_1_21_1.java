@@ -207,20 +207,28 @@ public class Loader_1_21_1 implements Loader {
 
     @Override
     @NotNull
-    public Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull FabricTabList.Builder entry) {
+    public Packet<?> buildTabListPacket(@NotNull TabList.Action action, @NotNull List<FabricTabList.Builder> entries) {
         if (action == TabList.Action.REMOVE_PLAYER) {
-            return new ClientboundPlayerInfoRemovePacket(Collections.singletonList(entry.getId()));
+            List<UUID> ids = new ArrayList<>(entries.size());
+            for (FabricTabList.Builder entry : entries) {
+                ids.add(entry.getId());
+            }
+            return new ClientboundPlayerInfoRemovePacket(ids);
         }
         ClientboundPlayerInfoUpdatePacket packet = new ClientboundPlayerInfoUpdatePacket(Register1_19_3.actionMap.get(action), Collections.emptyList());
-        packet.entries = Collections.singletonList(new ClientboundPlayerInfoUpdatePacket.Entry(
-                entry.getId(),
-                action == TabList.Action.ADD_PLAYER ? entry.createProfile() : null,
-                entry.isListed(),
-                entry.getLatency(),
-                GameType.byId(entry.getGameMode()),
-                entry.getDisplayName(),
-                null
-        ));
+        List<ClientboundPlayerInfoUpdatePacket.Entry> list = new ArrayList<>(entries.size());
+        for (FabricTabList.Builder entry : entries) {
+            list.add(new ClientboundPlayerInfoUpdatePacket.Entry(
+                    entry.getId(),
+                    action == TabList.Action.ADD_PLAYER ? entry.createProfile() : null,
+                    entry.isListed(),
+                    entry.getLatency(),
+                    GameType.byId(entry.getGameMode()),
+                    entry.getDisplayName(),
+                    null
+            ));
+        }
+        packet.entries = list;
         return packet;
     }
 
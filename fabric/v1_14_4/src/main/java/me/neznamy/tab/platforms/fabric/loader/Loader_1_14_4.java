@@ -213,10 +213,13 @@ public class Loader_1_14_4 implements Loader {
     @Override
     @NotNull
     @SneakyThrows
-    public Packet<?> buildTabListPacket(TabList.@NotNull Action action, @NotNull FabricTabList.Builder entry) {
+    public Packet<?> buildTabListPacket(TabList.@NotNull Action action, @NotNull List<FabricTabList.Builder> entries) {
         ClientboundPlayerInfoPacket packet = new ClientboundPlayerInfoPacket(ClientboundPlayerInfoPacket.Action.valueOf(action.name()));
-        ReflectionUtils.getFields(ClientboundPlayerInfoPacket.class, List.class).get(0).set(packet, Collections.singletonList(
-                packet.new PlayerUpdate(entry.createProfile(), entry.getLatency(), GameType.byId(entry.getGameMode()), entry.getDisplayName())));
+        List<PlayerUpdate> updates = new ArrayList<>(entries.size());
+        for (FabricTabList.Builder entry : entries) {
+            updates.add(packet.new PlayerUpdate(entry.createProfile(), entry.getLatency(), GameType.byId(entry.getGameMode()), entry.getDisplayName()));
+        }
+        ReflectionUtils.getFields(ClientboundPlayerInfoPacket.class, List.class).get(0).set(packet, updates);
         return packet;
     }
 
@@ -36,4 +36,5 @@ include(":sponge8")
 include(":fabric")
 include(":fabric:v1_14_4")
 include(":fabric:v1_18_2")
-include(":jar")
\ No newline at end of file
+include(":jar")
+include(":benchmarks")
\ No newline at end of file
@@ -36,14 +36,24 @@ public class FeatureManager {
     @NotNull
     private TabFeature[] values = new TabFeature[0];
 
-    /** Flag tracking presence of a feature listening to raw packets for faster check with better performance */
-    private boolean hasPacketSendListener;
-
-    /** Flag tracking presence of a feature listening to latency change for faster check with better performance */
-    private boolean hasLatencyChangeListener;
-
-    /** Flag tracking presence of a feature listening to command preprocess for faster check with better performance */
-    private boolean hasCommandListener;
+    /* Registered features implementing each listener type, rebuilt when a feature is registered or unregistered */
+    @NotNull private TabFeature[] loadables = new TabFeature[0];
+    @NotNull private TabFeature[] unLoadables = new TabFeature[0];
+    @NotNull private TabFeature[] refreshables = new TabFeature[0];
+    @NotNull private TabFeature[] gameModeListeners = new TabFeature[0];
+    @NotNull private TabFeature[] quitListeners = new TabFeature[0];
+    @NotNull private TabFeature[] joinListeners = new TabFeature[0];
+    @NotNull private TabFeature[] worldSwitchListeners = new TabFeature[0];
+    @NotNull private TabFeature[] serverSwitchListeners = new TabFeature[0];
+    @NotNull private TabFeature[] commandListeners = new TabFeature[0];
+    @NotNull private TabFeature[] packetSendListeners = new TabFeature[0];
+    @NotNull private TabFeature[] displayObjectiveListeners = new TabFeature[0];
+    @NotNull private TabFeature[] objectiveListeners = new TabFeature[0];
+    @NotNull private TabFeature[] vanishListeners = new TabFeature[0];
+    @NotNull private TabFeature[] entryAddListeners = new TabFeature[0];
+    @NotNull private TabFeature[] latencyListeners = new TabFeature[0];
+    @NotNull private TabFeature[] loginPacketListeners = new TabFeature[0];
+    @NotNull private TabFeature[] tabListClearListeners = new TabFeature[0];
 
     /** Commands features listen to */
     private final List<String> listeningCommands = new ArrayList<>();
@@ -53,8 +63,7 @@ public class FeatureManager {
      * This function is called on plugin startup.
      */
     public void load() {
-        for (TabFeature f : values) {
-            if (!(f instanceof Loadable)) continue;
+        for (TabFeature f : loadables) {
             long time = System.currentTimeMillis();
             ((Loadable) f).load();
             TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed load in " + (System.currentTimeMillis()-time) + "ms");
@@ -70,8 +79,7 @@ public class FeatureManager {
      * This function is called on plugin disable.
      */
     public void unload() {
-        for (TabFeature f : values) {
-            if (!(f instanceof UnLoadable)) continue;
+        for (TabFeature f : unLoadables) {
             long time = System.currentTimeMillis();
             ((UnLoadable) f).unload();
             TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed unload in " + (System.currentTimeMillis()-time) + "ms");
@@ -83,6 +91,7 @@ public class FeatureManager {
         if (TAB.getInstance().getPlatform() instanceof ProxyPlatform) {
             for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
                 ((ProxyTabPlayer)player).sendPluginMessage(new Unload());
+                ((ProxyTabPlayer)player).flushPluginMessages(); // Processing thread is shutting down
             }
         }
     }
@@ -96,8 +105,8 @@ public class FeatureManager {
      *          whether refresh should be forced or not
      */
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
-        for (TabFeature f : values) {
-            if (f instanceof Refreshable) ((Refreshable)f).refresh(refreshed, force);
+        for (TabFeature f : refreshables) {
+            ((Refreshable)f).refresh(refreshed, force);
         }
     }
 
@@ -108,12 +117,16 @@ public class FeatureManager {
      *          Player whose gamemode has changed.
      */
     public void onGameModeChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof GameModeListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : gameModeListeners) {
             long time = System.nanoTime();
             ((GameModeListener) f).onGameModeChange(player);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.GAMEMODE_CHANGE, System.nanoTime() - time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.GAMEMODE_CHANGE, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.GAMEMODE_CHANGE, start, featureTime);
     }
 
     /**
@@ -126,12 +139,16 @@ public class FeatureManager {
         if (disconnectedPlayer == null) return;
         disconnectedPlayer.markOffline();
         long millis = System.currentTimeMillis();
-        for (TabFeature f : values) {
-            if (!(f instanceof QuitListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : quitListeners) {
             long time = System.nanoTime();
             ((QuitListener)f).onQuit(disconnectedPlayer);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_QUIT, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_QUIT, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.PLAYER_QUIT, start, featureTime);
         TAB.getInstance().removePlayer(disconnectedPlayer);
         TAB.getInstance().debug("Player quit of " + disconnectedPlayer.getName() + " processed in " + (System.currentTimeMillis()-millis) + "ms");
     }
@@ -145,14 +162,18 @@ public class FeatureManager {
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         long millis = System.currentTimeMillis();
         TAB.getInstance().addPlayer(connectedPlayer);
-        for (TabFeature f : values) {
-            if (!(f instanceof JoinListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : joinListeners) {
             long time = System.nanoTime();
             ((JoinListener)f).onJoin(connectedPlayer);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_JOIN, System.nanoTime()-time);
-            TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed player join in " + (System.nanoTime()-time)/1000000 + "ms");
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PLAYER_JOIN, elapsed);
+            TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed player join in " + elapsed/1000000 + "ms");
 
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.PLAYER_JOIN, start, featureTime);
         connectedPlayer.markAsLoaded(true);
         TAB.getInstance().debug("Player join of " + connectedPlayer.getName() + " processed in " + (System.currentTimeMillis()-millis) + "ms");
         if (TAB.getInstance().getConfiguration().getUsers() instanceof MySQLUserConfiguration) {
@@ -174,12 +195,16 @@ public class FeatureManager {
         if (changed == null) return;
         String from = changed.getWorld();
         changed.setWorld(to);
-        for (TabFeature f : values) {
-            if (!(f instanceof WorldSwitchListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : worldSwitchListeners) {
             long time = System.nanoTime();
             ((WorldSwitchListener) f).onWorldChange(changed, from, to);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.WORLD_SWITCH, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.WORLD_SWITCH, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.WORLD_SWITCH, start, featureTime);
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.WORLD)).updateValue(changed, to);
     }
 
@@ -197,12 +222,16 @@ public class FeatureManager {
         String from = changed.getServer();
         changed.setServer(to);
         ((ProxyTabPlayer)changed).sendJoinPluginMessage();
-        for (TabFeature f : values) {
-            if (!(f instanceof ServerSwitchListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : serverSwitchListeners) {
             long time = System.nanoTime();
             ((ServerSwitchListener) f).onServerChange(changed, from, to);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.SERVER_SWITCH, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.SERVER_SWITCH, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.SERVER_SWITCH, start, featureTime);
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.SERVER)).updateValue(changed, to);
     }
 
@@ -217,15 +246,19 @@ public class FeatureManager {
      * @return  {@code true} if event should be cancelled, {@code false} if not.
      */
     public boolean onCommand(@Nullable TabPlayer sender, @NotNull String command) {
-        if (!hasCommandListener || sender == null) return false;
+        if (commandListeners.length == 0 || sender == null) return false;
         if (!listeningCommands.contains(command)) return false;
         boolean cancel = false;
-        for (TabFeature f : values) {
-            if (!(f instanceof CommandListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : commandListeners) {
             long time = System.nanoTime();
             if (((CommandListener)f).onCommand(sender, command)) cancel = true;
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.COMMAND_PREPROCESS, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.COMMAND_PREPROCESS, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.COMMAND_PREPROCESS, start, featureTime);
         return cancel;
     }
 
@@ -238,13 +271,17 @@ public class FeatureManager {
      *          OUT packet coming from the server
      */
     public void onPacketSend(@NotNull TabPlayer receiver, @NotNull Object packet) {
-        if (!hasPacketSendListener) return;
-        for (TabFeature f : values) {
-            if (!(f instanceof PacketSendListener)) continue;
+        if (packetSendListeners.length == 0) return;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : packetSendListeners) {
             long time = System.nanoTime();
             ((PacketSendListener)f).onPacketSend(receiver, packet);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.RAW_PACKET_OUT, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.RAW_PACKET_OUT, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.RAW_PACKET_OUT, start, featureTime);
     }
 
     /**
@@ -258,12 +295,16 @@ public class FeatureManager {
      *          Objective name
      */
     public void onDisplayObjective(@NotNull TabPlayer packetReceiver, int slot, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof DisplayObjectiveListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : displayObjectiveListeners) {
             long time = System.nanoTime();
             ((DisplayObjectiveListener)f).onDisplayObjective(packetReceiver, slot, objective);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.ANTI_OVERRIDE, start, featureTime);
     }
 
     /**
@@ -277,12 +318,16 @@ public class FeatureManager {
      *          Objective name
      */
     public void onObjective(@NotNull TabPlayer packetReceiver, int action, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ObjectiveListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : objectiveListeners) {
             long time = System.nanoTime();
             ((ObjectiveListener)f).onObjective(packetReceiver, action, objective);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.ANTI_OVERRIDE, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.ANTI_OVERRIDE, start, featureTime);
     }
 
     /**
@@ -292,12 +337,16 @@ public class FeatureManager {
      *          Player whose vanish status changed
      */
     public void onVanishStatusChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof VanishListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : vanishListeners) {
             long time = System.nanoTime();
             ((VanishListener)f).onVanishStatusChange(player);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.VANISH_CHANGE, System.nanoTime()-time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.VANISH_CHANGE, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.VANISH_CHANGE, start, featureTime);
     }
 
     /**
@@ -311,12 +360,16 @@ public class FeatureManager {
      *          Player name of the entry
      */
     public void onEntryAdd(TabPlayer packetReceiver, UUID id, String name) {
-        for (TabFeature f : values) {
-            if (!(f instanceof EntryAddListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : entryAddListeners) {
             long time = System.nanoTime();
             ((EntryAddListener)f).onEntryAdd(packetReceiver, id, name);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, System.nanoTime() - time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, start, featureTime);
     }
 
     /**
@@ -331,14 +384,18 @@ public class FeatureManager {
      * @return  New latency to use
      */
     public int onLatencyChange(TabPlayer packetReceiver, UUID id, int latency) {
-        if (!hasLatencyChangeListener) return latency;
+        if (latencyListeners.length == 0) return latency;
         int newLatency = latency;
-        for (TabFeature f : values) {
-            if (!(f instanceof LatencyListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : latencyListeners) {
             long time = System.nanoTime();
             newLatency = ((LatencyListener)f).onLatencyChange(packetReceiver, id, newLatency);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PING_CHANGE, System.nanoTime() - time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PING_CHANGE, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.PING_CHANGE, start, featureTime);
         return newLatency;
     }
 
@@ -350,12 +407,16 @@ public class FeatureManager {
      */
     public void onLoginPacket(TabPlayer packetReceiver) {
         packetReceiver.getScoreboard().unfreeze();
-        for (TabFeature f : values) {
-            if (!(f instanceof LoginPacketListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : loginPacketListeners) {
             long time = System.nanoTime();
             ((LoginPacketListener)f).onLoginPacket(packetReceiver);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PACKET_LOGIN, System.nanoTime() - time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.PACKET_LOGIN, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.PACKET_LOGIN, start, featureTime);
     }
 
     /**
@@ -365,12 +426,16 @@ public class FeatureManager {
      *          Player whose tablist got cleared
      */
     public void onTabListClear(TabPlayer packetReceiver) {
-        for (TabFeature f : values) {
-            if (!(f instanceof TabListClearListener)) continue;
+        long start = System.nanoTime();
+        long featureTime = 0;
+        for (TabFeature f : tabListClearListeners) {
             long time = System.nanoTime();
             ((TabListClearListener)f).onTabListClear(packetReceiver);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.TABLIST_CLEAR, System.nanoTime() - time);
+            long elapsed = System.nanoTime() - time;
+            featureTime += elapsed;
+            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), TabConstants.CpuUsageCategory.TABLIST_CLEAR, elapsed);
         }
+        addDispatchTime(TabConstants.CpuUsageCategory.TABLIST_CLEAR, start, featureTime);
     }
 
     /**
@@ -383,21 +448,14 @@ public class FeatureManager {
      */
     public void registerFeature(@NotNull String featureName, @NotNull TabFeature featureHandler) {
         features.put(featureName, featureHandler);
-        values = features.values().toArray(new TabFeature[0]);
+        rebuildDispatchTables();
         if (featureHandler instanceof VanishListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.VANISHED);
         }
         if (featureHandler instanceof GameModeListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.GAMEMODE);
         }
-        if (featureHandler instanceof PacketSendListener) {
-            hasPacketSendListener = true;
-        }
-        if (featureHandler instanceof LatencyListener) {
-            hasLatencyChangeListener = true;
-        }
         if (featureHandler instanceof CommandListener) {
-            hasCommandListener = true;
             listeningCommands.add(((CommandListener) featureHandler).getCommand());
         }
     }
@@ -410,7 +468,58 @@ public class FeatureManager {
      */
     public void unregisterFeature(@NotNull String featureName) {
         features.remove(featureName);
+        rebuildDispatchTables();
+    }
+
+    /**
+     * Rebuilds array of all features and arrays of features implementing each
+     * listener type, so events only iterate over features listening to them.
+     */
+    private void rebuildDispatchTables() {
         values = features.values().toArray(new TabFeature[0]);
+        loadables = filter(Loadable.class);
+        unLoadables = filter(UnLoadable.class);
+        refreshables = filter(Refreshable.class);
+        gameModeListeners = filter(GameModeListener.class);
+        quitListeners = filter(QuitListener.class);
+        joinListeners = filter(JoinListener.class);
+        worldSwitchListeners = filter(WorldSwitchListener.class);
+        serverSwitchListeners = filter(ServerSwitchListener.class);
+        commandListeners = filter(CommandListener.class);
+        packetSendListeners = filter(PacketSendListener.class);
+        displayObjectiveListeners = filter(DisplayObjectiveListener.class);
+        objectiveListeners = filter(ObjectiveListener.class);
+        vanishListeners = filter(VanishListener.class);
+        entryAddListeners = filter(EntryAddListener.class);
+        latencyListeners = filter(LatencyListener.class);
+        loginPacketListeners = filter(LoginPacketListener.class);
+        tabListClearListeners = filter(TabListClearListener.class);
+    }
+
+    /**
+     * Returns all registered features implementing given listener type in registration order.
+     *
+     * @param   type
+     *          Listener type
+     * @return  Features implementing given type
+     */
+    @NotNull
+    private TabFeature[] filter(@NotNull Class<?> type) {
+        return Arrays.stream(values).filter(type::isInstance).toArray(TabFeature[]::new);
+    }
+
+    /**
+     * Adds time spent dispatching an event outside of features themselves.
+     *
+     * @param   type
+     *          Event type
+     * @param   start
+     *          {@link System#nanoTime()} when dispatching started
+     * @param   featureTime
+     *          Time spent in features in nanoseconds
+     */
+    private void addDispatchTime(@NotNull String type, long start, long featureTime) {
+        TAB.getInstance().getCPUManager().addTime(TabConstants.Feature.EVENT_DISPATCH, type, System.nanoTime() - start - featureTime);
     }
 
     /**
@@ -18,16 +18,20 @@ import me.neznamy.tab.shared.platform.Platform;
 import me.neznamy.tab.shared.command.DisabledCommand;
 import me.neznamy.tab.shared.command.TabCommand;
 import me.neznamy.tab.shared.config.Configs;
+import me.neznamy.tab.shared.config.file.FileSaver;
 import me.neznamy.tab.shared.event.EventBusImpl;
 import me.neznamy.tab.shared.event.impl.TabLoadEventImpl;
 import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import me.neznamy.tab.shared.platform.UpdateBuffer;
+import me.neznamy.tab.shared.util.ComponentCache;
 import me.neznamy.tab.shared.proxy.ProxyPlatform;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.File;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -53,6 +57,9 @@ public class TAB extends TabAPI {
     /** Online player array to avoid memory allocation when iterating */
     private volatile TabPlayer[] onlinePlayers = new TabPlayer[0];
 
+    /** Player slots currently taken by online players */
+    private final BitSet usedSlots = new BitSet();
+
     /** Instance of plugin's main command */
     private TabCommand command;
 
@@ -91,6 +98,9 @@ public class TAB extends TabAPI {
     /** Group manager for getting groups of players */
     private GroupManager groupManager;
 
+    /** Saver writing modified configuration files in the background */
+    private FileSaver fileSaver;
+
     /** Plugin's configuration files and values storage */
     private Configs configuration;
 
@@ -170,7 +180,10 @@ public class TAB extends TabAPI {
         try {
             long time = System.currentTimeMillis();
             cpu = new CpuManager();
+            fileSaver = new FileSaver();
             configuration = new Configs();
+            ComponentCache.configure(configuration.getConfig().getConfigurationSection("component-cache-sizes"));
+            UpdateBuffer.setEnabled(configuration.getConfig().getBoolean("packet-coalescing", true));
             featureManager = new FeatureManager();
             placeholderManager = new PlaceholderManagerImpl(cpu);
             featureManager.registerFeature(TabConstants.Feature.PLACEHOLDER_MANAGER, placeholderManager);
@@ -202,7 +215,8 @@ public class TAB extends TabAPI {
 
     /**
      * Unloads all features by sending clear packets, resets variables
-     * and cancels all tasks.
+     * and cancels all tasks. Configuration files with pending modifications
+     * are saved on the calling thread before this method returns.
      */
     public void unload() {
         if (pluginDisabled) return;
@@ -218,14 +232,19 @@ public class TAB extends TabAPI {
     }
 
     /**
-     * Clears online player maps and arrays and cancels all tasks
+     * Clears online player maps and arrays, cancels all tasks and
+     * saves modified configuration files
      */
     private void kill() {
         pluginDisabled = true;
         data.clear();
         playersByTabListId.clear();
         onlinePlayers = new TabPlayer[0];
+        synchronized (usedSlots) {
+            usedSlots.clear();
+        }
         cpu.cancelAllTasks();
+        fileSaver.shutdown();
     }
 
     /**
@@ -235,13 +254,22 @@ public class TAB extends TabAPI {
      *          Player to add
      */
     public void addPlayer(@NotNull TabPlayer player) {
+        synchronized (usedSlots) {
+            int slot = usedSlots.nextClearBit(0);
+            usedSlots.set(slot);
+            player.setSlot(slot);
+        }
+        if (placeholderManager != null) placeholderManager.getValueStore().addPlayer(player);
         data.put(player.getUniqueId(), player);
         playersByTabListId.put(player.getTablistId(), player);
         onlinePlayers = data.values().toArray(new TabPlayer[0]);
     }
 
     /**
-     * Removes specified player from online players
+     * Removes specified player from online players. This is called after all features
+     * processed the quit, so they can still read last known placeholder values of the player.
+     * Refresh tasks which are still running use slots captured when they started,
+     * so releasing the slot does not affect them.
      *
      * @param   player
      *          Player to remove
@@ -250,6 +278,12 @@ public class TAB extends TabAPI {
         data.remove(player.getUniqueId());
         playersByTabListId.remove(player.getTablistId());
         onlinePlayers = data.values().toArray(new TabPlayer[0]);
+        if (player.getSlot() == -1) return;
+        if (placeholderManager != null) placeholderManager.getValueStore().removePlayer(player);
+        synchronized (usedSlots) {
+            usedSlots.clear(player.getSlot());
+            player.setSlot(-1);
+        }
     }
 
     /**
@@ -75,7 +75,10 @@ public class TabConstants {
         public static final String VANISH_CHANGE = "Vanish status change";
         public static final String REFRESHING_NAME_TAG_VISIBILITY = "Refreshing NameTag visibility";
         public static final String PROCESSING_PLAYER_MOVEMENT = "Processing player movement";
+        public static final String SENDING_ARMOR_STAND_UPDATES = "Sending armor stand updates";
         public static final String TELEPORTING_WITHER = "Teleporting wither";
+        public static final String APPLYING_DOWNLOADED_SKINS = "Applying downloaded skins";
+        public static final String TIME_OVER_BUDGET = "Time over tick budget";
     }
 
     /**
@@ -184,6 +187,7 @@ public class TabConstants {
         //additional info displayed in cpu command
         public static final String PACKET_DESERIALIZING = "Packet deserializing";
         public static final String NICK_COMPATIBILITY = "Nick";
+        public static final String EVENT_DISPATCH = "Event dispatch";
 
         public static String scoreboardLine(String line) {
             return "scoreboard-" + line;
@@ -174,4 +174,16 @@ public interface EntityView {
      *          Relative position difference
      */
     void moveEntity(int entityId, @NotNull Location moveDiff);
+
+    /**
+     * Runs given task and sends all packets it sends as a single bundle packet
+     * if supported by the server (1.19.4+), so the client processes them in the same frame.
+     * If bundles are not supported, packets are sent normally.
+     *
+     * @param   task
+     *          Task sending packets
+     */
+    default void sendBundle(@NotNull Runnable task) {
+        task.run();
+    }
 }
@@ -78,7 +78,7 @@ public class ArmorStand {
         if (this.offset == offset) return;
         this.offset = offset;
         for (BackendTabPlayer all : asm.getNearbyPlayers()) {
-            sendTeleportPacket(all);
+            manager.getPacketScheduler().teleport(this, all);
         }
     }
 
@@ -97,27 +97,20 @@ public class ArmorStand {
 
     public void teleport() {
         for (BackendTabPlayer all : asm.getNearbyPlayers()) {
-            sendTeleportPacket(all);
+            manager.getPacketScheduler().teleport(this, all);
         }
     }
 
     public void teleport(BackendTabPlayer viewer) {
-        if (!asm.isNearby(viewer) && viewer != owner) {
+        if (!isVisibleFor(viewer)) {
             asm.spawn(viewer);
         } else {
-            sendTeleportPacket(viewer);
-        }
-    }
-
-    public void move(BackendTabPlayer viewer, Location diff) {
-        if (!asm.isNearby(viewer) && viewer != owner) {
-            asm.spawn(viewer);
-        } else {
-            viewer.getEntityView().moveEntity(entityId, diff);
+            manager.getPacketScheduler().teleport(this, viewer);
         }
     }
 
     public void spawn(BackendTabPlayer viewer) {
+        manager.getPacketScheduler().cancel(this, viewer);
         visible = calculateVisibility();
         viewer.getEntityView().spawnEntity(entityId, uuid, manager.getArmorStandType(),
                 new Location(manager.getX(owner), getYLocation(viewer), manager.getZ(owner)),
@@ -184,15 +177,36 @@ public class ArmorStand {
         return y;
     }
 
+    /**
+     * Returns {@code true} if armor stand was spawned for viewer, {@code false} if not.
+     *
+     * @param   viewer
+     *          Player to check
+     * @return  {@code true} if viewer sees the armor stand, {@code false} if not
+     */
+    public boolean isVisibleFor(@NotNull BackendTabPlayer viewer) {
+        return asm.isNearby(viewer) || viewer == owner;
+    }
+
     /**
      * Updates armor stand's metadata for everyone
      */
     public void updateMetadata() {
         for (BackendTabPlayer viewer : asm.getNearbyPlayers()) {
-            viewer.getEntityView().updateEntityMetadata(entityId, createDataWatcher(property.getFormat(viewer), viewer));
+            manager.getPacketScheduler().updateMetadata(this, viewer);
         }
     }
 
+    /**
+     * Sends current metadata of the armor stand to viewer.
+     *
+     * @param   viewer
+     *          Player to send metadata to
+     */
+    public void sendMetadata(@NotNull BackendTabPlayer viewer) {
+        viewer.getEntityView().updateEntityMetadata(entityId, createDataWatcher(property.getFormat(viewer), viewer));
+    }
+
     public boolean shouldBeInvisibleFor(@NotNull TabPlayer viewer, @NotNull String displayName) {
         return isNameVisiblyEmpty(displayName) || !manager.canSee(viewer, owner) ||
                 manager.hasHiddenNameTag(owner, viewer) || manager.hasHiddenNameTagVisibilityView(viewer) ||
@@ -0,0 +1,102 @@
+package me.neznamy.tab.shared.backend.features.unlimitedtags;
+
+import me.neznamy.tab.shared.backend.BackendTabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects teleport and metadata updates of armor stands and sends them once per tick.
+ * Both packets carry absolute values, which are computed when sending, so only one
+ * of each is sent per armor stand and viewer no matter how many times it was requested.
+ * Packets for a viewer are sent as a single bundle if the platform supports it.
+ */
+public class ArmorStandPacketScheduler {
+
+    /** Flag for pending teleport */
+    private static final int TELEPORT = 1;
+
+    /** Flag for pending metadata update */
+    private static final int METADATA = 2;
+
+    /** Pending updates of armor stands by viewer */
+    private final Map<BackendTabPlayer, Map<ArmorStand, Integer>> pending = new LinkedHashMap<>();
+
+    /**
+     * Schedules teleport of armor stand to its current location for viewer.
+     *
+     * @param   armorStand
+     *          Armor stand to teleport
+     * @param   viewer
+     *          Player to teleport armor stand for
+     */
+    public void teleport(@NotNull ArmorStand armorStand, @NotNull BackendTabPlayer viewer) {
+        add(armorStand, viewer, TELEPORT);
+    }
+
+    /**
+     * Schedules metadata update of armor stand for viewer.
+     *
+     * @param   armorStand
+     *          Armor stand to update metadata of
+     * @param   viewer
+     *          Player to update metadata for
+     */
+    public void updateMetadata(@NotNull ArmorStand armorStand, @NotNull BackendTabPlayer viewer) {
+        add(armorStand, viewer, METADATA);
+    }
+
+    private synchronized void add(@NotNull ArmorStand armorStand, @NotNull BackendTabPlayer viewer, int flag) {
+        pending.computeIfAbsent(viewer, v -> new LinkedHashMap<>()).merge(armorStand, flag, (a, b) -> a | b);
+    }
+
+    /**
+     * Cancels pending updates of armor stand for viewer, because it was
+     * spawned or destroyed in the meantime.
+     *
+     * @param   armorStand
+     *          Armor stand to cancel updates of
+     * @param   viewer
+     *          Player to cancel updates for
+     */
+    public synchronized void cancel(@NotNull ArmorStand armorStand, @NotNull BackendTabPlayer viewer) {
+        if (pending.isEmpty()) return;
+        Map<ArmorStand, Integer> updates = pending.get(viewer);
+        if (updates != null) updates.remove(armorStand);
+    }
+
+    /**
+     * Removes all pending updates.
+     */
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    /**
+     * Sends all pending updates. Updates of armor stands the viewer
+     * no longer sees are skipped.
+     */
+    public void flush() {
+        List<Map.Entry<BackendTabPlayer, Map<ArmorStand, Integer>>> updates;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            updates = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        }
+        for (Map.Entry<BackendTabPlayer, Map<ArmorStand, Integer>> entry : updates) {
+            BackendTabPlayer viewer = entry.getKey();
+            if (!viewer.isOnline() || entry.getValue().isEmpty()) continue;
+            viewer.getEntityView().sendBundle(() -> {
+                for (Map.Entry<ArmorStand, Integer> update : entry.getValue().entrySet()) {
+                    ArmorStand armorStand = update.getKey();
+                    if (!armorStand.isVisibleFor(viewer)) continue;
+                    if ((update.getValue() & TELEPORT) != 0) armorStand.sendTeleportPacket(viewer);
+                    if ((update.getValue() & METADATA) != 0) armorStand.sendMetadata(viewer);
+                }
+            });
+        }
+    }
+}
@@ -26,10 +26,13 @@ public class BackendArmorStandManager implements ArmorStandManager {
     private final ArmorStand[] armorStandArray;
 
     /** Players in entity tracking range of owner */
-    private final List<BackendTabPlayer> nearbyPlayerList = new ArrayList<>();
+    private final Set<BackendTabPlayer> nearbyPlayerList = new LinkedHashSet<>();
 
-    /** Nearby players in an array for speed while iterating */
-    @Getter private BackendTabPlayer[] nearbyPlayers = new BackendTabPlayer[0];
+    /**
+     * Nearby players in an array for speed while iterating. The array is replaced
+     * instead of modified, so it can be safely read from any thread.
+     */
+    @Getter private volatile BackendTabPlayer[] nearbyPlayers = new BackendTabPlayer[0];
 
     /**
      * Constructs new instance with given parameters and loads armor stands.
@@ -78,7 +81,63 @@ public class BackendArmorStandManager implements ArmorStandManager {
      *          Move diff
      */
     public void move(@NotNull BackendTabPlayer viewer, @NotNull Location diff) {
-        for (ArmorStand a : armorStandArray) a.move(viewer, diff);
+        if (viewer != owner && !isNearby(viewer)) {
+            spawn(viewer);
+            return;
+        }
+        move0(viewer, diff);
+    }
+
+    /**
+     * Sends move packets of all armor stands to viewer, bundled together
+     * if there is more than one armor stand, so they move in the same frame.
+     *
+     * @param   viewer
+     *          player to move armor stands for
+     * @param   diff
+     *          Move diff
+     */
+    private void move0(@NotNull BackendTabPlayer viewer, @NotNull Location diff) {
+        if (armorStandArray.length == 1) {
+            viewer.getEntityView().moveEntity(armorStandArray[0].getEntityId(), diff);
+            return;
+        }
+        viewer.getEntityView().sendBundle(() -> {
+            for (ArmorStand a : armorStandArray) viewer.getEntityView().moveEntity(a.getEntityId(), diff);
+        });
+    }
+
+    /**
+     * Moves armor stands to match player move packet if viewer already sees them.
+     * Only reads state which is safe to access from any thread, so it can be called
+     * directly from the packet pipeline without submitting a task.
+     *
+     * @param   viewer
+     *          player to move armor stands for
+     * @param   diff
+     *          Move diff
+     * @return  {@code true} if armor stands were moved, {@code false} if viewer does not see them
+     *          and {@link #move(BackendTabPlayer, Location)} must be called on the main thread instead
+     */
+    public boolean moveDirectly(@NotNull BackendTabPlayer viewer, @NotNull Location diff) {
+        if (viewer != owner && !isNearbySnapshot(viewer)) return false;
+        move0(viewer, diff);
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if requested player was nearby when the nearby player array
+     * was last updated, {@code false} if not. Safe to call from any thread.
+     *
+     * @param   viewer
+     *          Player to check for
+     * @return  {@code true} if player nearby, {@code false} if not
+     */
+    private boolean isNearbySnapshot(@NotNull BackendTabPlayer viewer) {
+        for (BackendTabPlayer nearby : nearbyPlayers) {
+            if (nearby == viewer) return true;
+        }
+        return false;
     }
 
     /**
@@ -155,8 +214,7 @@ public class BackendArmorStandManager implements ArmorStandManager {
      *          player to spawn armor stands for
      */
     public void spawn(@NotNull BackendTabPlayer viewer) {
-        nearbyPlayerList.add(viewer);
-        nearbyPlayers = nearbyPlayerList.toArray(new BackendTabPlayer[0]);
+        if (nearbyPlayerList.add(viewer)) nearbyPlayers = nearbyPlayerList.toArray(new BackendTabPlayer[0]);
         if (viewer.getVersion().getMinorVersion() < 8) return;
         for (ArmorStand a : armorStandArray) a.spawn(viewer);
     }
@@ -233,7 +291,7 @@ public class BackendArmorStandManager implements ArmorStandManager {
 
     public void updateMetadata(@NotNull BackendTabPlayer viewer) {
         for (ArmorStand a : armorStandArray) {
-            viewer.getEntityView().updateEntityMetadata(a.entityId, a.createDataWatcher(a.getProperty().getFormat(viewer), viewer));
+            nameTagX.getPacketScheduler().updateMetadata(a, viewer);
         }
     }
 }
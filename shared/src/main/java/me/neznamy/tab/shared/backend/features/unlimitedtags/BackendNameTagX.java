@@ -20,12 +20,21 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
     /** Entity tracking range in blocks */
     private static final int ENTITY_TRACKING_RANGE = 48;
 
+    /** Size of player grid cells, larger than tracking range to tolerate movement between grid updates */
+    private static final int GRID_CELL_SIZE = ENTITY_TRACKING_RANGE + 16;
+
     /** Vehicle manager reference */
     @Getter private final VehicleRefresher vehicleManager = new VehicleRefresher(this);
 
     /** Packet Listener reference */
     protected final PacketListener packetListener = new PacketListener(this);
 
+    /** Scheduler sending armor stand teleports and metadata once per tick */
+    @Getter private final ArmorStandPacketScheduler packetScheduler = new ArmorStandPacketScheduler();
+
+    /** Grid of player positions for finding players near each other */
+    private final PlayerGrid playerGrid = new PlayerGrid(this, GRID_CELL_SIZE);
+
     protected BackendNameTagX() {
         super(BackendArmorStandManager::new);
         TAB.getInstance().getFeatureManager().registerFeature(TabConstants.Feature.UNLIMITED_NAME_TAGS_VEHICLE_REFRESHER, vehicleManager);
@@ -37,7 +46,6 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
      */
     private void startVisibilityRefreshTask() {
         TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(500, getExtraFeatureName(), TabConstants.CpuUsageCategory.REFRESHING_NAME_TAG_VISIBILITY, () -> {
-
             for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
                 if (isPlayerDisabled(p)) continue;
                 getArmorStandManager(p).updateVisibility(false);
@@ -54,24 +62,29 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
         super.load();
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             if (isPlayerDisabled(all)) continue;
-            for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+            for (TabPlayer viewer : playerGrid.getNearby(all)) {
                 spawnArmorStands(viewer, all);
             }
         }
         startVisibilityRefreshTask();
+        TAB.getInstance().getCPUManager().startRepeatingMeasuredTask(50, getExtraFeatureName(),
+                TabConstants.CpuUsageCategory.SENDING_ARMOR_STAND_UPDATES, packetScheduler::flush);
     }
 
     @Override
     public void unload() {
         super.unload();
+        packetScheduler.clear();
+        playerGrid.clear();
         unregisterListener();
     }
 
     @Override
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         super.onJoin(connectedPlayer);
+        playerGrid.update(connectedPlayer);
         if (isPlayerDisabled(connectedPlayer)) return;
-        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+        for (TabPlayer viewer : playerGrid.getNearby(connectedPlayer)) {
             spawnArmorStands(viewer, connectedPlayer);
             spawnArmorStands(connectedPlayer, viewer);
         }
@@ -103,6 +116,7 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
     @Override
     public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
         super.onQuit(disconnectedPlayer);
+        playerGrid.remove(disconnectedPlayer);
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             getArmorStandManager(all).unregisterPlayer((BackendTabPlayer) disconnectedPlayer);
         }
@@ -112,7 +126,8 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
     @Override
     public void resumeArmorStands(@NotNull TabPlayer player) {
         if (isPlayerDisabled(player)) return;
-        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+        playerGrid.update(player);
+        for (TabPlayer viewer : playerGrid.getNearby(player)) {
             spawnArmorStands(viewer, player);
         }
     }
@@ -141,6 +156,7 @@ public abstract class BackendNameTagX extends NameTagX implements GameModeListen
     @Override
     public void onWorldChange(@NotNull TabPlayer p, @NotNull String from, @NotNull String to) {
         super.onWorldChange(p, from, to);
+        playerGrid.update(p);
         BackendArmorStandManager asm = getArmorStandManager(p);
         if (p.unlimitedNametagData.previewing) {
             asm.spawn((BackendTabPlayer) p);
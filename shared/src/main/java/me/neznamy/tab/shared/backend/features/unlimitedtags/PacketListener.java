@@ -10,12 +10,9 @@ import me.neznamy.tab.shared.features.types.TabFeature;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.backend.BackendTabPlayer;
+import me.neznamy.tab.shared.util.IntObjectMap;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * The packet listening part for securing proper functionality of armor stands.
  * Events are too unreliable and delayed/ahead which causes de-sync
@@ -29,8 +26,17 @@ public class PacketListener extends TabFeature implements JoinListener, QuitList
     /** Reference to the main feature */
     protected final BackendNameTagX nameTagX;
 
+    /** Shared empty array for entities without passengers */
+    private static final int[] NO_PASSENGERS = new int[0];
+
     /** A player map by entity id, used for better performance */
-    private final Map<Integer, TabPlayer> entityIdMap = new ConcurrentHashMap<>();
+    private final IntObjectMap<TabPlayer> entityIdMap = new IntObjectMap<>();
+
+    /**
+     * Whether armor stands of players already seen by the viewer should be moved directly
+     * in the packet pipeline instead of submitting a task for each move packet
+     */
+    private final boolean inlineMovement = config().getBoolean("scoreboard-teams.unlimited-nametag-mode.inline-move-packets", true);
 
     @Override
     public void load() {
@@ -115,15 +121,17 @@ public class PacketListener extends TabFeature implements JoinListener, QuitList
             // player moved
             if (nameTagX.isPlayerDisabled(pl) || !pl.isLoaded()) return;
             BackendArmorStandManager asm = nameTagX.getArmorStandManager(pl);
+            if (inlineMovement && moveDirectly(asm, receiver, positionDiff, TabConstants.CpuUsageCategory.PACKET_PLAYER_MOVE)) return;
             TAB.getInstance().getCPUManager().runMeasuredTask(getFeatureName(), TabConstants.CpuUsageCategory.PACKET_PLAYER_MOVE,
                     () -> asm.move(receiver, positionDiff));
         } else {
             // a non-player entity moved
-            for (Integer entity : nameTagX.getVehicleManager().getVehicles().getOrDefault(entityId, Collections.emptyList())) {
+            for (int entity : nameTagX.getVehicleManager().getVehicles().getOrDefault(entityId, NO_PASSENGERS)) {
                 TabPlayer passenger = entityIdMap.get(entity);
                 if (passenger != null) {
                     BackendArmorStandManager asm = nameTagX.getArmorStandManager(passenger);
                     if (asm != null) {
+                        if (inlineMovement && moveDirectly(asm, receiver, positionDiff, TabConstants.CpuUsageCategory.PACKET_ENTITY_MOVE_PASSENGER)) continue;
                         TAB.getInstance().getCPUManager().runMeasuredTask(getFeatureName(), TabConstants.CpuUsageCategory.PACKET_ENTITY_MOVE_PASSENGER,
                                 () -> asm.move(receiver, positionDiff));
                     }
@@ -132,6 +140,29 @@ public class PacketListener extends TabFeature implements JoinListener, QuitList
         }
     }
 
+    /**
+     * Moves armor stands directly on current thread if viewer already sees them
+     * and adds the time to cpu usage of specified type if tracking is enabled.
+     *
+     * @param   asm
+     *          Armor stand manager to move armor stands of
+     * @param   receiver
+     *          packet receiver
+     * @param   positionDiff
+     *          Position difference
+     * @param   type
+     *          Cpu usage type to add the time to
+     * @return  {@code true} if armor stands were moved, {@code false} if a task must be submitted instead
+     */
+    private boolean moveDirectly(@NotNull BackendArmorStandManager asm, @NotNull BackendTabPlayer receiver,
+                                 @NotNull Location positionDiff, @NotNull String type) {
+        if (!TAB.getInstance().getCPUManager().isTrackUsage()) return asm.moveDirectly(receiver, positionDiff);
+        long time = System.nanoTime();
+        boolean moved = asm.moveDirectly(receiver, positionDiff);
+        if (moved) TAB.getInstance().getCPUManager().addTime(getFeatureName(), type, System.nanoTime() - time);
+        return moved;
+    }
+
     /**
      * Processes entity teleport packet. If entity ID belongs to a player,
      * armor stands of that player are teleported to player who received the packet.
@@ -153,7 +184,7 @@ public class PacketListener extends TabFeature implements JoinListener, QuitList
                     () -> asm.teleport(receiver));
         } else {
             // a non-player entity teleported
-            for (Integer entity : nameTagX.getVehicleManager().getVehicles().getOrDefault(entityId, Collections.emptyList())) {
+            for (int entity : nameTagX.getVehicleManager().getVehicles().getOrDefault(entityId, NO_PASSENGERS)) {
                 TabPlayer passenger = entityIdMap.get(entity);
                 if (passenger != null) {
                     BackendArmorStandManager asm = nameTagX.getArmorStandManager(passenger);
@@ -0,0 +1,125 @@
+package me.neznamy.tab.shared.backend.features.unlimitedtags;
+
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Spatial hash of players by world and grid cell, used to find players near another
+ * player without checking all online players. Cells are larger than entity tracking range,
+ * so players in tracking range are always in the same or one of 8 neighbouring cells,
+ * even if they moved a bit since their position in the grid was updated.
+ * Positions of all players are updated when the grid is queried and the last update
+ * is older than {@link #MAX_AGE_MILLIS}, callers must still check the exact distance.
+ * This class is not thread-safe and must only be accessed from the main thread.
+ */
+@RequiredArgsConstructor
+public class PlayerGrid {
+
+    /** Maximum age of player positions in milliseconds before they are updated on query */
+    private static final int MAX_AGE_MILLIS = 500;
+
+    /** Main feature for retrieving player positions */
+    @NotNull private final BackendNameTagX feature;
+
+    /** Size of a cell in blocks */
+    private final int cellSize;
+
+    /** Players in cells by world and cell */
+    private final Map<String, Map<Long, List<TabPlayer>>> cells = new HashMap<>();
+
+    /** Cell each player is currently in */
+    private final Map<TabPlayer, List<TabPlayer>> playerCells = new HashMap<>();
+
+    /** Time when positions of all players were last updated */
+    private long lastRebuild;
+
+    /**
+     * Inserts player into the grid or moves them to their current cell if already present.
+     *
+     * @param   player
+     *          Player to update
+     */
+    public void update(@NotNull TabPlayer player) {
+        List<TabPlayer> cell = cells.computeIfAbsent(player.getWorld(), w -> new HashMap<>())
+                .computeIfAbsent(cellKey(feature.getX(player), feature.getZ(player)), c -> new ArrayList<>());
+        List<TabPlayer> previous = playerCells.put(player, cell);
+        if (previous == cell) return;
+        if (previous != null) previous.remove(player);
+        cell.add(player);
+    }
+
+    /**
+     * Removes player from the grid.
+     *
+     * @param   player
+     *          Player to remove
+     */
+    public void remove(@NotNull TabPlayer player) {
+        List<TabPlayer> previous = playerCells.remove(player);
+        if (previous != null) previous.remove(player);
+    }
+
+    /**
+     * Updates positions of all given players and removes empty cells.
+     *
+     * @param   players
+     *          Online players
+     */
+    public void rebuild(@NotNull TabPlayer[] players) {
+        for (TabPlayer player : players) {
+            update(player);
+        }
+        for (Map<Long, List<TabPlayer>> worldCells : cells.values()) {
+            worldCells.values().removeIf(List::isEmpty);
+        }
+        cells.values().removeIf(Map::isEmpty);
+        lastRebuild = System.currentTimeMillis();
+    }
+
+    /**
+     * Removes all players from the grid.
+     */
+    public void clear() {
+        cells.clear();
+        playerCells.clear();
+        lastRebuild = 0;
+    }
+
+    /**
+     * Returns all players in the same world whose cell is the cell of given player
+     * or one of its neighbours. This includes the player itself if present in the grid.
+     * Positions of all online players are updated first if they are too old.
+     *
+     * @param   player
+     *          Player to get nearby players of
+     * @return  Players possibly in tracking range of given player
+     */
+    @NotNull
+    public List<TabPlayer> getNearby(@NotNull TabPlayer player) {
+        if (System.currentTimeMillis() - lastRebuild > MAX_AGE_MILLIS) rebuild(TAB.getInstance().getOnlinePlayers());
+        Map<Long, List<TabPlayer>> worldCells = cells.get(player.getWorld());
+        if (worldCells == null) return Collections.emptyList();
+        int cellX = (int) Math.floor(feature.getX(player) / cellSize);
+        int cellZ = (int) Math.floor(feature.getZ(player) / cellSize);
+        List<TabPlayer> nearby = new ArrayList<>();
+        for (int x = cellX - 1; x <= cellX + 1; x++) {
+            for (int z = cellZ - 1; z <= cellZ + 1; z++) {
+                List<TabPlayer> cell = worldCells.get(cellKey(x, z));
+                if (cell != null) nearby.addAll(cell);
+            }
+        }
+        return nearby;
+    }
+
+    private long cellKey(double x, double z) {
+        return cellKey((int) Math.floor(x / cellSize), (int) Math.floor(z / cellSize));
+    }
+
+    private long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
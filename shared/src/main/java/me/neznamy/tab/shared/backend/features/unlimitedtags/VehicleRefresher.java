@@ -7,10 +7,10 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.backend.BackendTabPlayer;
 import me.neznamy.tab.shared.features.types.*;
+import me.neznamy.tab.shared.util.IntObjectMap;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Sub-feature for unlimited name tag mode to secure
@@ -30,9 +30,9 @@ public class VehicleRefresher extends TabFeature implements JoinListener, QuitLi
     /** Array of players in vehicles to iterate over */
     private TabPlayer[] playersInVehicleArray = new TabPlayer[0];
 
-    /** Map of vehicles carrying players */
+    /** Map of vehicles carrying players, key is vehicle's entity id and value are entity ids of passengers */
     @Getter
-    private final Map<Integer, List<Integer>> vehicles = new ConcurrentHashMap<>();
+    private final IntObjectMap<int[]> vehicles = new IntObjectMap<>();
 
     /** Reference to the main feature */
     private final BackendNameTagX feature;
@@ -78,8 +78,18 @@ public class VehicleRefresher extends TabFeature implements JoinListener, QuitLi
     public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
         if (playersInVehicle.containsKey(disconnectedPlayer)) vehicles.remove(feature.getEntityId(playersInVehicle.remove(disconnectedPlayer)));
         playersInVehicleArray = playersInVehicle.keySet().toArray(new TabPlayer[0]);
-        for (List<Integer> entities : vehicles.values()) {
-            entities.remove((Integer)feature.getEntityId(disconnectedPlayer));
+        int entityId = feature.getEntityId(disconnectedPlayer);
+        for (int vehicle : vehicles.keys()) {
+            int[] passengers = vehicles.get(vehicle);
+            if (passengers == null) continue;
+            for (int i = 0; i < passengers.length; i++) {
+                if (passengers[i] != entityId) continue;
+                int[] remaining = new int[passengers.length - 1];
+                System.arraycopy(passengers, 0, remaining, 0, i);
+                System.arraycopy(passengers, i + 1, remaining, i, remaining.length - i);
+                vehicles.put(vehicle, remaining);
+                break;
+            }
         }
     }
 
@@ -123,7 +133,14 @@ public class VehicleRefresher extends TabFeature implements JoinListener, QuitLi
     }
 
     private void updateVehicle(Object vehicle) {
-        feature.runInEntityScheduler(vehicle, () -> vehicles.put(feature.getEntityId(vehicle), feature.getPassengers(vehicle)));
+        feature.runInEntityScheduler(vehicle, () -> {
+            List<Integer> passengers = feature.getPassengers(vehicle);
+            int[] ids = new int[passengers.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = passengers.get(i);
+            }
+            vehicles.put(feature.getEntityId(vehicle), ids);
+        });
     }
 
     @Override
@@ -0,0 +1,573 @@
+package me.neznamy.tab.shared.chat;
+
+import me.neznamy.tab.shared.chat.rgb.RGBUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser converting colorized text into components. It recognizes
+ * legacy color codes, all supported RGB formats and gradients while walking the text
+ * once, emitting components directly instead of reformatting the text with every
+ * pattern first. Results are identical to applying {@link RGBUtils#applyFormats(String)}
+ * and processing the output. Texts where formats are combined in a way this parser cannot
+ * reproduce the same way are rejected, letting the caller use the regular conversion.
+ */
+class ColoredTextParser {
+
+    /** Return value for position where no format starts */
+    private static final int NO_MATCH = -1;
+
+    /** Return value for text which cannot be parsed in a single pass */
+    private static final int UNSUPPORTED = -2;
+
+    /** Return value for gradient which was applied, continuing with {@link #remainingText} */
+    private static final int GRADIENT = -3;
+
+    /** Start of CMI gradient shortcut */
+    private static final String CMI_SHORTCUT = "<>}";
+
+    /** Start of NexEngine gradient */
+    private static final String NEX_START = "<gradient:#";
+
+    /** End of NexEngine gradient */
+    private static final String NEX_END = "</gradient:#";
+
+    /** Starts of gradient types in the order they are applied by {@link RGBUtils#applyFormats(String)} */
+    private static final String[] GRADIENT_STARTS = {"{#", "<#", "<$#", NEX_START};
+
+    /** Font of all components */
+    @Nullable
+    private final String font;
+
+    /** Finished components */
+    private final List<StructuredComponent> components = new ArrayList<>();
+
+    /** Component currently being built */
+    @NotNull
+    private StructuredComponent component = new StructuredComponent();
+
+    /** Text of current component */
+    @NotNull
+    private StringBuilder builder = new StringBuilder();
+
+    /** Text to continue parsing with after a gradient was applied */
+    @NotNull
+    private String remainingText = "";
+
+    /**
+     * Constructs new instance with given font.
+     *
+     * @param   font
+     *          Font of all components
+     */
+    private ColoredTextParser(@Nullable String font) {
+        this.font = font;
+        component.getModifier().setFont(font);
+    }
+
+    /**
+     * Parses colorized text into components. Returns {@code null} if the text
+     * cannot be parsed in a single pass with identical result.
+     *
+     * @param   text
+     *          Text with colors already translated using {@link EnumChatFormat#color(String)}
+     * @param   font
+     *          Font of all components
+     * @return  Parsed components or {@code null} if not supported
+     */
+    @Nullable
+    static List<StructuredComponent> parse(@NotNull String text, @Nullable String font) {
+        ColoredTextParser parser = new ColoredTextParser(font);
+        String expanded = text.contains(CMI_SHORTCUT) ? expandCmiShortcuts(text) : text;
+        if (!parser.parse(expanded)) return null;
+        parser.component.setText(parser.builder.toString());
+        parser.components.add(parser.component);
+        return parser.components;
+    }
+
+    /**
+     * Parses given text into the current component state. Gradients are applied
+     * in place and the text is parsed further including the applied gradient,
+     * so it can be combined with text following it the same way as when all
+     * gradients are applied first.
+     *
+     * @param   originalText
+     *          Text to parse
+     * @return  {@code true} if parsed successfully, {@code false} if not supported
+     */
+    private boolean parse(@NotNull String originalText) {
+        String text = originalText;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int next;
+            switch (c) {
+                case EnumChatFormat.COLOR_CHAR:
+                    next = parseColorCode(text, i);
+                    break;
+                case '#':
+                    next = parseHash(text, i, i);
+                    break;
+                case '<':
+                    next = parseAngleBracket(text, i);
+                    break;
+                case '{':
+                    next = parseBrace(text, i);
+                    break;
+                default:
+                    next = NO_MATCH;
+                    break;
+            }
+            if (next == UNSUPPORTED) return false;
+            if (next == GRADIENT) {
+                text = remainingText;
+                length = text.length();
+                i = 0;
+            } else if (next == NO_MATCH) {
+                builder.append(c);
+                i++;
+            } else {
+                i = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a color code starting with the color symbol, including
+     * {@code §x§R§R§G§G§B§B} and {@code §#RRGGBB} formats.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the color symbol
+     * @return  Position after the code or {@link #UNSUPPORTED}
+     */
+    private int parseColorCode(@NotNull String text, int i) {
+        if (i + 1 >= text.length()) return text.length();
+        char c = text.charAt(i + 1);
+        // Formats converted to #RRGGBB would turn this into §#RRGGBB before it is converted too
+        if (c == EnumChatFormat.COLOR_CHAR || c == '{' || c == '<') return UNSUPPORTED;
+        if (c == 'x') {
+            int end = parseBukkitHex(text, i);
+            if (end != NO_MATCH) return end;
+        }
+        if (c == '#') {
+            int end = parseHash(text, i + 1, i);
+            if (end != NO_MATCH) return end;
+            builder.append('#');
+            return i + 2;
+        }
+        if (c >= 'A' && c <= 'Z') c = (char) (c + ' ');
+        EnumChatFormat format = EnumChatFormat.getByChar(c);
+        if (format != null) applyFormat(format);
+        return i + 2;
+    }
+
+    /**
+     * Parses {@code §x§R§R§G§G§B§B} format.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the color symbol
+     * @return  Position after the code, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseBukkitHex(@NotNull String text, int i) {
+        if (i + 14 > text.length()) return NO_MATCH;
+        for (int k = i + 2; k < i + 14; k++) {
+            char c = text.charAt(k);
+            if (c != EnumChatFormat.COLOR_CHAR && c != '&' && !isHexDigit(c)) return NO_MATCH;
+        }
+        char[] hex = new char[6];
+        for (int k = 0; k < 6; k++) {
+            hex[k] = text.charAt(i + 3 + 2 * k);
+            if (!isHexDigit(hex[k])) return UNSUPPORTED;
+        }
+        if (isAfterBracket(text, i, true)) return UNSUPPORTED;
+        return applyHex(text, new String(hex), i + 14);
+    }
+
+    /**
+     * Parses {@code #RRGGBB} and {@code #<RRGGBB>} formats.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the {@code #} symbol
+     * @param   formatStart
+     *          Position where the format starts
+     * @return  Position after the code, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseHash(@NotNull String text, int i, int formatStart) {
+        if (i + 8 < text.length() && text.charAt(i + 1) == '<' && text.charAt(i + 8) == '>' && isHex(text, i + 2)) {
+            if (isAfterBracket(text, formatStart, false)) return UNSUPPORTED;
+            return applyHex(text, text.substring(i + 2, i + 8), i + 9);
+        }
+        if (i + 6 < text.length() && isHex(text, i + 1)) {
+            if (formatStart != i && isAfterBracket(text, formatStart, false)) return UNSUPPORTED;
+            return applyHex(text, text.substring(i + 1, i + 7), i + 7);
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Parses formats starting with {@code <}, which are {@code <#RRGGBB>},
+     * {@code <#RRGGBB>Text</#RRGGBB>}, {@code <$#RRGGBB>Text<$#RRGGBB>} and
+     * {@code <gradient:#RRGGBB>Text</gradient:#RRGGBB>} including their variants
+     * with forced legacy color.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the {@code <} symbol
+     * @return  Position after the format, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseAngleBracket(@NotNull String text, int i) {
+        if (text.startsWith("<#", i)) {
+            int end = parseCommonGradient(text, i, 1, 2, "</#");
+            if (end != NO_MATCH) return end;
+            if (i + 8 < text.length() && text.charAt(i + 8) == '>' && isHex(text, i + 2)) {
+                if (isAfterBracket(text, i, false)) return UNSUPPORTED;
+                return applyHex(text, text.substring(i + 2, i + 8), i + 9);
+            }
+            return NO_MATCH;
+        }
+        if (text.startsWith("<$#", i)) {
+            return parseCommonGradient(text, i, 2, 3, "<$#");
+        }
+        if (text.startsWith(NEX_START, i)) {
+            return parseNexGradient(text, i);
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Parses formats starting with <code>{</code>, which are <code>{#RRGGBB}</code>
+     * and <code>{#RRGGBB>}Text{#RRGGBB<}</code> including its variant with forced legacy color.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the <code>{</code> symbol
+     * @return  Position after the format, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseBrace(@NotNull String text, int i) {
+        if (i + 8 >= text.length() || text.charAt(i + 1) != '#' || !isHex(text, i + 2)) return NO_MATCH;
+        int length = text.length();
+        EnumChatFormat legacy = null;
+        int contentStart = NO_MATCH;
+        if (i + 11 < length && text.charAt(i + 8) == '|' && text.charAt(i + 9) != '\n' && text.charAt(i + 10) == '>' && text.charAt(i + 11) == '}') {
+            legacy = EnumChatFormat.getByChar(text.charAt(i + 9));
+            if (legacy == null) return NO_MATCH;
+            contentStart = i + 12;
+        } else if (i + 9 < length && text.charAt(i + 8) == '>' && text.charAt(i + 9) == '}') {
+            contentStart = i + 10;
+        }
+        if (contentStart != NO_MATCH) {
+            int close = text.indexOf('{', contentStart);
+            if (close != -1 && close + 9 < length && text.charAt(close + 1) == '#' && isHex(text, close + 2) &&
+                    text.charAt(close + 8) == '<' && text.charAt(close + 9) == '}') {
+                TextColor start = legacy == null ? new TextColor(text.substring(i + 2, i + 8)) : new TextColor(text.substring(i + 2, i + 8), legacy);
+                return applyGradient(text, i, start, text.substring(contentStart, close), text.substring(close + 2, close + 8), close + 10);
+            }
+            return isGradientAhead(text, i, 0, legacy != null) ? UNSUPPORTED : NO_MATCH;
+        }
+        if (text.charAt(i + 8) == '}') {
+            if (isAfterBracket(text, i, true)) return UNSUPPORTED;
+            return applyHex(text, text.substring(i + 2, i + 8), i + 9);
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Parses {@code <#RRGGBB>Text</#RRGGBB>} or {@code <$#RRGGBB>Text<$#RRGGBB>} gradient
+     * including its variant with forced legacy color.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the {@code <} symbol
+     * @param   type
+     *          Index of the gradient type in {@link #GRADIENT_STARTS}
+     * @param   hexStart
+     *          Offset of the hex code from start of the format
+     * @param   endPrefix
+     *          Text the closing tag starts with, followed by hex code and {@code >}
+     * @return  Position after the gradient, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseCommonGradient(@NotNull String text, int i, int type, int hexStart, @NotNull String endPrefix) {
+        int length = text.length();
+        int h = i + hexStart;
+        if (h + 6 >= length || !isHex(text, h)) return NO_MATCH;
+        EnumChatFormat legacy = null;
+        int contentStart;
+        if (text.charAt(h + 6) == '>') {
+            contentStart = h + 7;
+        } else if (h + 8 < length && text.charAt(h + 6) == '|' && text.charAt(h + 7) != '\n' && text.charAt(h + 8) == '>') {
+            legacy = EnumChatFormat.getByChar(text.charAt(h + 7));
+            if (legacy == null) return NO_MATCH;
+            contentStart = h + 9;
+        } else {
+            return NO_MATCH;
+        }
+        int close = text.indexOf('<', contentStart);
+        int closeHex = close + endPrefix.length();
+        if (close == -1 || closeHex + 6 >= length || !text.startsWith(endPrefix, close) || !isHex(text, closeHex) || text.charAt(closeHex + 6) != '>') {
+            return isGradientAhead(text, i, type, legacy != null) ? UNSUPPORTED : NO_MATCH;
+        }
+        String content = text.substring(contentStart, close);
+        if (content.contains("{#")) return UNSUPPORTED; // CMI gradients are applied first
+        TextColor start = legacy == null ? new TextColor(text.substring(h, h + 6)) : new TextColor(text.substring(h, h + 6), legacy);
+        return applyGradient(text, i, start, content, text.substring(closeHex, closeHex + 6), closeHex + 7);
+    }
+
+    /**
+     * Parses {@code <gradient:#RRGGBB>Text</gradient:#RRGGBB>} gradient including
+     * its variant with forced legacy color.
+     *
+     * @param   text
+     *          Text to parse
+     * @param   i
+     *          Position of the {@code <} symbol
+     * @return  Position after the gradient, {@link #NO_MATCH} or {@link #UNSUPPORTED}
+     */
+    private int parseNexGradient(@NotNull String text, int i) {
+        int length = text.length();
+        int h = i + NEX_START.length();
+        if (h + 6 >= length || !isHex(text, h)) return NO_MATCH;
+        EnumChatFormat legacy = null;
+        int contentStart;
+        if (text.charAt(h + 6) == '>') {
+            contentStart = h + 7;
+        } else if (h + 8 < length && text.charAt(h + 6) == '|' && text.charAt(h + 7) != '\n' && text.charAt(h + 8) == '>') {
+            legacy = EnumChatFormat.getByChar(text.charAt(h + 7));
+            if (legacy == null) return NO_MATCH;
+            contentStart = h + 9;
+        } else {
+            return NO_MATCH;
+        }
+        int newLine = text.indexOf('\n', contentStart);
+        int close = text.indexOf(NEX_END, contentStart);
+        while (close != -1 && (newLine == -1 || close < newLine)) {
+            int closeHex = close + NEX_END.length();
+            if (closeHex + 6 < length && isHex(text, closeHex) && text.charAt(closeHex + 6) == '>') {
+                String content = text.substring(contentStart, close);
+                if (content.indexOf('<') != -1 || content.contains("{#")) return UNSUPPORTED; // Other gradients are applied first
+                TextColor start = legacy == null ? new TextColor(text.substring(h, h + 6)) : new TextColor(text.substring(h, h + 6), legacy);
+                return applyGradient(text, i, start, content, text.substring(closeHex, closeHex + 6), closeHex + 7);
+            }
+            close = text.indexOf(NEX_END, close + 1);
+        }
+        return isGradientAhead(text, i, 3, legacy != null) ? UNSUPPORTED : NO_MATCH;
+    }
+
+    /**
+     * Applies gradient on given content and prepares remaining text starting with the result.
+     *
+     * @param   text
+     *          Text being parsed
+     * @param   formatStart
+     *          Position where the gradient starts
+     * @param   start
+     *          Start color
+     * @param   content
+     *          Text to apply gradient on
+     * @param   endHex
+     *          Hex code of end color
+     * @param   end
+     *          Position after the gradient
+     * @return  {@link #GRADIENT} or {@link #UNSUPPORTED}
+     */
+    private int applyGradient(@NotNull String text, int formatStart, @NotNull TextColor start, @NotNull String content,
+                              @NotNull String endHex, int end) {
+        if (isAfterBracket(text, formatStart, true)) return UNSUPPORTED;
+        String applied = RGBUtils.getInstance().applyGradient(start, content, new TextColor(endHex));
+        // Empty gradient would join surrounding text, which may form other formats
+        if (applied.isEmpty()) return UNSUPPORTED;
+        remainingText = applied + text.substring(end);
+        return GRADIENT;
+    }
+
+    /**
+     * Starts a new component with given hex color. If the hex code is followed by
+     * {@code |} and a legacy color character, the legacy color is forced.
+     *
+     * @param   text
+     *          Text being parsed
+     * @param   hex
+     *          Hex code of the color
+     * @param   end
+     *          Position after the hex code
+     * @return  Position after the color
+     */
+    private int applyHex(@NotNull String text, @NotNull String hex, int end) {
+        TextColor color;
+        EnumChatFormat legacy = end + 1 < text.length() && text.charAt(end) == '|' ? EnumChatFormat.getByChar(text.charAt(end + 1)) : null;
+        if (legacy != null) {
+            color = new TextColor(hex, legacy);
+            end += 2;
+        } else {
+            color = new TextColor(hex);
+        }
+        if (builder.length() > 0) {
+            component.setText(builder.toString());
+            components.add(component);
+            builder = new StringBuilder();
+        }
+        component = new StructuredComponent();
+        component.getModifier().setColor(color);
+        component.getModifier().setFont(font);
+        return end;
+    }
+
+    /**
+     * Applies legacy color or magic code to the current component.
+     *
+     * @param   format
+     *          Format to apply
+     */
+    private void applyFormat(@NotNull EnumChatFormat format) {
+        if (builder.length() > 0) {
+            component.setText(builder.toString());
+            components.add(component);
+            component = new StructuredComponent(component);
+            component.setText("");
+            component.getModifier().setFont(font);
+            builder = new StringBuilder();
+        }
+        switch (format) {
+            case BOLD:
+                component.getModifier().setBold(true);
+                break;
+            case ITALIC:
+                component.getModifier().setItalic(true);
+                break;
+            case UNDERLINE:
+                component.getModifier().setUnderlined(true);
+                break;
+            case STRIKETHROUGH:
+                component.getModifier().setStrikethrough(true);
+                break;
+            case OBFUSCATED:
+                component.getModifier().setObfuscated(true);
+                break;
+            case RESET:
+                component = new StructuredComponent();
+                component.getModifier().setColor(TextColor.legacy(EnumChatFormat.WHITE));
+                component.getModifier().setFont(font);
+                break;
+            default:
+                component = new StructuredComponent();
+                component.getModifier().setColor(TextColor.legacy(format));
+                component.getModifier().setFont(font);
+                break;
+        }
+    }
+
+    /**
+     * Returns {@code true} if format starting at given position is preceded by {@code <}
+     * or optionally <code>{</code>. Such formats are converted to {@code #RRGGBB} before
+     * {@code <#RRGGBB>} (and <code>{#RRGGBB}</code> for formats converted even sooner)
+     * is applied by the regular conversion, which may then match across them.
+     *
+     * @param   text
+     *          Text being parsed
+     * @param   formatStart
+     *          Position where the format starts
+     * @param   brace
+     *          Whether <code>{</code> should be checked as well
+     * @return  {@code true} if preceded by a bracket, {@code false} if not
+     */
+    private static boolean isAfterBracket(@NotNull String text, int formatStart, boolean brace) {
+        if (formatStart == 0) return false;
+        char c = text.charAt(formatStart - 1);
+        return c == '<' || (brace && c == '{');
+    }
+
+    /**
+     * Returns {@code true} if a gradient which did not find its end may still be formed
+     * by the regular conversion. This happens when text contains a gradient applied
+     * sooner, which changes the text, or a variant with forced legacy color of the same
+     * type, which is applied before the regular one.
+     *
+     * @param   text
+     *          Text being parsed
+     * @param   formatStart
+     *          Position where the gradient starts
+     * @param   type
+     *          Index of the gradient type in {@link #GRADIENT_STARTS}
+     * @param   legacy
+     *          Whether the gradient has forced legacy color
+     * @return  {@code true} if the gradient may be formed later, {@code false} if not
+     */
+    private static boolean isGradientAhead(@NotNull String text, int formatStart, int type, boolean legacy) {
+        for (int i = 0; i < type; i++) {
+            if (text.indexOf(GRADIENT_STARTS[i], formatStart + 1) != -1) return true;
+        }
+        if (legacy) return false;
+        String prefix = GRADIENT_STARTS[type];
+        for (int i = text.indexOf(prefix, formatStart + 1); i != -1; i = text.indexOf(prefix, i + 1)) {
+            int h = i + prefix.length();
+            if (h + 6 < text.length() && isHex(text, h) && text.charAt(h + 6) == '|') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if text contains 6 hexadecimal digits at given position.
+     *
+     * @param   text
+     *          Text to check
+     * @param   start
+     *          Position of the first digit
+     * @return  {@code true} if text contains hex code at given position, {@code false} if not
+     */
+    private static boolean isHex(@NotNull String text, int start) {
+        if (start + 6 > text.length()) return false;
+        for (int i = start; i < start + 6; i++) {
+            if (!isHexDigit(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if character is a hexadecimal digit.
+     *
+     * @param   c
+     *          Character to check
+     * @return  {@code true} if character is a hexadecimal digit, {@code false} if not
+     */
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Expands every <code>{#RRGGBB&lt;&gt;}</code> into <code>{#RRGGBB&lt;}{#RRGGBB&gt;}</code>,
+     * which ends the previous CMI gradient and starts a new one with the same color.
+     *
+     * @param   text
+     *          Text to expand
+     * @return  Text with expanded shortcuts
+     */
+    @NotNull
+    private static String expandCmiShortcuts(@NotNull String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        int i = 0;
+        while (i < text.length()) {
+            if (text.charAt(i) == '{' && i + 10 < text.length() && text.charAt(i + 1) == '#' && isHex(text, i + 2) &&
+                    text.startsWith(CMI_SHORTCUT, i + 8)) {
+                String code = text.substring(i + 2, i + 8);
+                sb.append("{#").append(code).append("<}{#").append(code).append(">}");
+                i += 11;
+            } else {
+                sb.append(text.charAt(i++));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -44,9 +44,12 @@ public enum EnumChatFormat {
     /** The color symbol in form of a string */
     public static final String COLOR_STRING = String.valueOf(COLOR_CHAR);
 
+    /** Characters which form a color code when following the '&amp;' symbol */
+    private static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx#";
+
     /** Cache for last colors to prevent massive memory allocations on request */
     private static final ComponentCache<String, EnumChatFormat> lastColorCache =
-            new ComponentCache<>(1000, (string, version) -> lastColorsOf0(string));
+            new ComponentCache<>("last-colors", 1000, (string, version) -> lastColorsOf0(string));
 
     /** Character representing the color or magic code */
     private final char character;
@@ -142,7 +145,7 @@ public enum EnumChatFormat {
         if (!textToTranslate.contains("&")) return textToTranslate;
         char[] b = textToTranslate.toCharArray();
         for (int i = 0; i < b.length - 1; i++) {
-            if ((b[i] == '&') && ("0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx#".indexOf(b[(i + 1)]) > -1)) {
+            if ((b[i] == '&') && (COLOR_CODES.indexOf(b[(i + 1)]) > -1)) {
                 b[i] = COLOR_CHAR;
                 b[(i + 1)] = Character.toLowerCase(b[(i + 1)]);
             }
@@ -150,6 +153,29 @@ public enum EnumChatFormat {
         return new String(b);
     }
 
+    /**
+     * Appends text to the builder while converting '&amp;' symbols into the actual
+     * color character if followed by a valid color character, the same way
+     * {@link #color(String)} does on the joined text. This includes a color code
+     * split between the end of the builder and the start of the text.
+     *
+     * @param   builder
+     *          builder to append text to
+     * @param   text
+     *          text to colorize and append
+     */
+    public static void appendColored(@NotNull StringBuilder builder, @NotNull String text) {
+        if (text.isEmpty()) return;
+        int last = builder.length() - 1;
+        if (last >= 0 && builder.charAt(last) == '&' && COLOR_CODES.indexOf(text.charAt(0)) > -1) {
+            builder.setCharAt(last, COLOR_CHAR);
+            builder.append(Character.toLowerCase(text.charAt(0)));
+            builder.append(color(text.substring(1)));
+        } else {
+            builder.append(color(text));
+        }
+    }
+
     /**
      * Turns back the color symbol into '&amp;' symbol in provided text.
      *
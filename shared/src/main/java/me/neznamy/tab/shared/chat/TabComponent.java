@@ -24,7 +24,7 @@ public abstract class TabComponent {
      * Component cache maps to avoid large memory allocations as well as
      * higher CPU usage when using animations which send the same text on repeat.
      */
-    private static final ComponentCache<String, TabComponent> stringCache = new ComponentCache<>(1000, (text, clientVersion) -> {
+    private static final ComponentCache<String, TabComponent> stringCache = new ComponentCache<>("components", 1000, (text, clientVersion) -> {
         return text.contains("#") || text.contains("&x") || text.contains(EnumChatFormat.COLOR_CHAR + "x") || text.contains("<") ?
                 fromColoredText(text) : //contains RGB colors or font
                 new SimpleComponent(text); //no RGB
@@ -125,9 +125,40 @@ public abstract class TabComponent {
         }
     }
 
+    /**
+     * Converts text into components. Text is parsed in a single pass if possible,
+     * otherwise all RGB formats are applied first and then the text is processed.
+     * MiniMessage is only called by the latter.
+     *
+     * @param   originalText
+     *          Text to convert
+     * @param   font
+     *          Font of the text
+     * @return  List of components
+     */
     @NotNull
     private static List<StructuredComponent> toComponentArray(@NotNull String originalText, @Nullable String font) {
-        String text = RGBUtils.getInstance().applyFormats(EnumChatFormat.color(originalText));
+        String colored = EnumChatFormat.color(originalText);
+        if (!RGBUtils.getInstance().isMiniMessage() || colored.indexOf('<') == -1) {
+            List<StructuredComponent> components = ColoredTextParser.parse(colored, font);
+            if (components != null) return components;
+        }
+        return applyFormatsAndParse(colored, font);
+    }
+
+    /**
+     * Applies all RGB formats and gradients to text and then converts it into components.
+     * This is the reference conversion, {@link ColoredTextParser} must produce identical results.
+     *
+     * @param   colored
+     *          Text with colors already translated using {@link EnumChatFormat#color(String)}
+     * @param   font
+     *          Font of the text
+     * @return  List of components
+     */
+    @NotNull
+    static List<StructuredComponent> applyFormatsAndParse(@NotNull String colored, @Nullable String font) {
+        String text = RGBUtils.getInstance().applyFormats(colored);
         List<StructuredComponent> components = new ArrayList<>();
         StringBuilder builder = new StringBuilder();
         StructuredComponent component = new StructuredComponent();
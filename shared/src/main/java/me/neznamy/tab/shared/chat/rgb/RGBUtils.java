@@ -2,6 +2,7 @@ package me.neznamy.tab.shared.chat.rgb;
 
 import lombok.Getter;
 import me.neznamy.tab.shared.chat.TabComponent;
+import me.neznamy.tab.shared.chat.TextColor;
 import me.neznamy.tab.shared.chat.rgb.format.BukkitFormat;
 import me.neznamy.tab.shared.chat.rgb.format.HtmlFormat;
 import me.neznamy.tab.shared.chat.rgb.format.KyoriFormat;
@@ -34,13 +35,17 @@ public class RGBUtils {
     /** Registered gradient patterns */
     private final GradientPattern[] gradients;
 
+    /** Flag tracking whether MiniMessage format is available */
+    @Getter private final boolean miniMessage;
+
     /**
      * Constructs new instance and loads all RGB patterns and gradients
      */
     public RGBUtils() {
         List<RGBFormatter> list = new ArrayList<>();
-        if (ReflectionUtils.classExists("net.kyori.adventure.text.minimessage.MiniMessage") &&
-                ReflectionUtils.classExists("net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer")) {
+        miniMessage = ReflectionUtils.classExists("net.kyori.adventure.text.minimessage.MiniMessage") &&
+                ReflectionUtils.classExists("net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer");
+        if (miniMessage) {
             list.add(new MiniMessageFormat());
         }
         list.add(new BukkitFormat());
@@ -83,6 +88,21 @@ public class RGBUtils {
         return replaced;
     }
 
+    /**
+     * Applies gradient on given text and returns it using #RRGGBB for every character.
+     *
+     * @param   start
+     *          Start color
+     * @param   text
+     *          Text to apply gradient on
+     * @param   end
+     *          End color
+     * @return  Text with gradient applied
+     */
+    public @NotNull String applyGradient(@NotNull TextColor start, @NotNull String text, @NotNull TextColor end) {
+        return gradients[0].asGradient(start, text, end);
+    }
+
     /**
      * Applies all gradient formats to text and returns it. This only affects
      * usage where no placeholder is used inside.
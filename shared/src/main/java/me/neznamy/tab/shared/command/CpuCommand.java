@@ -11,6 +11,8 @@ import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.api.placeholder.Placeholder;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.platform.UpdateBuffer;
+import me.neznamy.tab.shared.util.ComponentCache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,6 +57,16 @@ public class CpuCommand extends SubCommand {
         }
         sendMessage(sender, "&8&l" + LINE_CHAR + "&8&m                                                    ");
         sendMessage(sender, String.format("&8&l%s &6&lPlaceholders Total: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getPlaceholderUsageTotal()), 10, 5)));
+        if (report.getPlaceholderAllocationRate() != -1) {
+            sendMessage(sender, String.format("&8&l%s &6&lPlaceholder refresh allocations: &a&l%s KB/s", LINE_CHAR, decimal3.format(report.getPlaceholderAllocationRate() / 1024d)));
+        }
+        for (ComponentCache<?, ?> cache : ComponentCache.getCaches()) {
+            long requests = cache.getHits() + cache.getMisses();
+            sendMessage(sender, String.format("&8&l%s &6&lCache %s: &a&l%s%% hits&7, %s entries, %s evictions", LINE_CHAR, cache.getName(),
+                    decimal3.format(requests == 0 ? 0 : cache.getHits() * 100d / requests), cache.size(), cache.getEvictions()));
+        }
+        sendMessage(sender, String.format("&8&l%s &6&lBuffered updates: &a&l%s sent&7, %s saved", LINE_CHAR,
+                UpdateBuffer.getSent(), UpdateBuffer.getSaved()));
         sendMessage(sender, String.format("&8&l%s &6&lPlugin internals: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()-report.getPlaceholderUsageTotal()), 10, 5)));
         sendMessage(sender, String.format("&8&l%s &6&lTotal: &e&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()), 10, 5)));
         sendMessage(sender, "&8&l" + LINE_CHAR + "&8&m             &r&8&l[ &bTAB CPU Stats &8&l]&r&8&l&m             ");
@@ -22,6 +22,9 @@ import org.jetbrains.annotations.Nullable;
  */
 public class DebugCommand extends SubCommand {
 
+    /** Maximum amount of placeholders to show memory usage of */
+    private static final int PLACEHOLDER_MEMORY_LINES = 10;
+
     /**
      * Constructs new instance
      */
@@ -64,6 +67,7 @@ public class DebugCommand extends SubCommand {
         sendMessage(sender, "&6Permission group choice logic: &b" + getGroupChoiceLogic());
         sendMessage(sender, "&6Sorting system: &b" + getSortingType());
         sendMessage(sender, "&6Storage type: &b" + (tab.getConfiguration().getGroups() instanceof ConfigurationFile ? "File" : "MySQL"));
+        showPlaceholderMemory(sender);
         sendMessage(sender, separator);
         if (analyzed == null) return;
         if (!analyzed.isLoaded()) {
@@ -180,6 +184,27 @@ public class DebugCommand extends SubCommand {
         return "&eSorting note: &r" + analyzed.sortingData.teamNameNote;
     }
 
+    /**
+     * Shows approximate memory used by last known placeholder values,
+     * in total and for placeholders using the most memory.
+     *
+     * @param   sender
+     *          command sender or null if console
+     */
+    private void showPlaceholderMemory(@Nullable TabPlayer sender) {
+        Map<String, Long> usage = TAB.getInstance().getPlaceholderManager().getValueStore().getMemoryUsage();
+        long total = usage.values().stream().mapToLong(Long::longValue).sum();
+        sendMessage(sender, "&6Placeholder value memory: &b~" + total + " bytes");
+        int shown = 0;
+        for (Map.Entry<String, Long> entry : usage.entrySet()) {
+            if (shown++ == PLACEHOLDER_MEMORY_LINES) {
+                sendMessage(sender, "&7  ... and " + (usage.size() - PLACEHOLDER_MEMORY_LINES) + " more");
+                break;
+            }
+            sendMessage(sender, "&7  " + entry.getKey() + ": &b~" + entry.getValue() + " bytes");
+        }
+    }
+
     /**
      * Returns list of extra properties if unlimited nametag mode is enabled
      *
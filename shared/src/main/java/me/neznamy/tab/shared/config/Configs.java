@@ -31,11 +31,13 @@ public class Configs {
             new File(TAB.getInstance().getDataFolder(), "config.yml"));
 
     private final boolean bukkitPermissions = TAB.getInstance().getPlatform().isProxy() && config.getBoolean("use-bukkit-permissions-manager", false);
+    private final int bukkitPermissionsRefreshInterval = config.getInt("bukkit-permissions-refresh-interval", 1000);
     private final boolean debugMode = config.getBoolean("debug", false);
     private final boolean onlineUuidInTabList = config.getBoolean("use-online-uuid-in-tablist", true);
     private final boolean pipelineInjection = getSecretOption("pipeline-injection", true);
     private final String serverName = getSecretOption("server-name", "N/A");
     private final int permissionRefreshInterval = config.getInt("permission-refresh-interval", 1000);
+    private final long syncPlaceholderTickBudget = config.getInt("sync-placeholder-tick-budget-nanos", 5000000);
 
     //animations.yml file
     private final ConfigurationFile animationFile = new YamlConfigurationFile(getClass().getClassLoader().getResourceAsStream("config/animations.yml"),
@@ -85,7 +87,8 @@ public class Configs {
                         config.getString("mysql.database", "tab"),
                         config.getString("mysql.username", "user"),
                         config.getString("mysql.password", "password"),
-                        config.getBoolean("mysql.useSSL", true)
+                        config.getBoolean("mysql.useSSL", true),
+                        Math.max(1, config.getInt("mysql.pool-size", 2))
                 );
                 mysql.openConnection();
                 groups = new MySQLGroupConfiguration(mysql);
@@ -46,6 +46,7 @@ public abstract class ConfigurationFile {
      */
     protected ConfigurationFile(@Nullable InputStream source, @NonNull File destination) throws IOException {
         file = destination;
+        TAB.getInstance().getFileSaver().save(file); // Pending modifications from previous instance
         if (file.getParentFile() != null && !file.getParentFile().exists()) Files.createDirectories(file.getParentFile().toPath());
         if (!file.exists()) {
             if (source == null) throw new IllegalStateException("File does not exist and source is null");
@@ -54,6 +55,9 @@ public abstract class ConfigurationFile {
         detectHeader();
     }
 
+    /** Lock preventing multiple threads from writing the file at the same time */
+    protected final Object saveLock = new Object();
+
     /**
      * Saves values from map to the file
      */
@@ -299,7 +303,8 @@ public abstract class ConfigurationFile {
     }
 
     /**
-     * Sets value to the specified path and saves the file to disk by calling {@link #save()}.
+     * Sets value to the specified path and marks the file as modified. The file is saved
+     * to disk in the background shortly after, together with other modifications.
      *
      * @param   path
      *          Path to the option with sections separated with "{@code .}"
@@ -307,8 +312,25 @@ public abstract class ConfigurationFile {
      *          Value to save
      */
     public void set(@NonNull String path, @Nullable Object value) {
-        set(values, path, value);
-        save();
+        synchronized (this) {
+            set(values, path, value);
+        }
+        TAB.getInstance().getFileSaver().markDirty(this);
+    }
+
+    /**
+     * Sets values to the specified paths and marks the file as modified once.
+     *
+     * @param   values
+     *          Values to save by paths to the options, {@code null} values remove the options
+     */
+    public void setAll(@NonNull Map<String, Object> values) {
+        synchronized (this) {
+            for (Entry<String, Object> entry : values.entrySet()) {
+                set(this.values, entry.getKey(), entry.getValue());
+            }
+        }
+        TAB.getInstance().getFileSaver().markDirty(this);
     }
 
     /**
@@ -375,23 +397,6 @@ public abstract class ConfigurationFile {
         }
     }
 
-    /**
-     * Inserts header back into file. This is required after calling {@link #save()}, because
-     * it destroys the header.
-     *
-     * @throws  IOException
-     *          if I/O operation fails
-     */
-    public void fixHeader() throws IOException {
-        if (header == null) return;
-        List<String> content = new ArrayList<>(header);
-        content.addAll(Files.readAllLines(file.toPath()));
-        Files.delete(file.toPath());
-        if (file.createNewFile()) {
-            Files.write(file.toPath(), content);
-        }
-    }
-
     /**
      * Sets value to specified key if key does not exist.
      *
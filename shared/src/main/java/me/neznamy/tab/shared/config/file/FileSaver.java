@@ -0,0 +1,96 @@
+package me.neznamy.tab.shared.config.file;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves modified configuration files in the background. Files are marked as dirty
+ * when modified and saved once after a short delay, so multiple modifications
+ * in quick succession only write the file once. A new instance is created
+ * on every plugin load and shut down on unload.
+ */
+public class FileSaver {
+
+    /** Delay between first modification of a file and saving it */
+    private static final int SAVE_DELAY_MILLIS = 1000;
+
+    /** Thread saving the files */
+    private final ScheduledExecutorService thread = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("TAB File Saving Thread").setDaemon(true).build());
+
+    /** Files waiting to be saved by their absolute path */
+    private final Map<File, ConfigurationFile> dirtyFiles = new LinkedHashMap<>();
+
+    /** Flag tracking whether a save task is scheduled */
+    private boolean saveScheduled;
+
+    /**
+     * Marks file as modified and schedules saving it if not scheduled already.
+     * If this saver was already shut down, the file is saved immediately.
+     *
+     * @param   file
+     *          Modified file
+     */
+    public synchronized void markDirty(@NotNull ConfigurationFile file) {
+        dirtyFiles.put(file.getFile().getAbsoluteFile(), file);
+        if (saveScheduled) return;
+        saveScheduled = true;
+        try {
+            thread.schedule(this::saveAll, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            saveScheduled = false;
+            saveAll();
+        }
+    }
+
+    /**
+     * Immediately saves pending modifications of given file if there are any.
+     * This must be called before loading the file again from disk.
+     *
+     * @param   file
+     *          File to save
+     */
+    public void save(@NotNull File file) {
+        ConfigurationFile pending;
+        synchronized (this) {
+            pending = dirtyFiles.remove(file.getAbsoluteFile());
+        }
+        if (pending != null) pending.save();
+    }
+
+    /**
+     * Immediately saves all files with pending modifications on the calling thread.
+     */
+    public void saveAll() {
+        List<ConfigurationFile> files;
+        synchronized (this) {
+            saveScheduled = false;
+            if (dirtyFiles.isEmpty()) return;
+            files = new ArrayList<>(dirtyFiles.values());
+            dirtyFiles.clear();
+        }
+        for (ConfigurationFile file : files) {
+            file.save();
+        }
+    }
+
+    /**
+     * Stops the saving thread and saves all pending modifications on the calling
+     * thread, which blocks plugin unload until all files are written. Files modified
+     * after this call are saved immediately by the thread modifying them.
+     */
+    public void shutdown() {
+        thread.shutdownNow();
+        saveAll();
+    }
+}
@@ -4,10 +4,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.LinkedHashMap;
 import java.util.List;
 
@@ -69,17 +70,35 @@ public class YamlConfigurationFile extends ConfigurationFile {
         }
     }
 
+    /**
+     * Saves values to a temporary file, which then replaces the file, so
+     * the file is never left partially written if saving is interrupted.
+     */
     @Override
     public void save() {
-        try {
-            Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8);
+        synchronized (saveLock) {
+            StringBuilder content = new StringBuilder();
+            if (header != null) {
+                for (String line : header) {
+                    content.append(line).append(System.lineSeparator());
+                }
+            }
             DumperOptions options = new DumperOptions();
             options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-            new Yaml(options).dump(values, writer);
-            writer.close();
-            fixHeader();
-        } catch (IOException e) {
-            TAB.getInstance().getPlatform().logWarn(TabComponent.fromColoredText("Failed to save yaml file " + file.getPath() + " with content " + values.toString()));
+            synchronized (this) {
+                content.append(new Yaml(options).dump(values));
+            }
+            Path temp = new File(file.getPath() + ".tmp").toPath();
+            try {
+                Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                TAB.getInstance().getPlatform().logWarn(TabComponent.fromColoredText("Failed to save yaml file " + file.getPath() + " with content " + values.toString()));
+            }
         }
     }
 }
\ No newline at end of file
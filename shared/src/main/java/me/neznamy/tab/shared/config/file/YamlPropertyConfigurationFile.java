@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.TabConstants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -12,18 +14,99 @@ import org.jetbrains.annotations.Nullable;
 import me.neznamy.tab.shared.config.PropertyConfiguration;
 import me.neznamy.tab.shared.TAB;
 
+/**
+ * Property configuration stored in a YAML file. Properties are compiled into an index
+ * of lowercase names when the file is loaded and after every modification, so
+ * looking up a property does not need to walk the configuration or resolve
+ * world and server groups again.
+ */
 public class YamlPropertyConfigurationFile extends YamlConfigurationFile implements PropertyConfiguration {
 
     private final String PER_SERVER = "per-server";
     private final String PER_WORLD = "per-world";
+
+    /** Lowercase name of default group */
+    private static final String DEFAULT_GROUP = TabConstants.DEFAULT_GROUP.toLowerCase(Locale.US);
     
     private final String category;
-    private final List<Object> worldGroups = new ArrayList<>(getConfigurationSection(PER_WORLD).keySet());
-    private final List<Object> serverGroups = new ArrayList<>(getConfigurationSection(PER_SERVER).keySet());
+
+    /** Compiled properties, replaced on every modification */
+    private volatile Index index;
     
     public YamlPropertyConfigurationFile(@Nullable InputStream source, @NotNull File destination) throws IOException {
         super(source, destination);
         category = destination.getName().contains("groups") ? "group" : "user";
+        rebuildIndex();
+    }
+
+    @Override
+    public void set(@NotNull String path, @Nullable Object value) {
+        super.set(path, value);
+        rebuildIndex();
+    }
+
+    @Override
+    public void setAll(@NotNull Map<String, Object> values) {
+        super.setAll(values);
+        rebuildIndex();
+    }
+
+    /**
+     * Compiles current values into a new index.
+     */
+    private void rebuildIndex() {
+        synchronized (this) {
+            index = new Index(
+                    compileSection(values, true),
+                    compileGroups(getConfigurationSection(PER_WORLD)),
+                    compileGroups(getConfigurationSection(PER_SERVER))
+            );
+        }
+    }
+
+    /**
+     * Compiles section of groups or users into a map of lowercase name to lowercase
+     * property name to property value. If the same name is defined multiple times with
+     * different case, the first one is used.
+     *
+     * @param   section
+     *          Section to compile
+     * @param   root
+     *          Whether this is the root section containing per-world and per-server sections
+     * @return  Compiled section
+     */
+    @NotNull
+    private Map<String, Map<String, String>> compileSection(@Nullable Map<?, ?> section, boolean root) {
+        Map<String, Map<String, String>> compiled = new HashMap<>();
+        if (section == null) return compiled;
+        for (Map.Entry<?, ?> entry : section.entrySet()) {
+            String name = String.valueOf(entry.getKey());
+            if (root && (name.equalsIgnoreCase(PER_WORLD) || name.equalsIgnoreCase(PER_SERVER))) continue;
+            if (!(entry.getValue() instanceof Map)) continue;
+            Map<String, String> properties = compiled.computeIfAbsent(name.toLowerCase(Locale.US), n -> new HashMap<>());
+            for (Map.Entry<?, ?> property : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                if (property.getValue() == null) continue;
+                properties.putIfAbsent(String.valueOf(property.getKey()).toLowerCase(Locale.US), toString(property.getValue()));
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles per-world or per-server section.
+     *
+     * @param   section
+     *          Section with world or server groups
+     * @return  Compiled sections by world or server group
+     */
+    @NotNull
+    private Map<String, Map<String, Map<String, String>>> compileGroups(@NotNull Map<?, ?> section) {
+        Map<String, Map<String, Map<String, String>>> compiled = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : section.entrySet()) {
+            if (!(entry.getValue() instanceof Map)) continue;
+            compiled.put(String.valueOf(entry.getKey()), compileSection((Map<?, ?>) entry.getValue(), false));
+        }
+        return compiled;
     }
 
     @Override
@@ -39,33 +122,50 @@ public class YamlPropertyConfigurationFile extends YamlConfigurationFile impleme
 
     @Override
     public String[] getProperty(@NotNull String name, @NotNull String property, @Nullable String server, @Nullable String world) {
-        Object value;
-        if ((value = getObject(new String[] {PER_WORLD, TAB.getInstance().getConfiguration().getGroup(worldGroups, world), name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name + ", world=" + world};
-        }
-        if ((value = getObject(new String[] {PER_WORLD, TAB.getInstance().getConfiguration().getGroup(worldGroups, world), TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP + ", world=" + world};
-        }
-        if ((value = getObject(new String[] {PER_SERVER, TAB.getInstance().getConfiguration().getServerGroup(serverGroups, server), name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name + ", server=" + server};
+        Index index = this.index;
+        String lowerName = name.toLowerCase(Locale.US);
+        String lowerProperty = property.toLowerCase(Locale.US);
+        String value;
+        Map<String, Map<String, String>> worldSection = index.getWorldSection(world);
+        if (worldSection != null) {
+            if ((value = get(worldSection, lowerName, lowerProperty)) != null) {
+                return new String[] {value, category + "=" + name + ", world=" + world};
+            }
+            if ((value = get(worldSection, DEFAULT_GROUP, lowerProperty)) != null) {
+                return new String[] {value, category + "=" + TabConstants.DEFAULT_GROUP + ", world=" + world};
+            }
         }
-        if ((value = getObject(new String[] {PER_SERVER, TAB.getInstance().getConfiguration().getServerGroup(serverGroups, server), TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP + ", server=" + server};
+        Map<String, Map<String, String>> serverSection = index.getServerSection(server);
+        if (serverSection != null) {
+            if ((value = get(serverSection, lowerName, lowerProperty)) != null) {
+                return new String[] {value, category + "=" + name + ", server=" + server};
+            }
+            if ((value = get(serverSection, DEFAULT_GROUP, lowerProperty)) != null) {
+                return new String[] {value, category + "=" + TabConstants.DEFAULT_GROUP + ", server=" + server};
+            }
         }
-        if ((value = getObject(new String[] {name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name};
+        if ((value = get(index.global, lowerName, lowerProperty)) != null) {
+            return new String[] {value, category + "=" + name};
         }
-        if ((value = getObject(new String[] {TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP};
+        if ((value = get(index.global, DEFAULT_GROUP, lowerProperty)) != null) {
+            return new String[] {value, category + "=" + TabConstants.DEFAULT_GROUP};
         }
         return new String[0];
     }
 
+    @Nullable
+    private String get(@NotNull Map<String, Map<String, String>> section, @NotNull String name, @NotNull String property) {
+        Map<String, String> properties = section.get(name);
+        return properties == null ? null : properties.get(property);
+    }
+
     @Override
     public void remove(@NotNull String name) {
-        set(name, null);
-        getConfigurationSection(PER_WORLD).keySet().forEach(world -> set(PER_WORLD + "." + world + "." + name, null));
-        getConfigurationSection(PER_SERVER).keySet().forEach(server -> set(PER_SERVER + "." + server + "." + name, null));
+        Map<String, Object> removed = new LinkedHashMap<>();
+        removed.put(name, null);
+        getConfigurationSection(PER_WORLD).keySet().forEach(world -> removed.put(PER_WORLD + "." + world + "." + name, null));
+        getConfigurationSection(PER_SERVER).keySet().forEach(server -> removed.put(PER_SERVER + "." + server + "." + name, null));
+        setAll(removed);
     }
 
     @Override
@@ -93,4 +193,74 @@ public class YamlPropertyConfigurationFile extends YamlConfigurationFile impleme
         perServer.values().forEach(m -> set.addAll(m.keySet()));
         return set;
     }
+
+    /**
+     * Compiled properties with cached world and server group resolution.
+     */
+    @RequiredArgsConstructor
+    private static class Index {
+
+        /** Global properties by lowercase name and property */
+        @NotNull private final Map<String, Map<String, String>> global;
+
+        /** Per-world properties by world group */
+        @NotNull private final Map<String, Map<String, Map<String, String>>> perWorld;
+
+        /** Per-server properties by server group */
+        @NotNull private final Map<String, Map<String, Map<String, String>>> perServer;
+
+        /** World groups as defined in the file */
+        @NotNull private final List<Object> worldGroups;
+
+        /** Server groups as defined in the file */
+        @NotNull private final List<Object> serverGroups;
+
+        /** Resolved per-world sections by world name */
+        private final Map<String, Optional<Map<String, Map<String, String>>>> worldSections = new ConcurrentHashMap<>();
+
+        /** Resolved per-server sections by server name */
+        private final Map<String, Optional<Map<String, Map<String, String>>>> serverSections = new ConcurrentHashMap<>();
+
+        private Index(@NotNull Map<String, Map<String, String>> global,
+                      @NotNull Map<String, Map<String, Map<String, String>>> perWorld,
+                      @NotNull Map<String, Map<String, Map<String, String>>> perServer) {
+            this(global, perWorld, perServer, new ArrayList<>(perWorld.keySet()), new ArrayList<>(perServer.keySet()));
+        }
+
+        /**
+         * Returns per-world section of the group of given world.
+         *
+         * @param   world
+         *          World name
+         * @return  Section of the world's group or {@code null} if not defined
+         */
+        @Nullable
+        private Map<String, Map<String, String>> getWorldSection(@Nullable String world) {
+            if (world == null || perWorld.isEmpty()) return null;
+            return worldSections.computeIfAbsent(world, w -> Optional.ofNullable(
+                    getIgnoreCase(perWorld, TAB.getInstance().getConfiguration().getGroup(worldGroups, w)))).orElse(null);
+        }
+
+        /**
+         * Returns per-server section of the group of given server.
+         *
+         * @param   server
+         *          Server name
+         * @return  Section of the server's group or {@code null} if not defined
+         */
+        @Nullable
+        private Map<String, Map<String, String>> getServerSection(@Nullable String server) {
+            if (server == null || perServer.isEmpty()) return null;
+            return serverSections.computeIfAbsent(server, s -> Optional.ofNullable(
+                    getIgnoreCase(perServer, TAB.getInstance().getConfiguration().getServerGroup(serverGroups, s)))).orElse(null);
+        }
+
+        @Nullable
+        private static <V> V getIgnoreCase(@NotNull Map<String, V> map, @NotNull String key) {
+            for (Map.Entry<String, V> entry : map.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(key)) return entry.getValue();
+            }
+            return null;
+        }
+    }
 }
\ No newline at end of file
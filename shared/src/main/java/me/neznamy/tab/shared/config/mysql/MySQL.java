@@ -5,11 +5,14 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetProvider;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.TAB;
@@ -18,10 +21,19 @@ import me.neznamy.tab.shared.chat.TabComponent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * MySQL connection pool with its own worker threads. Queries can be executed
+ * synchronously or asynchronously on the worker threads. Updates can be queued,
+ * in which case they are written in the background in batches, keeping their order.
+ * Asynchronous queries write queued updates first, so they never read stale rows.
+ * Prepared statements are cached per connection and reused.
+ */
 @RequiredArgsConstructor
 public class MySQL {
 
-    private Connection con;
+    /** Maximum time to wait for queued updates to be written when closing */
+    private static final int CLOSE_TIMEOUT_SECONDS = 10;
+
     @NotNull private final String host;
     private final int port;
     @NotNull private final String database;
@@ -29,55 +41,387 @@ public class MySQL {
     @NotNull private final String password;
     private final boolean useSSL;
 
-    public void openConnection() throws SQLException {
-        if (isConnected()) return;
+    /** Maximum amount of open connections and worker threads */
+    private final int poolSize;
+
+    /** Connections which are not currently used */
+    private final BlockingQueue<PooledConnection> idleConnections = new LinkedBlockingQueue<>();
+
+    /** Amount of currently open connections */
+    private int openConnections;
+
+    /** Updates waiting to be written */
+    private final Queue<Update> updateQueue = new ConcurrentLinkedQueue<>();
+
+    /** Lock making sure queued updates are only written by one thread at a time */
+    private final Object flushLock = new Object();
+
+    /** Flag tracking whether a task writing queued updates is scheduled */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Worker threads executing asynchronous queries, {@code null} if not connected */
+    @Nullable
+    private ExecutorService executor;
+
+    public synchronized void openConnection() throws SQLException {
+        if (executor != null) return;
+        idleConnections.add(createConnection());
+        executor = Executors.newFixedThreadPool(poolSize,
+                new ThreadFactoryBuilder().setNameFormat("TAB MySQL Thread #%d").setDaemon(true).build());
+        TAB.getInstance().getPlatform().logInfo(TabComponent.fromColoredText(EnumChatFormat.GREEN + "Successfully connected to MySQL"));
+    }
+
+    /**
+     * Writes all queued updates, stops worker threads and closes all connections.
+     */
+    public void closeConnection() {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            if (executor == null) return;
+            this.executor = null;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                PooledConnection connection;
+                while ((connection = idleConnections.poll()) != null) {
+                    connection.close();
+                }
+                openConnections = 0;
+            }
+        }
+    }
+
+    @NotNull
+    private PooledConnection createConnection() throws SQLException {
+        Connection con = connect();
+        synchronized (this) {
+            openConnections++;
+        }
+        return new PooledConnection(con);
+    }
+
+    /**
+     * Opens a new connection to the database.
+     *
+     * @return  New connection
+     * @throws  SQLException
+     *          If connecting fails
+     */
+    @NotNull
+    Connection connect() throws SQLException {
         Properties properties = new Properties();
         properties.setProperty("user", username);
         properties.setProperty("password", password);
         properties.setProperty("useSSL", String.valueOf(useSSL));
         properties.setProperty("characterEncoding", "UTF-8");
-        con = DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s", host, port, database), properties);
-        TAB.getInstance().getPlatform().logInfo(TabComponent.fromColoredText(EnumChatFormat.GREEN + "Successfully connected to MySQL"));
+        return DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s", host, port, database), properties);
     }
-    
-    public void closeConnection() throws SQLException {
-        if (isConnected()) con.close();
+
+    /**
+     * Takes an idle connection from the pool. If there is none and the pool is not full,
+     * a new connection is opened, otherwise waits for another thread to release one.
+     *
+     * @return  Connection for exclusive use until released
+     * @throws  SQLException
+     *          If opening a new connection fails
+     */
+    @NotNull
+    private PooledConnection acquire() throws SQLException {
+        PooledConnection connection = idleConnections.poll();
+        if (connection == null) {
+            boolean create;
+            synchronized (this) {
+                create = openConnections < poolSize;
+            }
+            if (create) return createConnection();
+            try {
+                connection = idleConnections.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+        }
+        if (connection.con.isClosed()) {
+            release(connection, true);
+            return acquire();
+        }
+        return connection;
     }
 
-    private boolean isConnected() throws SQLException {
-        return con != null && !con.isClosed();
+    /**
+     * Returns connection back to the pool. If it is broken, it is closed instead.
+     *
+     * @param   connection
+     *          Connection to release
+     * @param   broken
+     *          Whether the connection failed and should be closed
+     */
+    private void release(@NotNull PooledConnection connection, boolean broken) {
+        if (broken) {
+            connection.close();
+            synchronized (this) {
+                openConnections--;
+            }
+        } else {
+            idleConnections.add(connection);
+        }
+    }
+
+    /**
+     * Runs given function with a connection from the pool. If the function fails,
+     * the connection is closed instead of returning it to the pool.
+     *
+     * @param   function
+     *          Function to run
+     * @return  Result of the function
+     * @param   <T>
+     *          Result type
+     * @throws  SQLException
+     *          If the function fails
+     */
+    private <T> T withConnection(@NotNull SQLFunction<T> function) throws SQLException {
+        PooledConnection connection = acquire();
+        try {
+            T result = function.apply(connection);
+            release(connection, false);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            release(connection, true);
+            throw e;
+        }
     }
 
     public void execute(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        try (PreparedStatement ps = prepareStatement(query, vars)) {
-            ps.execute();
+        withConnection(connection -> connection.prepareStatement(query, vars).execute());
+    }
+
+    public CachedRowSet getCRS(@NonNull String query, @NonNull Object... vars) throws SQLException {
+        return withConnection(connection -> {
+            try (ResultSet rs = connection.prepareStatement(query, vars).executeQuery()) {
+                CachedRowSet crs = RowSetProvider.newFactory().createCachedRowSet();
+                crs.populate(rs);
+                return crs;
+            }
+        });
+    }
+
+    /**
+     * Executes query on a worker thread and returns future completed with the result.
+     * Updates queued before this call are written first, so the result reflects them.
+     *
+     * @param   query
+     *          Query to execute
+     * @param   vars
+     *          Query parameters
+     * @return  Future completed with the result or exceptionally if query fails
+     */
+    @NotNull
+    public CompletableFuture<CachedRowSet> getCRSAsync(@NonNull String query, @NonNull Object... vars) {
+        CompletableFuture<CachedRowSet> future = new CompletableFuture<>();
+        ExecutorService executor = this.executor;
+        if (executor == null) {
+            future.completeExceptionally(new SQLException("MySQL connection is closed"));
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    flush();
+                    future.complete(getCRS(query, vars));
+                } catch (SQLException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("MySQL connection is closed", e));
         }
+        return future;
     }
 
-    private PreparedStatement prepareStatement(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        if (!isConnected()) openConnection();
-        PreparedStatement ps = con.prepareStatement(query);
-        int i = 0;
-        if (query.contains("?")) {
-            for (Object obj : vars) {
-                i++;
-                ps.setObject(i, obj);
+    /**
+     * Queues an update to be written in the background. Queued updates are
+     * written in the order they were queued, consecutive updates with the
+     * same query are sent as a single batch.
+     *
+     * @param   query
+     *          Query to execute
+     * @param   vars
+     *          Query parameters
+     */
+    public void queueUpdate(@NonNull String query, @Nullable Object... vars) {
+        updateQueue.add(new Update(query, vars));
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        ExecutorService executor = this.executor;
+        try {
+            if (executor == null) throw new RejectedExecutionException();
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closing, queued updates will be written by closeConnection
+            flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * Writes all queued updates in a single transaction. If the transaction fails,
+     * updates are written again one by one, so only the failing updates are lost.
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            if (updateQueue.isEmpty()) return;
+            List<Update> updates = new ArrayList<>();
+            Update update;
+            while ((update = updateQueue.poll()) != null) {
+                updates.add(update);
+            }
+            try {
+                withConnection(connection -> {
+                    writeBatches(connection, updates);
+                    return null;
+                });
+            } catch (SQLException e) {
+                for (Update u : updates) {
+                    try {
+                        execute(u.query, u.vars);
+                    } catch (SQLException ex) {
+                        TAB.getInstance().getErrorManager().mysqlQueryFailed(ex);
+                    }
+                }
             }
         }
-        return ps;
     }
 
-    public CachedRowSet getCRS(@NonNull String query, @NonNull Object... vars) throws SQLException {
-        PreparedStatement ps = prepareStatement(query, vars);
-        ResultSet rs = ps.executeQuery();
-        CachedRowSet crs;
+    /**
+     * Writes given updates in a single transaction, sending consecutive updates
+     * with the same query as a single batch.
+     *
+     * @param   connection
+     *          Connection to write with
+     * @param   updates
+     *          Updates to write
+     * @throws  SQLException
+     *          If writing fails
+     */
+    private void writeBatches(@NotNull PooledConnection connection, @NotNull List<Update> updates) throws SQLException {
+        connection.con.setAutoCommit(false);
         try {
-            crs = RowSetProvider.newFactory().createCachedRowSet();
-            crs.populate(rs);
-            return crs;
+            PreparedStatement batch = null;
+            String batchQuery = null;
+            for (Update u : updates) {
+                if (!u.query.equals(batchQuery)) {
+                    if (batch != null) batch.executeBatch();
+                    batchQuery = u.query;
+                    batch = connection.prepareStatement(u.query, u.vars);
+                } else {
+                    connection.setParameters(batch, u.vars);
+                }
+                batch.addBatch();
+            }
+            if (batch != null) batch.executeBatch();
+            connection.con.commit();
+        } catch (SQLException e) {
+            connection.con.rollback();
+            throw e;
         } finally {
-            rs.close();
-            ps.close();
+            connection.con.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Function using a database connection.
+     *
+     * @param   <T>
+     *          Result type
+     */
+    private interface SQLFunction<T> {
+
+        /**
+         * Runs the function with given connection.
+         *
+         * @param   connection
+         *          Connection to use
+         * @return  Result of the function
+         * @throws  SQLException
+         *          If the function fails
+         */
+        T apply(@NotNull PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * Update waiting to be written.
+     */
+    @RequiredArgsConstructor
+    private static class Update {
+
+        /** Query to execute */
+        @NotNull private final String query;
+
+        /** Query parameters */
+        @Nullable private final Object[] vars;
+    }
+
+    /**
+     * Connection with cached prepared statements.
+     */
+    @RequiredArgsConstructor
+    private static class PooledConnection {
+
+        /** Database connection */
+        @NotNull private final Connection con;
+
+        /** Prepared statements by query */
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        /**
+         * Returns prepared statement of given query with parameters set.
+         * Statement is created on first use and reused afterwards.
+         *
+         * @param   query
+         *          Query of the statement
+         * @param   vars
+         *          Query parameters
+         * @return  Prepared statement with parameters set
+         * @throws  SQLException
+         *          If statement could not be prepared
+         */
+        @NotNull
+        private PreparedStatement prepareStatement(@NotNull String query, @Nullable Object... vars) throws SQLException {
+            PreparedStatement ps = statements.get(query);
+            if (ps == null || ps.isClosed()) {
+                ps = con.prepareStatement(query);
+                statements.put(query, ps);
+            }
+            if (query.contains("?")) setParameters(ps, vars);
+            return ps;
+        }
+
+        private void setParameters(@NotNull PreparedStatement ps, @Nullable Object... vars) throws SQLException {
+            ps.clearParameters();
+            if (vars == null) return;
+            int i = 0;
+            for (Object obj : vars) {
+                i++;
+                ps.setObject(i, obj);
+            }
+        }
+
+        private void close() {
+            try {
+                con.close();
+            } catch (SQLException ignored) {
+                // Closing anyway
+            }
         }
     }
-}
\ No newline at end of file
+}
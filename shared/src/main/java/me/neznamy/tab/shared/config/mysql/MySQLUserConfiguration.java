@@ -28,15 +28,9 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
     public void setProperty(@NotNull String user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
         TabPlayer p = getPlayer(user);
         String lowercaseUser = user.toLowerCase();
-        try {
-            if (getProperty(lowercaseUser, property, server, world) != null) {
-                mysql.execute("delete from `tab_users` where `user` = ? and `property` = ? and world " + querySymbol(world == null) + " ? and server " + querySymbol(server == null) + " ?", lowercaseUser, property, world, server);
-            }
-            if (p != null) setProperty0(p, property, server, world, value);
-            if (value != null) mysql.execute("insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)", lowercaseUser, property, value, world, server);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
+        mysql.queueUpdate("delete from `tab_users` where `user` = ? and `property` = ? and world " + querySymbol(world == null) + " ? and server " + querySymbol(server == null) + " ?", lowercaseUser, property, world, server);
+        if (p != null) setProperty0(p, property, server, world, value);
+        if (value != null) mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)", lowercaseUser, property, value, world, server);
     }
 
     private String querySymbol(boolean isNull) {
@@ -71,11 +65,7 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
 
     @Override
     public void remove(@NotNull String player) {
-        try {
-            mysql.execute("delete from `tab_users` where `user` = ?", player);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
+        mysql.queueUpdate("delete from `tab_users` where `user` = ?", player);
         TabPlayer user = getPlayer(player);
         if (user == null) return;
         values.remove(user);
@@ -115,37 +105,46 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
         return p;
     }
 
+    /**
+     * Loads data of given player using a single query on MySQL thread and
+     * applies them on the main thread. Data saved under player's UUID take
+     * priority over data saved under player's name.
+     *
+     * @param   player
+     *          Player to load data of
+     */
     public void load(@NotNull TabPlayer player) {
-        TAB.getInstance().getCPUManager().runTask(() -> {
-
-            try {
-                CachedRowSet crs = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getName().toLowerCase());
-                while (crs.next()) {
-                    String user = crs.getString("user");
-                    String property = crs.getString("property");
-                    String value = crs.getString("value");
-                    String world = crs.getString("world");
-                    String server = crs.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
-                }
-                CachedRowSet crs2 = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getUniqueId().toString());
-                while (crs2.next()) {
-                    String user = crs2.getString("user");
-                    String property = crs2.getString("property");
-                    String value = crs2.getString("value");
-                    String world = crs2.getString("world");
-                    String server = crs2.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
-                }
-                TAB.getInstance().debug("Loaded MySQL data of " + player.getName());
-                if (crs.size() > 0 || crs2.size() > 0) {
-                    player.forceRefresh();
-                }
-            } catch (SQLException e) {
-                TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-            }
-        });
+        String name = player.getName().toLowerCase();
+        mysql.getCRSAsync("select * from `tab_users` where `user` in (?, ?)", name, player.getUniqueId().toString()).whenComplete(
+                (crs, error) -> TAB.getInstance().getCPUManager().runTask(() -> {
+                    if (error != null) {
+                        TAB.getInstance().getErrorManager().mysqlQueryFailed(error);
+                        return;
+                    }
+                    if (TAB.getInstance().getPlayer(player.getUniqueId()) != player) return; // Player left
+                    try {
+                        boolean loaded = false;
+                        // Name first, so values saved under UUID override them
+                        for (boolean byName : new boolean[]{true, false}) {
+                            crs.beforeFirst();
+                            while (crs.next()) {
+                                String user = crs.getString("user");
+                                if (user.equals(name) != byName) continue;
+                                String property = crs.getString("property");
+                                String value = crs.getString("value");
+                                String world = crs.getString("world");
+                                String server = crs.getString("server");
+                                TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
+                                setProperty0(player, property, server, world, value);
+                                loaded = true;
+                            }
+                        }
+                        TAB.getInstance().debug("Loaded MySQL data of " + player.getName());
+                        if (loaded) player.forceRefresh();
+                    } catch (SQLException e) {
+                        TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
+                    }
+                })
+        );
     }
 }
\ No newline at end of file
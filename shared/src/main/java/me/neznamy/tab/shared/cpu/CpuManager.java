@@ -1,5 +1,6 @@
 package me.neznamy.tab.shared.cpu;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
@@ -24,6 +25,13 @@ public class CpuManager {
     /** Active time in current time period saved as nanoseconds from placeholders */
     private volatile Map<String, AtomicLong> placeholderUsageCurrent = new ConcurrentHashMap<>();
 
+    /** Memory allocated by placeholder refreshing in current time period in bytes */
+    private final AtomicLong placeholderAllocationsCurrent = new AtomicLong();
+
+    /** Thread bean for measuring memory allocations, {@code null} if not supported by the JVM */
+    @Nullable
+    private final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+
     /** Last CPU report */
     @Nullable @Getter private CpuReport lastReport;
 
@@ -36,6 +44,10 @@ public class CpuManager {
     private final ScheduledExecutorService placeholderThread = Executors.newSingleThreadScheduledExecutor(
             new ThreadFactoryBuilder().setNameFormat("TAB Placeholder Refreshing Thread").build());
 
+    /** Worker pool placeholder refreshing thread distributes placeholder requests to, {@code null} until created */
+    @Nullable
+    private ExecutorService placeholderWorkers;
+
     /** Tasks submitted to main thread before plugin was fully enabled */
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
 
@@ -55,7 +67,8 @@ public class CpuManager {
         if (trackUsage) return false;
         trackUsage = true;
         startRepeatingTask((int) TimeUnit.SECONDS.toMillis(UPDATE_RATE_SECONDS), () -> {
-            lastReport = new CpuReport(UPDATE_RATE_SECONDS, featureUsageCurrent, placeholderUsageCurrent);
+            lastReport = new CpuReport(UPDATE_RATE_SECONDS, featureUsageCurrent, placeholderUsageCurrent,
+                    threadBean == null ? -1 : placeholderAllocationsCurrent.getAndSet(0));
             featureUsageCurrent = new ConcurrentHashMap<>();
             placeholderUsageCurrent = new ConcurrentHashMap<>();
         });
@@ -68,6 +81,23 @@ public class CpuManager {
     public void cancelAllTasks() {
         processingThread.shutdownNow();
         placeholderThread.shutdownNow();
+        if (placeholderWorkers != null) placeholderWorkers.shutdownNow();
+    }
+
+    /**
+     * Creates a bounded worker pool for requesting placeholder values in parallel.
+     * The pool is shut down together with all other threads in {@link #cancelAllTasks()}.
+     *
+     * @param   threads
+     *          Amount of worker threads
+     * @return  Created worker pool
+     */
+    @NotNull
+    public synchronized ExecutorService createPlaceholderWorkers(int threads) {
+        if (placeholderWorkers != null) placeholderWorkers.shutdownNow();
+        placeholderWorkers = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("TAB Placeholder Worker Thread #%d").setDaemon(true).build());
+        return placeholderWorkers;
     }
 
     /**
@@ -121,15 +151,43 @@ public class CpuManager {
     }
 
     /**
-     * Adds placeholder time from given map.
+     * Returns amount of memory allocated by current thread in bytes. If CPU usage
+     * tracking is disabled or the JVM does not support it, returns {@code 0}.
      *
-     * @param   times
-     *          How long each placeholder took
+     * @return  Amount of memory allocated by current thread in bytes
      */
-    public void addPlaceholderTimes(@NotNull Map<String, Long> times) {
+    public long getAllocatedBytes() {
+        if (!trackUsage || threadBean == null) return 0;
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Adds memory allocated by placeholder refreshing.
+     *
+     * @param   bytes
+     *          Allocated memory in bytes
+     */
+    public void addPlaceholderAllocations(long bytes) {
         if (!trackUsage) return;
-        for (Map.Entry<String, Long> entry : times.entrySet()) {
-            placeholderUsageCurrent.computeIfAbsent(entry.getKey(), l -> new AtomicLong()).addAndGet(entry.getValue());
+        placeholderAllocationsCurrent.addAndGet(bytes);
+    }
+
+    /**
+     * Returns thread bean supporting memory allocation measurement or {@code null}
+     * if the JVM does not support it.
+     *
+     * @return  Thread bean supporting memory allocation measurement or {@code null}
+     */
+    @Nullable
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled()) return null;
+            return sunBean;
+        } catch (LinkageError e) {
+            return null;
         }
     }
 
@@ -22,6 +22,9 @@ public class CpuReport {
     /** Total usage of all placeholders in % */
     private final double placeholderUsageTotal;
 
+    /** Memory allocated by placeholder refreshing in bytes per second, {@code -1} if not supported */
+    private final long placeholderAllocationRate;
+
     /**
      * Constructs new instance with given parameters and performs calculation and ordering
      *
@@ -31,8 +34,11 @@ public class CpuReport {
      *          Feature usage map
      * @param   placeholders
      *          Placeholder usage map
+     * @param   placeholderAllocations
+     *          Memory allocated by placeholder refreshing in bytes, {@code -1} if not supported
      */
-    public CpuReport(int updateRateSeconds, @NotNull Map<String, Map<String, AtomicLong>> features, @NotNull Map<String, AtomicLong> placeholders) {
+    public CpuReport(int updateRateSeconds, @NotNull Map<String, Map<String, AtomicLong>> features, @NotNull Map<String, AtomicLong> placeholders,
+                     long placeholderAllocations) {
         long TIME_PERCENT = TimeUnit.SECONDS.toNanos(1) / updateRateSeconds;
         TreeMap<Long, Map.Entry<String, Map<String, Float>>> sorted = new TreeMap<>((o1, o2) -> Long.compare(o2, o1));
         features.forEach((key, val) -> {
@@ -54,5 +60,7 @@ public class CpuReport {
                 .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), (float) e.getValue().get() / TIME_PERCENT), Map::putAll);
 
         placeholderUsageTotal = placeholderUsage.values().stream().mapToDouble(Float::floatValue).sum();
+
+        placeholderAllocationRate = placeholderAllocations == -1 ? -1 : placeholderAllocations / updateRateSeconds;
     }
 }
@@ -1,7 +1,6 @@
 package me.neznamy.tab.shared.features;
 
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -17,7 +16,11 @@ import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
 import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.placeholders.PendingRefreshes;
+import me.neznamy.tab.shared.placeholders.PlaceholderDependencyGraph;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshEngine;
 import me.neznamy.tab.shared.placeholders.PlaceholderRefreshTask;
+import me.neznamy.tab.shared.placeholders.PlaceholderValueStore;
 import me.neznamy.tab.shared.placeholders.expansion.EmptyTabExpansion;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.event.impl.TabPlaceholderRegisterEvent;
@@ -34,13 +37,15 @@ import org.jetbrains.annotations.Nullable;
  * Messy class for placeholder management
  */
 public class PlaceholderManagerImpl extends TabFeature implements PlaceholderManager, JoinListener, Loadable,
-        Refreshable {
+        Refreshable, QuitListener, WorldSwitchListener, ServerSwitchListener {
 
     private final Pattern placeholderPattern = Pattern.compile("%([^%]*)%");
 
     private final boolean registerExpansion = config().getBoolean("placeholders.register-tab-expansion", true);
     private final Map<String, Integer> refreshIntervals = config().getConfigurationSection("placeholderapi-refresh-intervals");
     private final int defaultRefresh;
+    private final boolean incrementalRelationalRefresh = config().getBoolean("placeholders.incremental-relational-refresh", false);
+    private final PlaceholderRefreshEngine refreshEngine;
 
     private final Map<String, Placeholder> registeredPlaceholders = new HashMap<>();
 
@@ -48,6 +53,15 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     private final Map<String, Set<Refreshable>> placeholderUsage = new ConcurrentHashMap<>();
     private Placeholder[] usedPlaceholders = new Placeholder[0];
 
+    /** Compiled placeholder dependencies, {@code null} if they changed and need to be compiled again */
+    @Nullable private volatile PlaceholderDependencyGraph dependencyGraph;
+
+    /** Last known values of player and relational placeholders */
+    @Getter @NotNull private final PlaceholderValueStore valueStore = new PlaceholderValueStore();
+
+    /** Amount of placeholder ordinals given out */
+    private int ordinals;
+
     @Getter private int loopTime;
 
     @NotNull @Getter private final TabExpansion tabExpansion = registerExpansion ?
@@ -55,6 +69,15 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
 
     private final CpuManager cpu;
 
+    /** Placeholders to refresh in current cycle, reused to avoid allocations */
+    private final List<Placeholder> placeholdersToRefresh = new ArrayList<>();
+
+    /** Features to refresh after processing refresh results */
+    private final PendingRefreshes update;
+
+    /** Features to refresh with force after processing refresh results */
+    private final PendingRefreshes forceUpdate;
+
     /**
      * Constructs new instance and loads refresh intervals from config.
      *
@@ -63,116 +86,96 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
      */
     public PlaceholderManagerImpl(@NotNull CpuManager cpu) {
         this.cpu = cpu;
+        update = new PendingRefreshes(cpu, false);
+        forceUpdate = new PendingRefreshes(cpu, true);
         TAB.getInstance().getConfigHelper().startup().fixRefreshIntervals(refreshIntervals);
         defaultRefresh = refreshIntervals.getOrDefault("default-refresh-interval", 500);
+        int threads = Math.max(1, config().getInt("placeholders.refresh-threads", 1));
+        refreshEngine = new PlaceholderRefreshEngine(cpu, getFeatureName(), threads, incrementalRelationalRefresh,
+                task -> cpu.runTask(() -> processRefreshResults(task)),
+                t -> TAB.getInstance().getErrorManager().placeholderError("Placeholder refresh failed", t));
     }
 
     private void refresh() {
         long time = System.nanoTime();
         loopTime += TabConstants.Placeholder.MINIMUM_REFRESH_INTERVAL;
-        List<Placeholder> placeholders = new ArrayList<>();
+        List<Placeholder> placeholders = placeholdersToRefresh;
+        placeholders.clear();
         for (Placeholder placeholder : usedPlaceholders) {
             if (placeholder.getRefresh() == -1 || loopTime % placeholder.getRefresh() != 0) continue;
             placeholders.add(placeholder);
         }
         if (placeholders.isEmpty()) return;
-        PlaceholderRefreshTask task = new PlaceholderRefreshTask(placeholders);
+        refreshEngine.refresh(placeholders);
+        placeholders.clear();
         cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REFRESH_INIT, System.nanoTime() - time);
-        cpu.getPlaceholderThread().submit(() -> {
-            // Run in placeholder refreshing thread
-            long time2 = System.nanoTime();
-            task.run();
-            cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_REQUEST, System.nanoTime() - time2);
-
-            // Back to main thread
-            cpu.runTask(() -> processRefreshResults(task));
-        });
     }
 
-    private void processRefreshResults(@NotNull PlaceholderRefreshTask task) {
+    private void processRefreshResults(@NotNull List<PlaceholderRefreshTask> tasks) {
         long time = System.nanoTime();
-        Map<TabPlayer, Set<Refreshable>> update = new HashMap<>(TAB.getInstance().getOnlinePlayers().length + 1, 1);
-        updateServerPlaceholders(task.getServerPlaceholderResults(), update);
-        updatePlayerPlaceholders(task.getPlayerPlaceholderResults(), update);
-        Map<TabPlayer, Set<Refreshable>> forceUpdate = updateRelationalPlaceholders(task.getRelationalPlaceholderResults());
+        long bytes = cpu.getAllocatedBytes();
+        for (PlaceholderRefreshTask task : tasks) {
+            TabPlaceholder placeholder = task.getPlaceholder();
+            try {
+                if (placeholder instanceof ServerPlaceholderImpl) {
+                    updateServerPlaceholder((ServerPlaceholderImpl) placeholder, task);
+                } else if (placeholder instanceof PlayerPlaceholderImpl) {
+                    updatePlayerPlaceholder((PlayerPlaceholderImpl) placeholder, task);
+                } else if (placeholder instanceof RelationalPlaceholderImpl) {
+                    updateRelationalPlaceholder((RelationalPlaceholderImpl) placeholder, task);
+                }
+                cpu.addPlaceholderTime(placeholder.getIdentifier(), task.takeUsedTime());
+            } finally {
+                task.finish(); // Always allow the placeholder to be refreshed again
+            }
+        }
         cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_SAVE, System.nanoTime() - time);
-        cpu.addPlaceholderTimes(task.getUsedTime());
+        cpu.addPlaceholderAllocations(cpu.getAllocatedBytes() - bytes);
 
-        refreshFeatures(forceUpdate, update);
+        update.refresh();
+        forceUpdate.refresh();
     }
-    
-    private void refreshFeatures(@NotNull Map<TabPlayer, Set<Refreshable>> forceUpdate, @NotNull Map<TabPlayer, Set<Refreshable>> update) {
-        for (Entry<TabPlayer, Set<Refreshable>> entry : update.entrySet()) {
-            for (Refreshable r : entry.getValue()) {
-                long startTime = System.nanoTime();
-                r.refresh(entry.getKey(), false);
-                cpu.addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
-            }
-        }
-        for (Entry<TabPlayer, Set<Refreshable>> entry : forceUpdate.entrySet()) {
-            for (Refreshable r : entry.getValue()) {
-                long startTime = System.nanoTime();
-                r.refresh(entry.getKey(), true);
-                cpu.addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
+
+    private void updateRelationalPlaceholder(@NotNull RelationalPlaceholderImpl placeholder, @NotNull PlaceholderRefreshTask task) {
+        TabPlayer[] players = task.getPlayers();
+        for (int i = 0; i < players.length; i++) {
+            TabPlayer viewer = players[i];
+            if (!viewer.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
+            for (int j = 0; j < players.length; j++) {
+                TabPlayer target = players[j];
+                if (!target.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
+                if (!task.isRequested(i, j)) continue; // Last known value is kept
+                if (placeholder.hasValueChanged(viewer, target, task.getRelationalResult(i, j))) {
+                    placeholder.updateParents(target);
+                    forceUpdate.add(target, getPlaceholderUsage(placeholder));
+                }
             }
         }
     }
 
-    @NotNull
-    private Map<TabPlayer, Set<Refreshable>> updateRelationalPlaceholders(
-            @Nullable Map<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, Object>>> results) {
-        if (results == null) return Collections.emptyMap();
-        Map<TabPlayer, Set<Refreshable>> update = new HashMap<>(TAB.getInstance().getOnlinePlayers().length + 1, 1);
-        for (Entry<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, Object>>> entry : results.entrySet()) {
-            RelationalPlaceholderImpl placeholder = entry.getKey();
-            for (Entry<TabPlayer, Map<TabPlayer, Object>> viewerResult : entry.getValue().entrySet()) {
-                TabPlayer viewer = viewerResult.getKey();
-                if (!viewer.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                for (Entry<TabPlayer, Object> targetResult : viewerResult.getValue().entrySet()) {
-                    TabPlayer target = targetResult.getKey();
-                    if (!target.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                    if (placeholder.hasValueChanged(viewer, target, targetResult.getValue())) {
-                        placeholder.updateParents(target);
-                        update.computeIfAbsent(target, x -> new HashSet<>()).addAll(getPlaceholderUsage(placeholder.getIdentifier()));
-                    }
+    private void updatePlayerPlaceholder(@NotNull PlayerPlaceholderImpl placeholder, @NotNull PlaceholderRefreshTask task) {
+        TabPlayer[] players = task.getPlayers();
+        for (int i = 0; i < players.length; i++) {
+            TabPlayer player = players[i];
+            if (!player.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
+            if (placeholder.hasValueChanged(player, task.getPlayerResult(i))) {
+                placeholder.updateParents(player);
+                update.add(player, getPlaceholderUsage(placeholder));
+                if (placeholder.getIdentifier().equals(TabConstants.Placeholder.VANISHED)) {
+                    TAB.getInstance().getFeatureManager().onVanishStatusChange(player);
                 }
-            }
-        }
-        return update;
-    }
-
-    private void updatePlayerPlaceholders(@NotNull Map<PlayerPlaceholderImpl, Map<TabPlayer, Object>> results,
-                                          @NotNull Map<TabPlayer, Set<Refreshable>> update) {
-        if (results.isEmpty()) return;
-        for (Entry<PlayerPlaceholderImpl, Map<TabPlayer, Object>> entry : results.entrySet()) {
-            PlayerPlaceholderImpl placeholder = entry.getKey();
-            for (Entry<TabPlayer, Object> playerResult : entry.getValue().entrySet()) {
-                TabPlayer player = playerResult.getKey();
-                if (!player.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                if (placeholder.hasValueChanged(player, playerResult.getValue())) {
-                    placeholder.updateParents(player);
-                    update.computeIfAbsent(player, k -> new HashSet<>()).addAll(getPlaceholderUsage(placeholder.getIdentifier()));
-                    if (placeholder.getIdentifier().equals(TabConstants.Placeholder.VANISHED)) {
-                        TAB.getInstance().getFeatureManager().onVanishStatusChange(player);
-                    }
-                    if (placeholder.getIdentifier().equals(TabConstants.Placeholder.GAMEMODE)) {
-                        TAB.getInstance().getFeatureManager().onGameModeChange(player);
-                    }
+                if (placeholder.getIdentifier().equals(TabConstants.Placeholder.GAMEMODE)) {
+                    TAB.getInstance().getFeatureManager().onGameModeChange(player);
                 }
             }
         }
     }
 
-    private void updateServerPlaceholders(@NotNull Map<ServerPlaceholderImpl, Object> results,
-                                          @NotNull Map<TabPlayer, Set<Refreshable>> update) {
-        if (results.isEmpty()) return;
-        for (Entry<ServerPlaceholderImpl, Object> entry : results.entrySet()) {
-            ServerPlaceholderImpl placeholder = entry.getKey();
-            if (placeholder.hasValueChanged(entry.getValue())) {
-                for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                    placeholder.updateParents(all);
-                    update.computeIfAbsent(all, k -> new HashSet<>()).addAll(getPlaceholderUsage(placeholder.getIdentifier()));
-                }
+    private void updateServerPlaceholder(@NotNull ServerPlaceholderImpl placeholder, @NotNull PlaceholderRefreshTask task) {
+        if (placeholder.hasValueChanged(task.getServerResult())) {
+            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                placeholder.updateParents(all);
+                update.add(all, getPlaceholderUsage(placeholder));
             }
         }
     }
@@ -211,6 +214,7 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     public <T extends Placeholder> T registerPlaceholder(@NotNull T placeholder) {
         boolean override = registeredPlaceholders.containsKey(placeholder.getIdentifier());
         registeredPlaceholders.put(placeholder.getIdentifier(), placeholder);
+        invalidateDependencyGraph();
         recalculateUsedPlaceholders();
         if (override && placeholderUsage.containsKey(placeholder.getIdentifier())) {
             for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
@@ -221,6 +225,15 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         return placeholder;
     }
 
+    /**
+     * Returns a new unique placeholder ordinal.
+     *
+     * @return  A new unique placeholder ordinal
+     */
+    public synchronized int nextOrdinal() {
+        return ordinals++;
+    }
+
     @Override
     public void load() {
         cpu.startRepeatingTask(TabConstants.Placeholder.MINIMUM_REFRESH_INTERVAL, this::refresh);
@@ -271,6 +284,7 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
      */
     public void addUsedPlaceholder(@NonNull String identifier, @NonNull Refreshable feature) {
         if (placeholderUsage.computeIfAbsent(identifier, x -> new HashSet<>()).add(feature)) {
+            invalidateDependencyGraph();
             recalculateUsedPlaceholders();
             TabPlaceholder p = getPlaceholder(identifier);
             for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
@@ -302,19 +316,45 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
     }
 
     /**
-     * Returns set of features using specified placeholder.
+     * Returns all features using specified placeholder directly or through
+     * any of its parent placeholders. The returned array must not be modified.
      *
-     * @param   identifier
+     * @param   placeholder
      *          Placeholder to get usage of
-     * @return  Set of features using the placeholder
+     * @return  Array of features using the placeholder
      */
     @NotNull
-    public Set<Refreshable> getPlaceholderUsage(@NotNull String identifier) {
-        Set<Refreshable> usage = placeholderUsage.getOrDefault(identifier, new HashSet<>());
-        for (String parent : getPlaceholder(identifier).getParents()) {
-            usage.addAll(getPlaceholderUsage(parent));
+    public Refreshable[] getPlaceholderUsage(@NotNull TabPlaceholder placeholder) {
+        return getDependencyGraph().getUsage(placeholder);
+    }
+
+    /**
+     * Returns compiled placeholder dependencies. If they changed since last call,
+     * they are compiled again.
+     *
+     * @return  Compiled placeholder dependencies
+     */
+    @NotNull
+    public PlaceholderDependencyGraph getDependencyGraph() {
+        PlaceholderDependencyGraph graph = dependencyGraph;
+        if (graph != null) return graph;
+        synchronized (this) {
+            graph = dependencyGraph;
+            if (graph == null) {
+                graph = new PlaceholderDependencyGraph(registeredPlaceholders, placeholderUsage);
+                dependencyGraph = graph;
+            }
+            return graph;
         }
-        return usage;
+    }
+
+    /**
+     * Marks compiled placeholder dependencies as outdated, causing them to be
+     * compiled again on next access. Called when a placeholder is registered,
+     * unregistered, gets a new parent or is used by a new feature.
+     */
+    public void invalidateDependencyGraph() {
+        dependencyGraph = null;
     }
 
     @Override
@@ -326,6 +366,27 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         }
         // Initialize to avoid onVanishStatusChange being called in the loop after joining because previous value was null
         ((PlayerPlaceholderImpl)registeredPlaceholders.get(TabConstants.Placeholder.VANISHED)).update(connectedPlayer);
+        invalidateRelationalPlaceholders(connectedPlayer);
+    }
+
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        if (!incrementalRelationalRefresh) return;
+        for (Placeholder placeholder : registeredPlaceholders.values()) {
+            if (placeholder instanceof RelationalPlaceholderImpl) {
+                ((RelationalPlaceholderImpl) placeholder).clearInvalidations(disconnectedPlayer);
+            }
+        }
+    }
+
+    @Override
+    public void onWorldChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        invalidateRelationalPlaceholders(changed);
+    }
+
+    @Override
+    public void onServerChange(@NotNull TabPlayer changed, @NotNull String from, @NotNull String to) {
+        invalidateRelationalPlaceholders(changed);
     }
 
     @Override
@@ -406,6 +467,28 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         return p;
     }
 
+    @Override
+    public void invalidateRelationalPlaceholder(@NonNull String identifier, @NonNull me.neznamy.tab.api.TabPlayer viewer,
+                                                @NonNull me.neznamy.tab.api.TabPlayer target) {
+        ensureActive();
+        if (!incrementalRelationalRefresh) return;
+        Placeholder placeholder = registeredPlaceholders.get(identifier);
+        if (placeholder instanceof RelationalPlaceholderImpl) {
+            ((RelationalPlaceholderImpl) placeholder).invalidate((TabPlayer) viewer, (TabPlayer) target);
+        }
+    }
+
+    @Override
+    public void invalidateRelationalPlaceholders(@NonNull me.neznamy.tab.api.TabPlayer player) {
+        ensureActive();
+        if (!incrementalRelationalRefresh) return;
+        for (Placeholder placeholder : registeredPlaceholders.values()) {
+            if (placeholder instanceof RelationalPlaceholderImpl) {
+                ((RelationalPlaceholderImpl) placeholder).invalidate((TabPlayer) player);
+            }
+        }
+    }
+
     @Override
     public void unregisterPlaceholder(@NonNull Placeholder placeholder) {
         ensureActive();
@@ -417,6 +500,7 @@ public class PlaceholderManagerImpl extends TabFeature implements PlaceholderMan
         ensureActive();
         registeredPlaceholders.remove(identifier);
         placeholderUsage.remove(identifier);
+        invalidateDependencyGraph();
         recalculateUsedPlaceholders();
     }
 }
\ No newline at end of file
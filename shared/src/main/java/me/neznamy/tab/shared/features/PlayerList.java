@@ -17,6 +17,8 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -151,11 +153,13 @@ public class PlayerList extends TabFeature implements TabListFormatManager, Join
         }
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             if (viewer.getVersion().getMinorVersion() < 8) continue;
+            Map<UUID, TabComponent> displayNames = new LinkedHashMap<>();
             for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
                 if (target.disabledPlayerList.get()) continue;
                 //if (!viewer.getTabList().containsEntry(target.getTablistId())) continue;
-                viewer.getTabList().updateDisplayName(getTablistUUID(target, viewer), getTabFormat(target, viewer));
+                displayNames.put(getTablistUUID(target, viewer), getTabFormat(target, viewer));
             }
+            viewer.getTabList().updateDisplayNames(displayNames);
         }
     }
 
@@ -164,11 +168,13 @@ public class PlayerList extends TabFeature implements TabListFormatManager, Join
         disabling = true;
         for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
             if (viewer.getVersion().getMinorVersion() < 8) continue;
+            Map<UUID, TabComponent> displayNames = new LinkedHashMap<>();
             for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
                 if (target.disabledPlayerList.get()) continue;
                 //if (!viewer.getTabList().containsEntry(target.getTablistId())) continue;
-                viewer.getTabList().updateDisplayName(getTablistUUID(target, target), null);
+                displayNames.put(getTablistUUID(target, target), null);
             }
+            viewer.getTabList().updateDisplayNames(displayNames);
         }
     }
 
@@ -243,9 +249,11 @@ public class PlayerList extends TabFeature implements TabListFormatManager, Join
         Runnable r = () -> {
             refresh(connectedPlayer, true);
             if (connectedPlayer.getVersion().getMinorVersion() < 8) return;
+            Map<UUID, TabComponent> displayNames = new LinkedHashMap<>();
             for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                connectedPlayer.getTabList().updateDisplayName(getTablistUUID(all, connectedPlayer), getTabFormat(all, connectedPlayer));
+                displayNames.put(getTablistUUID(all, connectedPlayer), getTabFormat(all, connectedPlayer));
             }
+            connectedPlayer.getTabList().updateDisplayNames(displayNames);
         };
         //add packet might be sent after tab's refresh packet, resending again when anti-override is disabled
         if (!antiOverrideTabList || !TAB.getInstance().getFeatureManager().isFeatureEnabled(TabConstants.Feature.PIPELINE_INJECTION)) {
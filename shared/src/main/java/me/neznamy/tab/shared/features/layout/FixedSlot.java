@@ -2,6 +2,7 @@ package me.neznamy.tab.shared.features.layout;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.chat.TabComponent;
@@ -12,6 +13,7 @@ import me.neznamy.tab.shared.features.types.TabFeature;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Set;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -45,6 +47,21 @@ public class FixedSlot extends TabFeature implements Refreshable {
         return "Updating fixed slots";
     }
 
+    /**
+     * Sends the slot to viewer again if it displays any of given skins.
+     *
+     * @param   viewer
+     *          Player viewing the slot
+     * @param   skins
+     *          Definitions of skins which finished downloading
+     */
+    public void resendSkin(@NotNull TabPlayer viewer, @NotNull Set<String> skins) {
+        Property skinProperty = viewer.getProperty(this.skinProperty);
+        if (skinProperty == null || !skins.contains(skinProperty.get())) return;
+        viewer.getTabList().removeEntry(id);
+        viewer.getTabList().addEntry(createEntry(viewer));
+    }
+
     public @NotNull TabList.Entry createEntry(@NotNull TabPlayer viewer) {
         viewer.setProperty(this, propertyName, text);
         viewer.setProperty(this, skinProperty, skin);
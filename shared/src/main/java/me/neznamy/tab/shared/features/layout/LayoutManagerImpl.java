@@ -4,6 +4,8 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Function;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -33,7 +35,7 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     private final String remainingPlayersText = EnumChatFormat.color(config().getString("layout.remaining-players-text", "... and %s more"));
     private final int emptySlotPing = config().getInt("layout.empty-slot-ping-value", 1000);
 
-    private final SkinManager skinManager = new SkinManager(defaultSkin, defaultSkinHashMap);
+    private final SkinManager skinManager = new SkinManager(defaultSkin, defaultSkinHashMap, this::resendSkins);
     private final Map<Integer, UUID> uuids = new HashMap<Integer, UUID>() {{
         for (int slot=1; slot<=80; slot++) {
             put(slot, new UUID(0, direction.translateSlot(slot)));
@@ -41,6 +43,15 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     }};
     private final Map<String, LayoutPattern> layouts = loadLayouts();
     private final Map<TabPlayer, String> sortedPlayers = Collections.synchronizedMap(new TreeMap<>(Comparator.comparing(p -> p.layoutData.sortingString)));
+
+    /** Snapshot of sorted players, {@code null} if players changed since it was created */
+    @Getter(AccessLevel.NONE)
+    @Nullable
+    private volatile TabPlayer[] sortedPlayerArray;
+
+    /** Slot assignments by layout pattern and players hidden from viewers, kept up to date between ticks */
+    @Getter(AccessLevel.NONE)
+    private final Map<AssignmentKey, SlotAssignment> assignments = new HashMap<>();
     private PlayerList playerList;
 
     private static boolean teamsEnabled;
@@ -102,6 +113,16 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     public void onJoin(@NotNull TabPlayer p) {
         p.layoutData.sortingString = p.sortingData.fullTeamName;
         sortedPlayers.put(p, p.sortingData.fullTeamName);
+        sortedPlayerArray = null;
+        synchronized (assignments) {
+            for (SlotAssignment assignment : assignments.values()) {
+                assignment.add(p);
+            }
+            p.layoutData.hiddenPlayers = null;
+            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                if (all != p) setHidden(all, p, !TAB.getInstance().getPlatform().canSee(all, p));
+            }
+        }
         LayoutPattern highest = getHighestLayout(p);
         if (highest != null) {
             LayoutView view = new LayoutView(this, highest, p);
@@ -120,10 +141,22 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
     @Override
     public void onQuit(@NotNull TabPlayer p) {
         sortedPlayers.remove(p);
-        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all == p) continue;
-            if (all.layoutData.view != null) all.layoutData.view.tick();
+        sortedPlayerArray = null;
+        synchronized (assignments) {
+            Iterator<Entry<AssignmentKey, SlotAssignment>> iterator = assignments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<AssignmentKey, SlotAssignment> entry = iterator.next();
+                if (entry.getKey().hidden.contains(p)) {
+                    iterator.remove(); // No viewer will have this player hidden anymore
+                } else {
+                    entry.getValue().remove(p);
+                }
+            }
+            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                setHidden(all, p, false);
+            }
         }
+        tickLayouts(p);
     }
 
     @Override
@@ -159,9 +192,38 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
 
     @Override
     public void onVanishStatusChange(@NotNull TabPlayer p) {
+        synchronized (assignments) {
+            p.layoutData.hiddenPlayers = null;
+            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+                if (all != p) setHidden(all, p, !TAB.getInstance().getPlatform().canSee(all, p));
+            }
+        }
         tickAllLayouts();
     }
 
+    /**
+     * Adds target to or removes target from cached players hidden from viewer.
+     * Cached sets are used in assignment keys and are therefore replaced instead of modified.
+     *
+     * @param   viewer
+     *          Viewer to update cache of
+     * @param   target
+     *          Player whose visibility changed
+     * @param   hidden
+     *          {@code true} if viewer cannot see target, {@code false} if they can
+     */
+    private void setHidden(@NotNull TabPlayer viewer, @NotNull TabPlayer target, boolean hidden) {
+        Set<TabPlayer> current = viewer.layoutData.hiddenPlayers;
+        if (current == null || current.contains(target) == hidden) return;
+        Set<TabPlayer> updated = new HashSet<>(current);
+        if (hidden) {
+            updated.add(target);
+        } else {
+            updated.remove(target);
+        }
+        viewer.layoutData.hiddenPlayers = updated.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(updated);
+    }
+
     private @Nullable LayoutPattern getHighestLayout(@NotNull TabPlayer p) {
         if (p.layoutData.forcedLayout != null) return p.layoutData.forcedLayout;
         for (LayoutPattern pattern : layouts.values()) {
@@ -178,6 +240,23 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
         sortedPlayers.remove(p);
         p.layoutData.sortingString = teamName;
         sortedPlayers.put(p, teamName);
+        sortedPlayerArray = null;
+        updatePlayer(p);
+    }
+
+    /**
+     * Moves player in all slot assignments after their sorting position or group
+     * conditions changed and ticks layouts for all players.
+     *
+     * @param   p
+     *          Player who changed
+     */
+    public void updatePlayer(@NotNull TabPlayer p) {
+        synchronized (assignments) {
+            for (Entry<AssignmentKey, SlotAssignment> entry : assignments.entrySet()) {
+                if (!entry.getKey().hidden.contains(p)) entry.getValue().update(p);
+            }
+        }
         tickAllLayouts();
     }
 
@@ -192,15 +271,136 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
         if (player.layoutData.view != null) player.layoutData.view.send();
     }
 
+    /**
+     * Resends slots using any of given skins to all players to apply skins which finished downloading.
+     *
+     * @param   skins
+     *          Definitions of downloaded skins
+     */
+    private void resendSkins(@NotNull Set<String> skins) {
+        for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
+            if (all.layoutData.view != null) all.layoutData.view.resendSkins(skins);
+        }
+    }
+
     /**
      * Ticks layouts for all players.
      */
     public void tickAllLayouts() {
+        tickLayouts(null);
+    }
+
+    /**
+     * Ticks layouts for all players except given player. Slot assignment is computed once
+     * for each layout pattern and set of visible players and shared between viewers.
+     * Viewers whose assignment did not change since their last tick are skipped.
+     * Assignments no viewer used are discarded.
+     *
+     * @param   skip
+     *          Player to not tick layout of
+     */
+    private void tickLayouts(@Nullable TabPlayer skip) {
+        Set<AssignmentKey> used = new HashSet<>();
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all.layoutData.view != null) all.layoutData.view.tick();
+            LayoutView view = all.layoutData.view;
+            if (all == skip || view == null) continue;
+            SlotAssignment assignment = getSlotAssignment(view.getPattern(), all, used);
+            if (!view.isDisplaying(assignment)) view.tick(assignment);
+        }
+        synchronized (assignments) {
+            assignments.keySet().retainAll(used);
         }
     }
 
+    /**
+     * Returns sorted players. The array is only created again after players change.
+     *
+     * @return  Sorted players
+     */
+    @NotNull
+    private TabPlayer[] getSortedPlayerArray() {
+        TabPlayer[] array = sortedPlayerArray;
+        if (array == null) {
+            synchronized (sortedPlayers) {
+                array = sortedPlayers.keySet().toArray(new TabPlayer[0]);
+            }
+            sortedPlayerArray = array;
+        }
+        return array;
+    }
+
+    /**
+     * Returns assignment of players visible to viewer to groups of given pattern.
+     * Assignments are kept between ticks and updated as players join, leave or move,
+     * they are only computed again when a viewer can see a different set of players
+     * than any existing assignment was computed for.
+     *
+     * @param   pattern
+     *          Layout pattern
+     * @param   viewer
+     *          Player viewing the layout
+     * @return  Slot assignment for the viewer
+     */
+    @NotNull
+    public SlotAssignment getSlotAssignment(@NotNull LayoutPattern pattern, @NotNull TabPlayer viewer) {
+        return getSlotAssignment(pattern, viewer, null);
+    }
+
+    /**
+     * Returns assignment of players visible to viewer to groups of given pattern
+     * and adds its key into given set.
+     *
+     * @param   pattern
+     *          Layout pattern
+     * @param   viewer
+     *          Player viewing the layout
+     * @param   used
+     *          Set to add key of returned assignment to, {@code null} if not needed
+     * @return  Slot assignment for the viewer
+     */
+    @NotNull
+    private SlotAssignment getSlotAssignment(@NotNull LayoutPattern pattern, @NotNull TabPlayer viewer,
+                                             @Nullable Set<AssignmentKey> used) {
+        TabPlayer[] sorted = getSortedPlayerArray();
+        synchronized (assignments) {
+            Set<TabPlayer> hidden = getHiddenPlayers(viewer, sorted);
+            AssignmentKey key = new AssignmentKey(pattern, hidden);
+            if (used != null) used.add(key);
+            SlotAssignment assignment = assignments.get(key);
+            if (assignment != null && assignment.isValidFor(pattern)) return assignment;
+            List<TabPlayer> visible = new ArrayList<>(sorted.length);
+            for (TabPlayer target : sorted) {
+                if (!hidden.contains(target)) visible.add(target);
+            }
+            assignment = new SlotAssignment(pattern, visible);
+            assignments.put(key, assignment);
+            return assignment;
+        }
+    }
+
+    /**
+     * Returns players hidden from viewer. The result is cached until players join
+     * or leave or their vanish status changes.
+     *
+     * @param   viewer
+     *          Player to get hidden players of
+     * @param   sorted
+     *          All online players
+     * @return  Unmodifiable set of players hidden from viewer
+     */
+    @NotNull
+    private Set<TabPlayer> getHiddenPlayers(@NotNull TabPlayer viewer, @NotNull TabPlayer[] sorted) {
+        Set<TabPlayer> hidden = viewer.layoutData.hiddenPlayers;
+        if (hidden != null) return hidden;
+        Set<TabPlayer> computed = new HashSet<>();
+        for (TabPlayer target : sorted) {
+            if (!TAB.getInstance().getPlatform().canSee(viewer, target)) computed.add(target);
+        }
+        hidden = computed.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(computed);
+        viewer.layoutData.hiddenPlayers = hidden;
+        return hidden;
+    }
+
     // ------------------
     // API Implementation
     // ------------------
@@ -269,5 +469,23 @@ public class LayoutManagerImpl extends TabFeature implements LayoutManager, Join
         /** Layout forced via API */
         @Nullable
         public LayoutPattern forcedLayout;
+
+        /** Players hidden from this player, {@code null} if not computed yet */
+        @Nullable
+        public Set<TabPlayer> hiddenPlayers;
+    }
+
+    /**
+     * Key of slot assignment, made of layout pattern and players hidden from viewers.
+     */
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class AssignmentKey {
+
+        /** Layout pattern of the assignment */
+        @NotNull private final LayoutPattern pattern;
+
+        /** Players hidden from viewers, never modified */
+        @NotNull private final Set<TabPlayer> hidden;
     }
 }
\ No newline at end of file
@@ -70,7 +70,7 @@ public class LayoutPattern extends TabFeature implements Refreshable, Layout {
 
     @Override
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
-        manager.tickAllLayouts();
+        manager.updatePlayer(refreshed);
     }
 
     @Override
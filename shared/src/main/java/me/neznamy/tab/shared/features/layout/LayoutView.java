@@ -1,20 +1,21 @@
 package me.neznamy.tab.shared.features.layout;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.chat.SimpleComponent;
 import me.neznamy.tab.shared.placeholders.conditions.Condition;
 import me.neznamy.tab.shared.platform.TabList;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 @Getter
 public class LayoutView {
@@ -27,6 +28,15 @@ public class LayoutView {
     private final Collection<FixedSlot> fixedSlots;
     private final List<ParentGroup> groups = new ArrayList<>();
 
+    /** Assignment displayed by the last tick */
+    @Getter(AccessLevel.NONE)
+    @Nullable
+    private SlotAssignment displayedAssignment;
+
+    /** Modification count of displayed assignment at the time of the last tick */
+    @Getter(AccessLevel.NONE)
+    private int displayedModifications;
+
     public LayoutView(LayoutManagerImpl manager, LayoutPattern pattern, TabPlayer viewer) {
         this.manager = manager;
         this.viewer = viewer;
@@ -44,38 +54,87 @@ public class LayoutView {
 
     public void send() {
         if (viewer.getVersion().getMinorVersion() < 8 || viewer.isBedrockPlayer()) return;
-        groups.forEach(ParentGroup::sendSlots);
+        List<TabList.Entry> entries = new ArrayList<>();
+        groups.forEach(group -> group.addSlots(entries));
         for (FixedSlot slot : fixedSlots) {
-            viewer.getTabList().addEntry(slot.createEntry(viewer));
+            entries.add(slot.createEntry(viewer));
         }
         for (int slot : emptySlots) {
-            viewer.getTabList().addEntry(new TabList.Entry(
-                    manager.getUUID(slot),
-                    manager.getDirection().getEntryName(viewer, slot),
-                    manager.getSkinManager().getDefaultSkin(slot),
-                    true,
-                    manager.getEmptySlotPing(),
-                    0,
-                    new SimpleComponent("")
-            ));
+            entries.add(createEmptySlot(slot));
         }
+        viewer.getTabList().addEntries(entries);
         tick();
     }
 
+    private @NotNull TabList.Entry createEmptySlot(int slot) {
+        return new TabList.Entry(
+                manager.getUUID(slot),
+                manager.getDirection().getEntryName(viewer, slot),
+                manager.getSkinManager().getDefaultSkin(slot),
+                true,
+                manager.getEmptySlotPing(),
+                0,
+                new SimpleComponent("")
+        );
+    }
+
+    /**
+     * Resends only slots which display any of given skins, leaving all other slots untouched.
+     *
+     * @param   skins
+     *          Definitions of skins which finished downloading
+     */
+    public void resendSkins(@NotNull Set<String> skins) {
+        if (viewer.getVersion().getMinorVersion() < 8 || viewer.isBedrockPlayer()) return;
+        for (FixedSlot slot : fixedSlots) {
+            slot.resendSkin(viewer, skins);
+        }
+        for (ParentGroup group : groups) {
+            for (PlayerSlot slot : group.getPlayerSlots().values()) {
+                slot.resendSkin(skins);
+            }
+        }
+        for (int slot : emptySlots) {
+            if (!skins.contains(manager.getDefaultSkin(slot))) continue;
+            viewer.getTabList().removeEntry(manager.getUUID(slot));
+            viewer.getTabList().addEntry(createEmptySlot(slot));
+        }
+    }
+
     public void destroy() {
         if (viewer.getVersion().getMinorVersion() < 8 || viewer.isBedrockPlayer()) return;
         viewer.getTabList().removeEntries(manager.getUuids().values());
     }
 
     public void tick() {
-        Stream<TabPlayer> str = manager.getSortedPlayers().keySet().stream().filter(
-                player -> TAB.getInstance().getPlatform().canSee(viewer, player));
-        List<TabPlayer> players = str.collect(Collectors.toList());
-        for (ParentGroup group : groups) {
-            group.tick(players);
+        tick(manager.getSlotAssignment(pattern, viewer));
+    }
+
+    /**
+     * Displays players in player groups using given assignment.
+     *
+     * @param   assignment
+     *          Players assigned to each group
+     */
+    public void tick(@NotNull SlotAssignment assignment) {
+        displayedAssignment = assignment;
+        displayedModifications = assignment.getModifications();
+        for (int i = 0; i < groups.size(); i++) {
+            groups.get(i).tick(assignment.getGroupPlayers().get(i));
         }
     }
 
+    /**
+     * Returns {@code true} if the last tick displayed given assignment and it did not change since.
+     *
+     * @param   assignment
+     *          Assignment to check
+     * @return  {@code true} if assignment is displayed, {@code false} if tick is needed
+     */
+    public boolean isDisplaying(@NotNull SlotAssignment assignment) {
+        return displayedAssignment == assignment && displayedModifications == assignment.getModifications();
+    }
+
     public PlayerSlot getSlot(@NotNull TabPlayer target) {
         for (ParentGroup group : groups) {
             if (group.getPlayers().containsKey(target)) {
@@ -3,15 +3,13 @@ package me.neznamy.tab.shared.features.layout;
 import java.util.*;
 
 import lombok.Getter;
+import me.neznamy.tab.shared.platform.TabList;
 import me.neznamy.tab.shared.platform.TabPlayer;
-import me.neznamy.tab.shared.placeholders.conditions.Condition;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 public class ParentGroup {
 
     @NotNull private final LayoutView layout;
-    @Nullable private final Condition condition;
     @Getter private final int[] slots;
     private final TabPlayer viewer;
     @Getter private final Map<Integer, PlayerSlot> playerSlots = new HashMap<>();
@@ -19,7 +17,6 @@ public class ParentGroup {
 
     public ParentGroup(@NotNull LayoutView layout, @NotNull GroupPattern pattern, @NotNull TabPlayer viewer) {
         this.layout = layout;
-        condition = pattern.getCondition();
         slots = pattern.getSlots();
         this.viewer = viewer;
         for (int slot : slots) {
@@ -27,13 +24,14 @@ public class ParentGroup {
         }
     }
 
-    public void tick(@NotNull List<TabPlayer> remainingPlayers) {
+    /**
+     * Displays given players in slots of this group. Only slots whose content changed are sent.
+     *
+     * @param   meetingCondition
+     *          Players assigned to this group in sorted order
+     */
+    public void tick(@NotNull List<TabPlayer> meetingCondition) {
         players.clear();
-        List<TabPlayer> meetingCondition = new ArrayList<>();
-        for (TabPlayer p : remainingPlayers) {
-            if (condition == null || condition.isMet(p)) meetingCondition.add(p);
-        }
-        remainingPlayers.removeAll(meetingCondition);
         for (int index = 0; index < slots.length; index++) {
             int slot = slots[index];
             if (layout.getManager().isRemainingPlayersTextEnabled() && index == slots.length - 1 && playerSlots.size() < meetingCondition.size()) {
@@ -50,7 +48,7 @@ public class ParentGroup {
         }
     }
     
-    public void sendSlots() {
-        playerSlots.values().forEach(s -> viewer.getTabList().addEntry(s.getSlot(viewer)));
+    public void addSlots(@NotNull List<TabList.Entry> entries) {
+        playerSlots.values().forEach(s -> entries.add(s.getSlot(viewer)));
     }
 }
\ No newline at end of file
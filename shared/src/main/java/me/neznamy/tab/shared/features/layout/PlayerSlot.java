@@ -10,6 +10,7 @@ import me.neznamy.tab.shared.features.PlayerList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Set;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -58,6 +59,18 @@ public class PlayerSlot {
         return data;
     }
 
+    /**
+     * Sends the slot to viewer again if it is empty and its default skin is one of given skins.
+     *
+     * @param   skins
+     *          Definitions of skins which finished downloading
+     */
+    public void resendSkin(@NotNull Set<String> skins) {
+        if (player != null || !skins.contains(layout.getManager().getDefaultSkin(slot))) return;
+        layout.getViewer().getTabList().removeEntry(uniqueId);
+        layout.getViewer().getTabList().addEntry(getSlot(layout.getViewer()));
+    }
+
     public void setText(@NotNull String text) {
         if (this.text.equals(text) && player == null) return;
         this.text = text;
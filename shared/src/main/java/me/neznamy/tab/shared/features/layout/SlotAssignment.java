@@ -0,0 +1,150 @@
+package me.neznamy.tab.shared.features.layout;
+
+import lombok.Getter;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Players displayed in each player group of a layout pattern, in the order of groups.
+ * It only depends on the pattern and the players the viewer can see, so it is computed
+ * once and shared between all viewers of the pattern who can see the same players.
+ * After it is computed, it is kept up to date by adding, removing and moving single
+ * players, which only shifts players after them in their group. Every change increases
+ * modification count, so viewers can skip ticks when nothing changed.
+ */
+public class SlotAssignment {
+
+    /** Comparator of players in the same order as they are sorted in layout */
+    private static final Comparator<TabPlayer> ORDER = Comparator.comparing(p -> p.layoutData.sortingString);
+
+    /** Groups of the pattern */
+    @NotNull private final List<GroupPattern> groups;
+
+    /** Players meeting condition of each group in sorted order */
+    @Getter @NotNull private final List<List<TabPlayer>> groupPlayers;
+
+    /** Index of group each player is assigned to */
+    @NotNull private final Map<TabPlayer, Integer> playerGroups = new HashMap<>();
+
+    /** Amount of changes made to players in groups since this assignment was computed */
+    @Getter private int modifications;
+
+    /**
+     * Assigns visible players to groups of given pattern. Each player is assigned
+     * to the first group whose condition they meet.
+     *
+     * @param   pattern
+     *          Layout pattern
+     * @param   visiblePlayers
+     *          Players visible to the viewer in sorted order
+     */
+    public SlotAssignment(@NotNull LayoutPattern pattern, @NotNull List<TabPlayer> visiblePlayers) {
+        groups = new ArrayList<>(pattern.getGroups());
+        groupPlayers = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            groupPlayers.add(new ArrayList<>());
+        }
+        for (TabPlayer p : visiblePlayers) {
+            int group = findGroup(p);
+            if (group == -1) continue;
+            groupPlayers.get(group).add(p);
+            playerGroups.put(p, group);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this assignment was computed for current groups of given pattern.
+     * Groups may be added to patterns created using the API after the assignment was computed.
+     *
+     * @param   pattern
+     *          Layout pattern
+     * @return  {@code true} if groups of the pattern did not change, {@code false} if they did
+     */
+    public boolean isValidFor(@NotNull LayoutPattern pattern) {
+        return groups.equals(pattern.getGroups());
+    }
+
+    /**
+     * Adds player who became visible into the first group whose condition they meet.
+     *
+     * @param   player
+     *          Player to add
+     */
+    public void add(@NotNull TabPlayer player) {
+        if (insert(player) != -1) modifications++;
+    }
+
+    /**
+     * Removes player from the group they are assigned to.
+     *
+     * @param   player
+     *          Player to remove
+     */
+    public void remove(@NotNull TabPlayer player) {
+        if (delete(player) != -1) modifications++;
+    }
+
+    /**
+     * Moves player after their sorting position or group conditions changed.
+     *
+     * @param   player
+     *          Player to move
+     */
+    public void update(@NotNull TabPlayer player) {
+        Integer oldGroup = playerGroups.get(player);
+        int oldIndex = delete(player);
+        int newIndex = insert(player);
+        if (!Objects.equals(oldGroup, playerGroups.get(player)) || oldIndex != newIndex) modifications++;
+    }
+
+    /**
+     * Inserts player into the first group whose condition they meet.
+     *
+     * @param   player
+     *          Player to insert
+     * @return  Index of player in their group or {@code -1} if player does not meet condition of any group
+     */
+    private int insert(@NotNull TabPlayer player) {
+        int group = findGroup(player);
+        if (group == -1) return -1;
+        List<TabPlayer> players = groupPlayers.get(group);
+        int index = Collections.binarySearch(players, player, ORDER);
+        if (index < 0) index = -index - 1;
+        players.add(index, player);
+        playerGroups.put(player, group);
+        return index;
+    }
+
+    /**
+     * Deletes player from the group they are assigned to.
+     *
+     * @param   player
+     *          Player to delete
+     * @return  Index player had in their group or {@code -1} if player was not assigned to any group
+     */
+    private int delete(@NotNull TabPlayer player) {
+        Integer group = playerGroups.remove(player);
+        if (group == null) return -1;
+        List<TabPlayer> players = groupPlayers.get(group);
+        int index = players.indexOf(player);
+        players.remove(index);
+        return index;
+    }
+
+    /**
+     * Returns index of the first group whose condition player meets.
+     *
+     * @param   player
+     *          Player to find group of
+     * @return  Index of group or {@code -1} if player does not meet condition of any group
+     */
+    private int findGroup(@NotNull TabPlayer player) {
+        for (int i = 0; i < groups.size(); i++) {
+            GroupPattern group = groups.get(i);
+            if (group.getCondition() == null || group.getCondition().isMet(player)) return i;
+        }
+        return -1;
+    }
+}
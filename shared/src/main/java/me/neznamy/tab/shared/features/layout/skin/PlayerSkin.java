@@ -10,7 +10,6 @@ import org.jetbrains.annotations.NotNull;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
 import me.neznamy.tab.shared.TAB;
 
 /**
@@ -18,8 +17,8 @@ import me.neznamy.tab.shared.TAB;
  */
 public class PlayerSkin extends SkinSource {
 
-    protected PlayerSkin(@NotNull ConfigurationFile file) {
-        super(file, "players");
+    protected PlayerSkin(@NotNull SkinCache cache) {
+        super(cache, "players");
     }
 
     @Override
@@ -0,0 +1,132 @@
+package me.neznamy.tab.shared.features.layout.skin;
+
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.config.file.ConfigurationFile;
+import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of downloaded skins. Skins are stored in a binary file,
+ * new skins are appended to the end of it instead of rewriting the whole file.
+ * Each record contains source name, skin definition, value and signature.
+ * If the file does not exist yet, skins are imported from the old YAML cache.
+ */
+public class SkinCache {
+
+    /** File the skins are stored in */
+    @NotNull private final File file;
+
+    /** Cached skins by source and skin definition */
+    private final Map<String, Map<String, List<String>>> skins = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs new instance and loads skins from the file.
+     *
+     * @param   file
+     *          File to store skins in
+     * @param   legacyFile
+     *          Old YAML cache to import skins from if the file does not exist yet
+     * @throws  IOException
+     *          If reading or writing the file fails
+     */
+    public SkinCache(@NotNull File file, @NotNull File legacyFile) throws IOException {
+        this.file = file;
+        if (file.exists()) {
+            load();
+        } else if (legacyFile.exists()) {
+            importLegacy(legacyFile);
+        }
+    }
+
+    /**
+     * Reads all records from the file. An incomplete record at the end of the file,
+     * such as from a crash while writing, is removed, so new records can be appended.
+     *
+     * @throws  IOException
+     *          If reading fails
+     */
+    private void load() throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int validLength = 0;
+        try {
+            while (validLength < bytes.length) {
+                String source = in.readUTF();
+                String skin = in.readUTF();
+                String value = in.readUTF();
+                String signature = in.readBoolean() ? in.readUTF() : null;
+                skins.computeIfAbsent(source, s -> new ConcurrentHashMap<>()).put(skin, Arrays.asList(value, signature));
+                validLength = bytes.length - in.available();
+            }
+        } catch (EOFException e) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    /**
+     * Imports skins from the old YAML cache and writes them into the file.
+     *
+     * @param   legacyFile
+     *          YAML file to import
+     * @throws  IOException
+     *          If reading or writing fails
+     */
+    private void importLegacy(@NotNull File legacyFile) throws IOException {
+        ConfigurationFile legacy = new YamlConfigurationFile(null, legacyFile);
+        for (Object source : legacy.getValues().keySet()) {
+            Map<String, List<String>> section = legacy.getConfigurationSection(source.toString());
+            for (Map.Entry<String, List<String>> entry : section.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().size() < 2) continue;
+                put(source.toString(), entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns cached skin.
+     *
+     * @param   source
+     *          Name of skin source
+     * @param   skin
+     *          Skin definition
+     * @return  Skin value and signature or {@code null} if not cached
+     */
+    @Nullable
+    public List<String> get(@NotNull String source, @NotNull String skin) {
+        Map<String, List<String>> sourceSkins = skins.get(source);
+        return sourceSkins == null ? null : sourceSkins.get(skin);
+    }
+
+    /**
+     * Adds skin into the cache and appends it to the file.
+     *
+     * @param   source
+     *          Name of skin source
+     * @param   skin
+     *          Skin definition
+     * @param   properties
+     *          Skin value and signature
+     */
+    public synchronized void put(@NotNull String source, @NotNull String skin, @NotNull List<String> properties) {
+        skins.computeIfAbsent(source, s -> new ConcurrentHashMap<>()).put(skin, properties);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            out.writeUTF(source);
+            out.writeUTF(skin);
+            out.writeUTF(properties.get(0));
+            out.writeBoolean(properties.get(1) != null);
+            if (properties.get(1) != null) out.writeUTF(properties.get(1));
+        } catch (IOException e) {
+            TAB.getInstance().getErrorManager().criticalError("Failed to save skin " + skin + " into skin cache", e);
+        }
+    }
+}
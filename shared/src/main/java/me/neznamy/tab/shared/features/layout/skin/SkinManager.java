@@ -2,33 +2,70 @@ package me.neznamy.tab.shared.features.layout.skin;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Getter;
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
-import me.neznamy.tab.shared.config.file.YamlConfigurationFile;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.platform.TabList.Skin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Skin manager for layout feature.
+ * Skin manager for layout feature. Skins which are not cached yet are downloaded
+ * in the background. Until the download finishes, default skin is used instead.
+ * Once skins are downloaded, the given callback is run on the processing thread
+ * with definitions of the downloaded skins to resend them.
  */
 public class SkinManager {
 
-    /** Skins defined in configuration that are invalid */
-    private final List<String> invalidSkins = new ArrayList<>();
+    /** Maximum amount of skins downloaded at the same time */
+    private static final int DOWNLOAD_THREADS = 4;
+
+    /** Time after which download of an invalid skin is attempted again */
+    private static final long INVALID_SKIN_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /** Skins defined in configuration that are invalid and time when their download failed */
+    private final Map<String, Long> invalidSkins = new ConcurrentHashMap<>();
+
+    /** Skins which are currently being downloaded */
+    private final Set<String> downloadingSkins = ConcurrentHashMap.newKeySet();
+
+    /** Threads downloading skins, which stop when there is nothing to download */
+    private final ThreadPoolExecutor downloadThreads = createDownloadThreads();
+
+    /** Flag tracking whether a task applying downloaded skins is scheduled */
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+
+    /** Definitions of skins downloaded since downloaded skins were last applied */
+    private final Set<String> downloadedSkins = ConcurrentHashMap.newKeySet();
+
+    /** Task resending skins with given definitions once they are downloaded */
+    @NotNull private final Consumer<Set<String>> onDownload;
+
+    /** Configured default skin definition */
+    @NotNull private final String defaultSkinDefinition;
+
+    /** Default skin definitions per slot */
+    @NotNull private final Map<Integer, String> defaultSkinDefinitions;
 
     /** Configured default skin */
     @Getter private Skin defaultSkin;
 
     /** Default skins per slot */
-    private final Map<Integer, Skin> defaultSkinHashMap = new HashMap<>();
+    private Map<Integer, Skin> defaultSkinHashMap = new HashMap<>();
 
     /** Registered skin patterns and their sources */
     private final Map<String, SkinSource> sources = new HashMap<>();
@@ -40,26 +77,77 @@ public class SkinManager {
      *          Defined default skin
      * @param   defaultSkinHashMap
      *          Map of default skins per slot
+     * @param   onDownload
+     *          Task resending skins with given definitions once they are downloaded
      */
-    public SkinManager(@NotNull String defaultSkin, @NotNull Map<Integer, String> defaultSkinHashMap) {
+    public SkinManager(@NotNull String defaultSkin, @NotNull Map<Integer, String> defaultSkinHashMap,
+                       @NotNull Consumer<Set<String>> onDownload) {
+        this(defaultSkin, defaultSkinHashMap, onDownload, createSources());
+    }
+
+    /**
+     * Constructs new instance with given parameters and skin sources.
+     *
+     * @param   defaultSkin
+     *          Defined default skin
+     * @param   defaultSkinHashMap
+     *          Map of default skins per slot
+     * @param   onDownload
+     *          Task resending skins with given definitions once they are downloaded
+     * @param   sources
+     *          Skin sources by their prefix or {@code null} if skin cache failed to load
+     */
+    SkinManager(@NotNull String defaultSkin, @NotNull Map<Integer, String> defaultSkinHashMap,
+                @NotNull Consumer<Set<String>> onDownload, @Nullable Map<String, SkinSource> sources) {
+        this.defaultSkinDefinition = defaultSkin;
+        this.defaultSkinDefinitions = defaultSkinHashMap;
+        this.onDownload = onDownload;
+        if (sources == null) return;
+        this.sources.putAll(sources);
+        loadDefaultSkins();
+    }
+
+    /**
+     * Loads skin cache and creates skin sources using it.
+     *
+     * @return  Skin sources by their prefix or {@code null} if skin cache failed to load
+     */
+    @Nullable
+    private static Map<String, SkinSource> createSources() {
         try {
-            File f = new File(TAB.getInstance().getDataFolder(), "skincache.yml");
-            if (f.exists() || f.createNewFile()) {
-                ConfigurationFile cache = new YamlConfigurationFile(null, f);
-                sources.put("player", new PlayerSkin(cache));
-                sources.put("mineskin", new MineSkin(cache));
-                sources.put("texture", new Texture(cache));
-                this.defaultSkin = getSkin(defaultSkin);
-                for (Map.Entry<Integer, String> entry : defaultSkinHashMap.entrySet()) {
-                    Skin skin = getSkin(entry.getValue());
-                    if (skin != null) this.defaultSkinHashMap.put(entry.getKey(), skin);
-                }
-            } else {
-                TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", null);
-            }
+            File folder = TAB.getInstance().getDataFolder();
+            SkinCache cache = new SkinCache(new File(folder, "skincache.dat"), new File(folder, "skincache.yml"));
+            Map<String, SkinSource> sources = new HashMap<>();
+            sources.put("player", new PlayerSkin(cache));
+            sources.put("mineskin", new MineSkin(cache));
+            sources.put("texture", new Texture(cache));
+            return sources;
         } catch (IOException e) {
             TAB.getInstance().getErrorManager().criticalError("Failed to load skin cache", e);
+            return null;
+        }
+    }
+
+    @NotNull
+    private static ThreadPoolExecutor createDownloadThreads() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DOWNLOAD_THREADS, DOWNLOAD_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("TAB Skin Download Thread #%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Loads default skins from their definitions. Skins which are not downloaded yet
+     * are loaded again once they are.
+     */
+    private void loadDefaultSkins() {
+        defaultSkin = getSkin(defaultSkinDefinition);
+        Map<Integer, Skin> skins = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : defaultSkinDefinitions.entrySet()) {
+            Skin skin = getSkin(entry.getValue());
+            if (skin != null) skins.put(entry.getKey(), skin);
         }
+        defaultSkinHashMap = skins;
     }
 
     /**
@@ -76,7 +164,8 @@ public class SkinManager {
 
     /**
      * Returns skin from given skin definition. If Skin is invalid, warn is printed and
-     * {@code null} is returned.
+     * {@code null} is returned. If skin is not downloaded yet, download is started
+     * and default skin is returned.
      *
      * @param   skin
      *          Full skin definition
@@ -84,12 +173,17 @@ public class SkinManager {
      */
     @Nullable
     public Skin getSkin(@NotNull String skin) {
-        if (invalidSkins.contains(skin)) return defaultSkin;
+        Long failTime = invalidSkins.get(skin);
+        if (failTime != null) {
+            if (currentTimeMillis() - failTime < INVALID_SKIN_RETRY_MILLIS) return defaultSkin;
+            invalidSkins.remove(skin);
+        }
         for (Entry<String, SkinSource> entry : sources.entrySet()) {
             if (skin.startsWith(entry.getKey() + ":")) {
-                List<String> value = entry.getValue().getSkin(skin.substring(entry.getKey().length()+1));
-                if (value.isEmpty()) {
-                    invalidSkins.add(skin);
+                String definition = skin.substring(entry.getKey().length()+1);
+                List<String> value = entry.getValue().getCachedSkin(definition);
+                if (value == null) {
+                    download(skin, entry.getValue(), definition);
                     return defaultSkin;
                 }
                 return new Skin(value.get(0), value.get(1));
@@ -98,4 +192,48 @@ public class SkinManager {
         TAB.getInstance().getConfigHelper().startup().invalidLayoutSkinDefinition(skin);
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts downloading skin in the background if it is not being downloaded already.
+     *
+     * @param   skin
+     *          Full skin definition
+     * @param   source
+     *          Source of the skin
+     * @param   definition
+     *          Skin definition without source prefix
+     */
+    private void download(@NotNull String skin, @NotNull SkinSource source, @NotNull String definition) {
+        if (!downloadingSkins.add(skin)) return;
+        downloadThreads.execute(() -> {
+            boolean valid;
+            try {
+                valid = !source.downloadAndCache(definition).isEmpty();
+                if (!valid) invalidSkins.put(skin, currentTimeMillis());
+            } finally {
+                downloadingSkins.remove(skin);
+            }
+            if (!valid) return;
+            downloadedSkins.add(skin);
+            if (applyScheduled.compareAndSet(false, true)) {
+                TAB.getInstance().getCPUManager().runMeasuredTask("Layout", TabConstants.CpuUsageCategory.APPLYING_DOWNLOADED_SKINS, () -> {
+                    applyScheduled.set(false);
+                    Set<String> skins = new HashSet<>(downloadedSkins);
+                    downloadedSkins.removeAll(skins);
+                    if (skins.isEmpty()) return;
+                    loadDefaultSkins();
+                    onDownload.accept(skins);
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns current time used for retrying downloads of invalid skins.
+     *
+     * @return  Current time in milliseconds
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -3,54 +3,58 @@ package me.neznamy.tab.shared.features.layout.skin;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.List;
-import java.util.Map;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
-
 /**
  * Abstract class for skin sources for getting skins.
  */
 public abstract class SkinSource {
 
-    /** Configuration file for storing cache */
-    @NotNull private final ConfigurationFile file;
+    /** Connect and read timeout of skin requests */
+    protected static final int TIMEOUT_MILLIS = 10000;
+
+    /** Cache for storing downloaded skins */
+    @NotNull private final SkinCache cache;
 
     /** Cache path of this source */
     @NotNull private final String path;
 
-    /** Current cache of this source */
-    @NotNull private final Map<String, List<String>> cache;
-
-    protected SkinSource(@NotNull ConfigurationFile file, @NotNull String path) {
-        this.file = file;
+    protected SkinSource(@NotNull SkinCache cache, @NotNull String path) {
+        this.cache = cache;
         this.path = path;
-        cache = file.getConfigurationSection(path);
     }
 
     /**
-     * Returns skin using given skin definition.
+     * Returns cached skin using given skin definition.
+     *
+     * @param   skin
+     *          Skin definition
+     * @return  Cached skin or {@code null} if not downloaded yet
+     */
+    @Nullable
+    public List<String> getCachedSkin(@NotNull String skin) {
+        return cache.get(path, skin);
+    }
+
+    /**
+     * Downloads skin using given skin definition and saves it into cache if valid.
+     * This method blocks until the download finishes.
      *
      * @param   skin
      *          Skin definition
      * @return  Skin from definition or empty list if invalid
      */
     @NotNull
-    public List<String> getSkin(@NotNull String skin) {
-        if (cache.containsKey(skin)) {
-            return cache.get(skin);
-        }
+    public List<String> downloadAndCache(@NotNull String skin) {
         List<String> properties = download(skin);
-        if (!properties.isEmpty()) {
-            cache.put(skin, properties);
-            file.set(path, cache);
-            return properties;
-        }
+        if (!properties.isEmpty()) cache.put(path, skin, properties);
         return properties;
     }
 
@@ -66,7 +70,10 @@ public abstract class SkinSource {
 
     @NotNull
     protected JSONObject getResponse(@NotNull String url) throws IOException, ParseException {
-        try (InputStreamReader reader = new InputStreamReader(new URL(url).openStream())) {
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        try (InputStreamReader reader = new InputStreamReader(connection.getInputStream())) {
             return (JSONObject) new JSONParser().parse(reader);
         }
     }
@@ -15,7 +15,6 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import me.neznamy.tab.shared.config.file.ConfigurationFile;
 import me.neznamy.tab.shared.TAB;
 
 /**
@@ -23,8 +22,8 @@ import me.neznamy.tab.shared.TAB;
  */
 public class Texture extends SkinSource {
 
-    protected Texture(@NotNull ConfigurationFile file) {
-        super(file, "textures");
+    protected Texture(@NotNull SkinCache cache) {
+        super(cache, "textures");
     }
 
     @Override
@@ -48,6 +47,8 @@ public class Texture extends SkinSource {
     private static InputStreamReader getInputStreamReader(@NotNull String texture) throws IOException {
         URL url = new URL("https://api.mineskin.org/generate/url/");
         HttpURLConnection con = (HttpURLConnection) url.openConnection();
+        con.setConnectTimeout(TIMEOUT_MILLIS);
+        con.setReadTimeout(TIMEOUT_MILLIS);
         con.setRequestProperty("User-Agent", "ExampleApp/v1.0");
         con.setRequestProperty("Content-Type", "application/json");
         con.setRequestMethod("POST");
@@ -0,0 +1,112 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Features to refresh for players after placeholders used by them changed value,
+ * collected while processing placeholder refresh results and refreshed at once,
+ * so every feature is refreshed only once per player. Players are indexed by slot
+ * (see {@link TabPlayer#getSlot()}) and features by the order they were first seen in.
+ * All buffers are reused, so collecting and refreshing does not allocate memory in steady state.
+ * This class is not thread-safe and must only be accessed from the main thread.
+ */
+@RequiredArgsConstructor
+public class PendingRefreshes {
+
+    /** CPU manager for usage tracking */
+    @NotNull private final CpuManager cpu;
+
+    /** Whether refresh should be forced */
+    private final boolean force;
+
+    /** Indexes of features in {@link #features} */
+    @NotNull private final Map<Refreshable, Integer> indexes = new IdentityHashMap<>();
+
+    /** Features by their index */
+    @NotNull private Refreshable[] features = new Refreshable[0];
+
+    /** Players to refresh by slot */
+    @NotNull private TabPlayer[] players = new TabPlayer[0];
+
+    /** Indexes of features to refresh by player slot */
+    @NotNull private BitSet[] pending = new BitSet[0];
+
+    /** Slots of players with at least one feature to refresh */
+    @NotNull private final BitSet pendingPlayers = new BitSet();
+
+    /**
+     * Marks features to be refreshed for player.
+     *
+     * @param   player
+     *          Player to refresh features for
+     * @param   usage
+     *          Features to refresh
+     */
+    public void add(@NotNull TabPlayer player, @NotNull Refreshable[] usage) {
+        int slot = player.getSlot();
+        if (slot == -1 || usage.length == 0) return;
+        if (slot >= players.length) {
+            players = Arrays.copyOf(players, slot + 1);
+            pending = Arrays.copyOf(pending, slot + 1);
+        }
+        players[slot] = player;
+        BitSet features = pending[slot];
+        if (features == null) {
+            features = new BitSet();
+            pending[slot] = features;
+        }
+        for (Refreshable feature : usage) {
+            features.set(indexOf(feature));
+        }
+        pendingPlayers.set(slot);
+    }
+
+    /**
+     * Returns index of given feature. If it does not have one yet, it is assigned.
+     *
+     * @param   feature
+     *          Feature to get index of
+     * @return  Index of the feature
+     */
+    private int indexOf(@NotNull Refreshable feature) {
+        Integer index = indexes.get(feature);
+        if (index == null) {
+            index = features.length;
+            features = Arrays.copyOf(features, index + 1);
+            features[index] = feature;
+            indexes.put(feature, index);
+        }
+        return index;
+    }
+
+    /**
+     * Refreshes all marked features for all players and clears them.
+     */
+    public void refresh() {
+        for (int slot = pendingPlayers.nextSetBit(0); slot >= 0; slot = pendingPlayers.nextSetBit(slot + 1)) {
+            TabPlayer player = players[slot];
+            BitSet features = pending[slot];
+            players[slot] = null;
+            try {
+                for (int i = features.nextSetBit(0); i >= 0; i = features.nextSetBit(i + 1)) {
+                    Refreshable feature = this.features[i];
+                    long startTime = System.nanoTime();
+                    feature.refresh(player, force);
+                    cpu.addTime(feature.getFeatureName(), feature.getRefreshDisplayName(), System.nanoTime() - startTime);
+                }
+            } finally {
+                features.clear();
+            }
+        }
+        pendingPlayers.clear();
+    }
+}
@@ -0,0 +1,118 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.api.placeholder.Placeholder;
+import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Compiled snapshot of dependencies between placeholders and features using them.
+ * For every placeholder it contains its resolved parent placeholders (placeholders
+ * using it as a nested placeholder) and all features to refresh when its value changes,
+ * which includes features using any of its parents. Both are stored in arrays indexed
+ * by placeholder ordinal, so resolving them does not require any map lookups.
+ * The snapshot is immutable and has to be rebuilt when dependencies change.
+ */
+public class PlaceholderDependencyGraph {
+
+    /** Shared empty array for placeholders without parents */
+    private static final TabPlaceholder[] NO_PARENTS = new TabPlaceholder[0];
+
+    /** Shared empty array for placeholders not used by any feature */
+    private static final Refreshable[] NO_USAGE = new Refreshable[0];
+
+    /** Resolved parent placeholders indexed by placeholder ordinal */
+    @NotNull
+    private final TabPlaceholder[][] parents;
+
+    /** Features using placeholder directly or through its parents indexed by placeholder ordinal */
+    @NotNull
+    private final Refreshable[][] usage;
+
+    /**
+     * Compiles dependencies of given placeholders.
+     *
+     * @param   placeholders
+     *          Registered placeholders by identifier
+     * @param   directUsage
+     *          Features using each placeholder directly by placeholder identifier
+     */
+    public PlaceholderDependencyGraph(@NotNull Map<String, Placeholder> placeholders, @NotNull Map<String, Set<Refreshable>> directUsage) {
+        int size = 0;
+        for (Placeholder placeholder : placeholders.values()) {
+            size = Math.max(size, ((TabPlaceholder) placeholder).getOrdinal() + 1);
+        }
+        parents = new TabPlaceholder[size][];
+        usage = new Refreshable[size][];
+        for (Placeholder placeholder : placeholders.values()) {
+            TabPlaceholder tabPlaceholder = (TabPlaceholder) placeholder;
+            List<TabPlaceholder> resolved = new ArrayList<>(tabPlaceholder.getParents().size());
+            for (String parent : tabPlaceholder.getParents()) {
+                Placeholder parentPlaceholder = placeholders.get(parent);
+                if (parentPlaceholder != null) resolved.add((TabPlaceholder) parentPlaceholder);
+            }
+            parents[tabPlaceholder.getOrdinal()] = resolved.isEmpty() ? NO_PARENTS : resolved.toArray(NO_PARENTS);
+        }
+        for (Placeholder placeholder : placeholders.values()) {
+            TabPlaceholder tabPlaceholder = (TabPlaceholder) placeholder;
+            Set<Refreshable> features = new LinkedHashSet<>();
+            collectUsage(tabPlaceholder, directUsage, features, new HashSet<>());
+            usage[tabPlaceholder.getOrdinal()] = features.isEmpty() ? NO_USAGE : features.toArray(NO_USAGE);
+        }
+    }
+
+    /**
+     * Adds features using given placeholder and all of its parents into provided set.
+     * Each placeholder is only visited once, which also protects against cyclic nesting.
+     *
+     * @param   placeholder
+     *          Placeholder to collect usage of
+     * @param   directUsage
+     *          Features using each placeholder directly by placeholder identifier
+     * @param   features
+     *          Set to add features to
+     * @param   visited
+     *          Placeholders which were already visited
+     */
+    private void collectUsage(@NotNull TabPlaceholder placeholder, @NotNull Map<String, Set<Refreshable>> directUsage,
+                              @NotNull Set<Refreshable> features, @NotNull Set<TabPlaceholder> visited) {
+        if (!visited.add(placeholder)) return;
+        Set<Refreshable> direct = directUsage.get(placeholder.getIdentifier());
+        if (direct != null) features.addAll(direct);
+        for (TabPlaceholder parent : parents[placeholder.getOrdinal()]) {
+            collectUsage(parent, directUsage, features, visited);
+        }
+    }
+
+    /**
+     * Returns placeholders using given placeholder as a nested placeholder.
+     * The returned array must not be modified.
+     *
+     * @param   placeholder
+     *          Placeholder to get parents of
+     * @return  Parent placeholders of given placeholder
+     */
+    @NotNull
+    public TabPlaceholder[] getParents(@NotNull TabPlaceholder placeholder) {
+        int ordinal = placeholder.getOrdinal();
+        if (ordinal >= parents.length || parents[ordinal] == null) return NO_PARENTS;
+        return parents[ordinal];
+    }
+
+    /**
+     * Returns all features which need to be refreshed when given placeholder
+     * changes value. The returned array must not be modified.
+     *
+     * @param   placeholder
+     *          Placeholder to get usage of
+     * @return  Features using the placeholder directly or through its parents
+     */
+    @NotNull
+    public Refreshable[] getUsage(@NotNull TabPlaceholder placeholder) {
+        int ordinal = placeholder.getOrdinal();
+        if (ordinal >= usage.length || usage[ordinal] == null) return NO_USAGE;
+        return usage[ordinal];
+    }
+}
@@ -0,0 +1,235 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.api.placeholder.Placeholder;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Placeholder refreshing distributing requests to a bounded pool of worker threads.
+ * Player placeholders are split into shards by player and relational placeholders
+ * by viewer. Every placeholder is requested independently, so a slow placeholder
+ * only delays its own results. Placeholders which did not return values in time are
+ * not requested again until they finish and have their results processed separately.
+ */
+public class PlaceholderRefreshEngine {
+
+    /** CPU manager for thread access and usage tracking */
+    @NotNull
+    private final CpuManager cpu;
+
+    /** Name of the feature to track request time under */
+    @NotNull
+    private final String featureName;
+
+    /** Worker threads requesting placeholder values */
+    @NotNull
+    private final ExecutorService workers;
+
+    /**
+     * Maximum amount of shards a single placeholder request is split into, which is half of
+     * the workers, so a slow placeholder cannot occupy all of them
+     */
+    private final int shards;
+
+    /** Whether relational placeholders should only re-evaluate invalidated pairs */
+    private final boolean incrementalRelational;
+
+    /** Function processing refresh results, expected to pass them back to the main thread */
+    @NotNull
+    private final Consumer<List<PlaceholderRefreshTask>> resultProcessor;
+
+    /** Function logging errors thrown while requesting values */
+    @NotNull
+    private final Consumer<Throwable> errorHandler;
+
+    /** Reusable refresh tasks indexed by placeholder ordinal */
+    @NotNull
+    private PlaceholderRefreshTask[] tasks = new PlaceholderRefreshTask[0];
+
+    /** Thread waiting for refresh tasks to finish */
+    private volatile Thread waitingThread;
+
+    /**
+     * Constructs new instance and creates worker pool with given amount of threads.
+     *
+     * @param   cpu
+     *          CPU manager for thread access and usage tracking
+     * @param   featureName
+     *          Name of the feature to track request time under
+     * @param   threads
+     *          Amount of worker threads
+     * @param   incrementalRelational
+     *          Whether relational placeholders should only re-evaluate invalidated pairs
+     * @param   resultProcessor
+     *          Function processing refresh results
+     * @param   errorHandler
+     *          Function logging errors thrown while requesting values
+     */
+    public PlaceholderRefreshEngine(@NotNull CpuManager cpu, @NotNull String featureName, int threads, boolean incrementalRelational,
+                                    @NotNull Consumer<List<PlaceholderRefreshTask>> resultProcessor,
+                                    @NotNull Consumer<Throwable> errorHandler) {
+        this.cpu = cpu;
+        this.featureName = featureName;
+        this.shards = Math.max(1, threads / 2);
+        this.incrementalRelational = incrementalRelational;
+        this.resultProcessor = resultProcessor;
+        this.errorHandler = errorHandler;
+        workers = cpu.createPlaceholderWorkers(threads);
+    }
+
+    /**
+     * Requests new values of given placeholders for all online players. Placeholders
+     * which are still being requested from previous cycles are skipped.
+     * Must be called from the main thread.
+     *
+     * @param   placeholders
+     *          Placeholders to refresh
+     */
+    public void refresh(@NotNull List<Placeholder> placeholders) {
+        refresh(placeholders, TAB.getInstance().getOnlinePlayers());
+    }
+
+    /**
+     * Requests new values of given placeholders for given players. Placeholders
+     * which are still being requested from previous cycles are skipped.
+     * Must be called from the main thread. Apart from the first refresh of each placeholder,
+     * the only allocations are the list of started tasks and the task passing it to the
+     * placeholder thread, which cannot be reused, because the next cycle may start before
+     * the previous one finished waiting for results.
+     *
+     * @param   placeholders
+     *          Placeholders to refresh
+     * @param   players
+     *          Players to request values for
+     */
+    public void refresh(@NotNull List<Placeholder> placeholders, @NotNull TabPlayer[] players) {
+        List<PlaceholderRefreshTask> toRefresh = new ArrayList<>(placeholders.size());
+        for (Placeholder placeholder : placeholders) {
+            PlaceholderRefreshTask task = getTask((TabPlaceholder) placeholder);
+            if (task.start(players)) toRefresh.add(task);
+        }
+        if (toRefresh.isEmpty()) return;
+        cpu.getPlaceholderThread().submit(() -> distribute(toRefresh));
+    }
+
+    /**
+     * Returns refresh task of given placeholder. If it does not exist yet, it is created.
+     *
+     * @param   placeholder
+     *          Placeholder to get refresh task of
+     * @return  Refresh task of given placeholder
+     */
+    @NotNull
+    private PlaceholderRefreshTask getTask(@NotNull TabPlaceholder placeholder) {
+        int ordinal = placeholder.getOrdinal();
+        if (tasks.length <= ordinal) tasks = Arrays.copyOf(tasks, ordinal + 1);
+        PlaceholderRefreshTask task = tasks[ordinal];
+        if (task == null || task.getPlaceholder() != placeholder) {
+            task = new PlaceholderRefreshTask(placeholder, shards, this::runShard, incrementalRelational);
+            tasks[ordinal] = task;
+        }
+        return task;
+    }
+
+    /**
+     * Submits requests of all placeholders to worker threads, waits for them to
+     * finish for up to {@link TabConstants.Placeholder#RETURN_TIME_WARN_THRESHOLD}
+     * milliseconds and passes all finished results at once to result processor.
+     * Placeholders which took longer get their results processed once they finish.
+     *
+     * @param   tasks
+     *          Tasks to run
+     */
+    private void distribute(@NotNull List<PlaceholderRefreshTask> tasks) {
+        waitingThread = Thread.currentThread();
+        for (PlaceholderRefreshTask task : tasks) {
+            for (int i = 0; i < task.getActiveShards(); i++) {
+                try {
+                    workers.execute(task.getShard(i));
+                } catch (RejectedExecutionException e) {
+                    // Plugin is being disabled, count the shard as finished so the task does not get stuck
+                    if (task.completeShard()) task.markDone();
+                }
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TabConstants.Placeholder.RETURN_TIME_WARN_THRESHOLD);
+        long remaining;
+        while (!allDone(tasks) && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) break; // Unfinished tasks are marked as late and finish on their own
+        }
+        waitingThread = null;
+        int finished = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!tasks.get(i).markLate()) {
+                tasks.set(finished++, tasks.get(i)); // Finished in time, keep it in the list
+            }
+        }
+        if (finished > 0) resultProcessor.accept(tasks.subList(0, finished));
+    }
+
+    /**
+     * Returns {@code true} if all given tasks finished, {@code false} if not.
+     *
+     * @param   tasks
+     *          Tasks to check
+     * @return  {@code true} if all tasks finished, {@code false} if not
+     */
+    private boolean allDone(@NotNull List<PlaceholderRefreshTask> tasks) {
+        for (PlaceholderRefreshTask task : tasks) {
+            if (!task.isDone()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Requests shard of given task and measures how long it took. If this was the
+     * last shard of the task, waiting thread is notified or if the task is late,
+     * its results are processed on their own. Errors are logged instead of being
+     * passed to the uncaught exception handler of the worker thread.
+     *
+     * @param   task
+     *          Task to request shard of
+     * @param   shard
+     *          Shard index
+     */
+    private void runShard(@NotNull PlaceholderRefreshTask task, int shard) {
+        long time = System.nanoTime();
+        long bytes = cpu.getAllocatedBytes();
+        try {
+            task.request(shard);
+        } catch (Throwable t) {
+            errorHandler.accept(t);
+        } finally {
+            cpu.addPlaceholderAllocations(cpu.getAllocatedBytes() - bytes);
+            cpu.addTime(featureName, CpuUsageCategory.PLACEHOLDER_REQUEST, System.nanoTime() - time);
+            if (task.completeShard()) onFinish(task);
+        }
+    }
+
+    /**
+     * Notifies waiting thread that given task finished or if the task is late,
+     * processes its results on their own.
+     *
+     * @param   task
+     *          Task which finished
+     */
+    private void onFinish(@NotNull PlaceholderRefreshTask task) {
+        if (task.markDone()) {
+            Thread waiting = waitingThread;
+            if (waiting != null) LockSupport.unpark(waiting);
+        } else {
+            resultProcessor.accept(Collections.singletonList(task));
+        }
+    }
+}
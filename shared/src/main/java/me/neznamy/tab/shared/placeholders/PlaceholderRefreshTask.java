@@ -1,83 +1,360 @@
 package me.neznamy.tab.shared.placeholders;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import me.neznamy.tab.api.placeholder.Placeholder;
-import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
 import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
 import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
 
 /**
- * A class that refreshes all requested placeholders using given refresh
- * function and returns the results.
+ * A reusable task refreshing a single placeholder and storing the results.
+ * Results are stored in arrays indexed by player slot (see {@link TabPlayer#getSlot()}),
+ * which are only reallocated when more players join, so refreshing does not
+ * allocate any memory in steady state. Slots are captured when the task is started,
+ * so players leaving during the refresh do not affect worker threads. A task is owned
+ * by a single refresh cycle from {@link #start(TabPlayer[])} until {@link #finish()}
+ * is called after processing results.
  */
-@RequiredArgsConstructor
-@Getter
-public class PlaceholderRefreshTask implements Runnable {
+public class PlaceholderRefreshTask {
 
-    /** Placeholders that should be refreshed in this loop */
-    private final Collection<Placeholder> placeholdersToRefresh;
+    /** State of a task which is still requesting values */
+    private static final int RUNNING = 0;
 
-    /** Map of server placeholder results */
-    private final Map<ServerPlaceholderImpl, Object> serverPlaceholderResults = new HashMap<>();
+    /** State of a task which finished requesting values in time */
+    private static final int DONE = 1;
 
-    /** Map of player placeholder results */
-    private final Map<PlayerPlaceholderImpl, Map<TabPlayer, Object>> playerPlaceholderResults = new HashMap<>();
+    /** State of a task which did not finish in time and will process results on its own */
+    private static final int LATE = 2;
 
-    /** Map of relational placeholder results */
-    @Nullable
-    private Map<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, Object>>> relationalPlaceholderResults;
+    /**
+     * Minimum amount of players in a shard, so placeholders are not spread
+     * over more workers than it is worth and other placeholders have free workers
+     */
+    private static final int MIN_PLAYERS_PER_SHARD = 32;
+
+    /** Placeholder this task refreshes */
+    @Getter @NotNull private final TabPlaceholder placeholder;
+
+    /** Runnable requesting each shard, created once to avoid allocations */
+    @NotNull private final Runnable[] shards;
+
+    /** Amount of shards used in current refresh */
+    @Getter private int activeShards;
+
+    /** Amount of shards which did not finish yet */
+    private final AtomicInteger remainingShards = new AtomicInteger();
+
+    /** Current state of the task */
+    private final AtomicInteger state = new AtomicInteger();
+
+    /** Flag tracking whether this task is being refreshed or waiting for results to be processed */
+    @Getter private volatile boolean inProgress;
+
+    /** Players to request values for, relational placeholders use them as both viewers and targets */
+    @Getter @NotNull private TabPlayer[] players = new TabPlayer[0];
+
+    /** Slots of {@link #players} when the task was started */
+    @NotNull private int[] slots = new int[0];
+
+    /** Server placeholder result */
+    @Getter @Nullable private Object serverResult;
+
+    /** Player placeholder results indexed by player slot */
+    @NotNull private Object[] playerResults = new Object[0];
+
+    /** Relational placeholder results indexed by viewer slot and target slot */
+    @NotNull private Object[][] relationalResults = new Object[0][];
+
+    /** Time it took the placeholder to retrieve values (in nanoseconds) */
+    private final AtomicLong usedTime = new AtomicLong();
+
+    /**
+     * Whether relational placeholder should only re-evaluate invalidated pairs
+     * and keep last known values of all other pairs
+     */
+    private final boolean incrementalRelational;
+
+    /** Slots of players whose all pairs are re-evaluated in current incremental refresh */
+    @NotNull private final BitSet invalidatedPlayers = new BitSet();
 
-    /** Time it took placeholders to retrieve value (in nanoseconds) */
-    private final Map<String, Long> usedTime = new HashMap<>();
+    /** Pairs re-evaluated in current incremental refresh, indexed by viewer slot containing target slots */
+    @NotNull private BitSet[] invalidatedPairs = new BitSet[0];
 
-    @Override
-    public void run() {
-        TabPlayer[] players = TAB.getInstance().getOnlinePlayers();
-        for (Placeholder placeholder : placeholdersToRefresh) {
-            long nanoTime = 0;
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   placeholder
+     *          Placeholder to refresh
+     * @param   shardCount
+     *          Maximum amount of shards to split the request into
+     * @param   shardRunner
+     *          Function running shard with given index of this task
+     * @param   incrementalRelational
+     *          Whether relational placeholder should only re-evaluate invalidated pairs
+     */
+    public PlaceholderRefreshTask(@NotNull TabPlaceholder placeholder, int shardCount,
+                                  @NotNull ObjIntConsumer<PlaceholderRefreshTask> shardRunner, boolean incrementalRelational) {
+        this.placeholder = placeholder;
+        this.incrementalRelational = incrementalRelational;
+        shards = new Runnable[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            shards[i] = () -> shardRunner.accept(this, shard);
+        }
+    }
+
+    /**
+     * Marks the task as in progress, captures slots of given players and prepares result
+     * buffers for them. Must be called from the main thread. Players without a slot are
+     * not expected, as players are removed from online players before their slot is reset.
+     * Returns {@code false} if the task
+     * is still in progress from a previous refresh or there is nothing to refresh
+     * in incremental relational refresh.
+     *
+     * @param   players
+     *          Online players
+     * @return  {@code true} if task was started, {@code false} if it is in progress or has nothing to refresh
+     */
+    public boolean start(@NotNull TabPlayer[] players) {
+        if (inProgress) return false;
+        if (incrementalRelational && placeholder instanceof RelationalPlaceholderImpl) {
+            invalidatedPairs = ((RelationalPlaceholderImpl) placeholder).drainInvalidations(invalidatedPlayers, invalidatedPairs);
+            if (invalidatedPlayers.isEmpty() && !hasInvalidatedPairs()) return false;
+        }
+        inProgress = true;
+        this.players = players;
+        if (slots.length < players.length) slots = new int[players.length];
+        int capacity = 0;
+        for (int i = 0; i < players.length; i++) {
+            slots[i] = players[i].getSlot();
+            capacity = Math.max(capacity, slots[i] + 1);
+        }
+        if (placeholder instanceof PlayerPlaceholderImpl && playerResults.length < capacity) {
+            playerResults = new Object[capacity];
+        }
+        if (placeholder instanceof RelationalPlaceholderImpl) {
+            if (relationalResults.length < capacity) {
+                Object[][] newResults = new Object[capacity][];
+                System.arraycopy(relationalResults, 0, newResults, 0, relationalResults.length);
+                relationalResults = newResults;
+            }
+            for (int i = 0; i < players.length; i++) {
+                Object[] row = relationalResults[slots[i]];
+                if (row == null || row.length < capacity) relationalResults[slots[i]] = new Object[capacity];
+            }
+        }
+        if (placeholder instanceof ServerPlaceholderImpl) {
+            activeShards = 1;
+        } else {
+            activeShards = Math.max(1, Math.min(shards.length, (players.length + MIN_PLAYERS_PER_SHARD - 1) / MIN_PLAYERS_PER_SHARD));
+        }
+        remainingShards.set(activeShards);
+        state.set(RUNNING);
+        return true;
+    }
+
+    /**
+     * Returns runnable requesting shard with given index.
+     *
+     * @param   shard
+     *          Shard index
+     * @return  Runnable requesting the shard
+     */
+    @NotNull
+    public Runnable getShard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * Requests values of shard with given index. The shard must then be marked
+     * as finished using {@link #completeShard()}, even if this method threw an exception,
+     * in which case results of the shard are cleared.
+     *
+     * @param   shard
+     *          Shard index
+     */
+    public void request(int shard) {
+        long nanoTime = 0;
+        boolean completed = false;
+        try {
             if (placeholder instanceof ServerPlaceholderImpl) {
-                ServerPlaceholderImpl serverPlaceholder = (ServerPlaceholderImpl) placeholder;
                 long startTime = System.nanoTime();
-                Object result = serverPlaceholder.request();
+                serverResult = ((ServerPlaceholderImpl) placeholder).request();
                 nanoTime += System.nanoTime()-startTime;
-                serverPlaceholderResults.put(serverPlaceholder, result);
-            }
-            if (placeholder instanceof PlayerPlaceholderImpl) {
-                PlayerPlaceholderImpl playerPlaceholder = (PlayerPlaceholderImpl) placeholder;
-                Map<TabPlayer, Object> playerResults = new HashMap<>();
-                for (TabPlayer player : players) {
-                    long startTime = System.nanoTime();
-                    Object result = playerPlaceholder.request(player);
-                    nanoTime += System.nanoTime()-startTime;
-                    playerResults.put(player, result);
-                }
-                playerPlaceholderResults.put(playerPlaceholder, playerResults);
-            }
-            if (placeholder instanceof RelationalPlaceholderImpl) {
-                RelationalPlaceholderImpl relationalPlaceholder = (RelationalPlaceholderImpl) placeholder;
-                Map<TabPlayer, Map<TabPlayer, Object>> viewerMap = new HashMap<>();
-                for (TabPlayer viewer : players) {
-                    Map<TabPlayer, Object> targetMap = new HashMap<>();
-                    for (TabPlayer target : players) {
+            } else {
+                int shardSize = (players.length + activeShards - 1) / activeShards;
+                int from = shard * shardSize;
+                int to = Math.min(from + shardSize, players.length);
+                if (placeholder instanceof PlayerPlaceholderImpl) {
+                    PlayerPlaceholderImpl playerPlaceholder = (PlayerPlaceholderImpl) placeholder;
+                    for (int i = from; i < to; i++) {
                         long startTime = System.nanoTime();
-                        Object result = relationalPlaceholder.request(viewer, target);
+                        Object result = playerPlaceholder.request(players[i]);
                         nanoTime += System.nanoTime()-startTime;
-                        targetMap.put(target, result);
+                        playerResults[slots[i]] = result;
+                    }
+                }
+                if (placeholder instanceof RelationalPlaceholderImpl) {
+                    RelationalPlaceholderImpl relationalPlaceholder = (RelationalPlaceholderImpl) placeholder;
+                    for (int i = from; i < to; i++) {
+                        Object[] row = relationalResults[slots[i]];
+                        for (int j = 0; j < players.length; j++) {
+                            if (!isRequested(i, j)) {
+                                row[slots[j]] = null; // Keep last known value
+                                continue;
+                            }
+                            long startTime = System.nanoTime();
+                            Object result = relationalPlaceholder.request(players[i], players[j]);
+                            nanoTime += System.nanoTime()-startTime;
+                            row[slots[j]] = result;
+                        }
                     }
-                    viewerMap.put(viewer, targetMap);
                 }
-                if (relationalPlaceholderResults == null) relationalPlaceholderResults = new HashMap<>();
-                relationalPlaceholderResults.put(relationalPlaceholder, viewerMap);
             }
-            usedTime.put(placeholder.getIdentifier(), nanoTime);
+            completed = true;
+        } finally {
+            if (!completed) clearResults(shard);
+            usedTime.addAndGet(nanoTime);
+        }
+    }
+
+    /**
+     * Clears results of players in given shard, so results from previous refresh
+     * are not processed again if the shard failed. Server placeholder result is kept,
+     * because it is equal to the last known value.
+     *
+     * @param   shard
+     *          Shard index
+     */
+    private void clearResults(int shard) {
+        int shardSize = (players.length + activeShards - 1) / activeShards;
+        int to = Math.min(shard * shardSize + shardSize, players.length);
+        for (int i = shard * shardSize; i < to; i++) {
+            if (placeholder instanceof PlayerPlaceholderImpl) playerResults[slots[i]] = null;
+            if (placeholder instanceof RelationalPlaceholderImpl) Arrays.fill(relationalResults[slots[i]], null);
+        }
+    }
+
+    /**
+     * Marks shard as finished and returns {@code true} if this was the last shard to finish.
+     * Must be called exactly once for every active shard, including shards which failed
+     * or were never run, otherwise the task never finishes and is not refreshed again.
+     *
+     * @return  {@code true} if all shards are now finished, {@code false} if not
+     */
+    public boolean completeShard() {
+        return remainingShards.decrementAndGet() == 0;
+    }
+
+    /**
+     * Marks the task as finished in time. Returns {@code false} if it was
+     * already marked as late, meaning results should be processed on their own.
+     *
+     * @return  {@code true} if task finished in time, {@code false} if it is late
+     */
+    public boolean markDone() {
+        return state.compareAndSet(RUNNING, DONE);
+    }
+
+    /**
+     * Marks the task as late. Returns {@code false} if it has already finished,
+     * meaning results can be processed together with other placeholders.
+     *
+     * @return  {@code true} if task is now late, {@code false} if it already finished
+     */
+    public boolean markLate() {
+        return state.compareAndSet(RUNNING, LATE);
+    }
+
+    /**
+     * Returns {@code true} if all shards finished requesting values, {@code false} if not.
+     *
+     * @return  {@code true} if all shards are finished, {@code false} if not
+     */
+    public boolean isDone() {
+        return remainingShards.get() == 0;
+    }
+
+    /**
+     * Returns result of player placeholder for player at given index in {@link #players}.
+     *
+     * @param   player
+     *          Index of player to get result of
+     * @return  Result of player placeholder for given player
+     */
+    @Nullable
+    public Object getPlayerResult(int player) {
+        return playerResults[slots[player]];
+    }
+
+    /**
+     * Returns result of relational placeholder for players at given indexes in {@link #players}.
+     *
+     * @param   viewer
+     *          Index of viewer of the placeholder
+     * @param   target
+     *          Index of target of the placeholder
+     * @return  Result of relational placeholder for given players
+     */
+    @Nullable
+    public Object getRelationalResult(int viewer, int target) {
+        return relationalResults[slots[viewer]][slots[target]];
+    }
+
+    /**
+     * Returns {@code true} if value of relational placeholder is requested for players
+     * at given indexes in {@link #players} in current refresh, {@code false} if last known value is kept.
+     *
+     * @param   viewer
+     *          Index of viewer of the placeholder
+     * @param   target
+     *          Index of target of the placeholder
+     * @return  {@code true} if value is requested for given pair, {@code false} if not
+     */
+    public boolean isRequested(int viewer, int target) {
+        if (!incrementalRelational) return true;
+        int viewerSlot = slots[viewer];
+        int targetSlot = slots[target];
+        if (invalidatedPlayers.get(viewerSlot) || invalidatedPlayers.get(targetSlot)) return true;
+        return viewerSlot < invalidatedPairs.length && invalidatedPairs[viewerSlot] != null && invalidatedPairs[viewerSlot].get(targetSlot);
+    }
+
+    /**
+     * Returns {@code true} if there is at least one invalidated pair, {@code false} if not.
+     *
+     * @return  {@code true} if there is at least one invalidated pair, {@code false} if not
+     */
+    private boolean hasInvalidatedPairs() {
+        for (BitSet targets : invalidatedPairs) {
+            if (targets != null && !targets.isEmpty()) return true;
         }
+        return false;
+    }
+
+    /**
+     * Returns time the placeholder took to retrieve values since last call
+     * of this method (in nanoseconds).
+     *
+     * @return  Time the placeholder took to retrieve values
+     */
+    public long takeUsedTime() {
+        return usedTime.getAndSet(0);
+    }
+
+    /**
+     * Marks results as processed, allowing the task to be started again.
+     * Must be called from the main thread.
+     */
+    public void finish() {
+        inProgress = false;
     }
 }
@@ -4,9 +4,11 @@ import java.util.*;
 import java.util.Map.Entry;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.shared.TAB;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Placeholder replacement pattern class for placeholder output replacements
@@ -17,18 +19,29 @@ public class PlaceholderReplacementPattern {
     /** Instance for empty map to only have a single instance */
     private static final PlaceholderReplacementPattern EMPTY = new PlaceholderReplacementPattern("", Collections.emptyMap());
 
+    /** Placeholder for original output inside replacements */
+    private static final String VALUE = "%value%";
+
     /**
      * Full replacement map with values colored and keys being duplicated,
      * once with and once without colors
      */
-    private final Map<String, String> replacements = new HashMap<>();
+    private final Map<String, Template> replacements = new HashMap<>();
 
-    /**
-     * Map of number intervals where key is a 2-dimensional array
-     * with first value being minimum and second value maximum and value
-     * being output to replace to.
-     */
-    private final Map<float[], String> numberIntervals = new HashMap<>();
+    /** Minimums of number intervals, sorted and not overlapping */
+    private final float[] intervalMinimums;
+
+    /** Maximums of number intervals, matching {@link #intervalMinimums} */
+    private final float[] intervalMaximums;
+
+    /** Outputs of number intervals, matching {@link #intervalMinimums} */
+    private final Template[] intervalOutputs;
+
+    /** Output used if nothing else matches, {@code null} if not configured */
+    @Nullable private final Template elseOutput;
+
+    /** Recently matched outputs and their replacements, {@code null} if disabled */
+    @Nullable private final Memo[] memo;
 
     /** Set of all used placeholders in replacement values */
     @Getter private final Set<String> nestedPlaceholders = new HashSet<>();
@@ -46,29 +59,103 @@ public class PlaceholderReplacementPattern {
      */
     private PlaceholderReplacementPattern(@NotNull String identifier, @NotNull Map<Object, Object> map) {
         empty = map.isEmpty();
+        List<float[]> intervals = new ArrayList<>();
+        List<Template> intervalValues = new ArrayList<>();
         for (Entry<Object, Object> entry : map.entrySet()) {
             String key = String.valueOf(entry.getKey());
-            String value = String.valueOf(entry.getValue()).replace(identifier, "%value%");
-            replacements.put(EnumChatFormat.color(key), EnumChatFormat.color(value));
-            replacements.put(key, EnumChatFormat.color(value));
+            String value = String.valueOf(entry.getValue()).replace(identifier, VALUE);
+            Template colored = new Template(EnumChatFormat.color(value));
+            replacements.put(EnumChatFormat.color(key), colored);
+            replacements.put(key, colored);
             nestedPlaceholders.addAll(TAB.getInstance().getPlaceholderManager().detectPlaceholders(value));
-            nestedPlaceholders.remove("%value%"); //not a real placeholder
+            nestedPlaceholders.remove(VALUE); //not a real placeholder
             //snakeyaml converts yes & no to booleans, making them not work when used without "
             if ("true".equals(key)) {
-                replacements.put("yes", value);
-                replacements.put("Yes", value);
+                replacements.put("yes", new Template(value));
+                replacements.put("Yes", new Template(value));
             } else if ("false".equals(key)) {
-                replacements.put("no", value);
-                replacements.put("No", value);
+                replacements.put("no", new Template(value));
+                replacements.put("No", new Template(value));
             } else if (key.contains("-")) {
                 try {
-                    numberIntervals.put(new float[]{Float.parseFloat(key.split("-")[0]), Float.parseFloat(key.split("-")[1])}, value);
+                    intervals.add(new float[]{Float.parseFloat(key.split("-")[0]), Float.parseFloat(key.split("-")[1])});
+                    intervalValues.add(new Template(value));
                 } catch (NumberFormatException ignored) {}
                 try {
-                    numberIntervals.put(new float[]{Float.parseFloat(key.split("~")[0]), Float.parseFloat(key.split("~")[1])}, value);
+                    intervals.add(new float[]{Float.parseFloat(key.split("~")[0]), Float.parseFloat(key.split("~")[1])});
+                    intervalValues.add(new Template(value));
                 } catch (NumberFormatException ignored) {}
             }
         }
+        TreeMap<Float, Interval> compiled = compileIntervals(intervals, intervalValues);
+        intervalMinimums = new float[compiled.size()];
+        intervalMaximums = new float[compiled.size()];
+        intervalOutputs = new Template[compiled.size()];
+        int index = 0;
+        for (Interval interval : compiled.values()) {
+            intervalMinimums[index] = interval.min;
+            intervalMaximums[index] = interval.max;
+            intervalOutputs[index] = interval.output;
+            index++;
+        }
+        elseOutput = replacements.get("else");
+        memo = intervalOutputs.length > 0 ? createMemo() : null;
+    }
+
+    /**
+     * Compiles configured intervals into non-overlapping intervals sorted by minimum.
+     * Where configured intervals overlap, the one configured first is used.
+     *
+     * @param   intervals
+     *          Configured intervals as arrays of minimum and maximum, in order of configuration
+     * @param   outputs
+     *          Outputs of configured intervals
+     * @return  Non-overlapping intervals by their minimum
+     */
+    @NotNull
+    private static TreeMap<Float, Interval> compileIntervals(@NotNull List<float[]> intervals, @NotNull List<Template> outputs) {
+        TreeMap<Float, Interval> compiled = new TreeMap<>();
+        for (int i = 0; i < intervals.size(); i++) {
+            float min = normalize(intervals.get(i)[0]);
+            float max = normalize(intervals.get(i)[1]);
+            if (!(min <= max)) continue; // Never matched anything
+            float from = min;
+            Entry<Float, Interval> lower = compiled.floorEntry(min);
+            if (lower != null && lower.getValue().max >= from) from = Math.nextUp(lower.getValue().max);
+            List<Interval> gaps = new ArrayList<>();
+            for (Interval existing : compiled.subMap(min, false, max, true).values()) {
+                if (existing.min > from) gaps.add(new Interval(from, Math.nextDown(existing.min), outputs.get(i)));
+                from = Math.max(from, Math.nextUp(existing.max));
+            }
+            if (from <= max) gaps.add(new Interval(from, max, outputs.get(i)));
+            for (Interval gap : gaps) {
+                compiled.put(gap.min, gap);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Creates memo with size configured in config rounded up to a power of 2.
+     *
+     * @return  Created memo or {@code null} if disabled
+     */
+    @Nullable
+    private static Memo[] createMemo() {
+        int size = TAB.getInstance().getConfiguration().getConfig().getInt("placeholders.replacement-cache-size", 0);
+        if (size <= 0) return null;
+        return new Memo[size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1];
+    }
+
+    /**
+     * Converts negative zero to zero, so both compare the same way when searching intervals.
+     *
+     * @param   value
+     *          Value to normalize
+     * @return  Normalized value
+     */
+    private static float normalize(float value) {
+        return value == 0 ? 0 : value;
     }
 
     /**
@@ -82,16 +169,20 @@ public class PlaceholderReplacementPattern {
     @NotNull
     public String findReplacement(@NotNull String output) {
         if (empty) return output;
+        Template exact = replacements.get(output);
+        if (exact != null) return exact.apply(output);
+        if (memo == null) return findReplacement0(output);
+        int index = output.hashCode() & (memo.length - 1);
+        Memo cached = memo[index];
+        if (cached != null && cached.output.equals(output)) return cached.replacement;
         String replacement = findReplacement0(output);
-        if (replacement.contains("%value%")) {
-            replacement = replacement.replace("%value%", output);
-        }
+        memo[index] = new Memo(output, replacement);
         return replacement;
     }
 
     /**
-     * Internal method that returns value based on provided
-     * placeholder output and configured replacements.
+     * Internal method that returns value based on configured number
+     * intervals and else value, ignoring exact outputs.
      *
      * @param   output
      *          placeholder's output
@@ -99,28 +190,23 @@ public class PlaceholderReplacementPattern {
      */
     @NotNull
     private String findReplacement0(@NotNull String output) {
-        //exact output
-        if (replacements.containsKey(output)) {
-            return replacements.get(output);
-        }
-        
         //number interval
-        if (!numberIntervals.isEmpty()) {  //not parsing number if no intervals are configured
+        if (intervalOutputs.length > 0) {  //not parsing number if no intervals are configured
             try {
                 //supporting placeholders with fancy output using "," every 3 digits
-                String cleanValue = output.contains(",") ? output.replace(",", "") : output;
-                float value = Float.parseFloat(cleanValue);
-                for (Entry<float[], String> entry : numberIntervals.entrySet()) {
-                    if (entry.getKey()[0] <= value && value <= entry.getKey()[1]) return entry.getValue();
-                }
+                String cleanValue = output.indexOf(',') != -1 ? output.replace(",", "") : output;
+                float value = normalize(Float.parseFloat(cleanValue));
+                int index = Arrays.binarySearch(intervalMinimums, value);
+                if (index < 0) index = -index - 2; // Last interval starting below the value
+                if (index >= 0 && value <= intervalMaximums[index]) return intervalOutputs[index].apply(output);
             } catch (NumberFormatException e) {
                 //placeholder output is not a number
             }
         }
 
         //else
-        if (replacements.containsKey("else")) return replacements.get("else");
-        
+        if (elseOutput != null) return elseOutput.apply(output);
+
         //nothing was found
         return output;
     }
@@ -138,4 +224,78 @@ public class PlaceholderReplacementPattern {
         if (map.isEmpty()) return EMPTY;
         return new PlaceholderReplacementPattern(identifier, map);
     }
-}
\ No newline at end of file
+
+    /**
+     * Replacement output split around %value%, so it does not need to be searched for on every use.
+     */
+    private static class Template {
+
+        /** Parts of the output between occurrences of %value% */
+        private final String[] parts;
+
+        /**
+         * Constructs new instance and splits the output.
+         *
+         * @param   output
+         *          Configured replacement output
+         */
+        private Template(@NotNull String output) {
+            List<String> parts = new ArrayList<>();
+            int start = 0;
+            int index;
+            while ((index = output.indexOf(VALUE, start)) != -1) {
+                parts.add(output.substring(start, index));
+                start = index + VALUE.length();
+            }
+            parts.add(output.substring(start));
+            this.parts = parts.toArray(new String[0]);
+        }
+
+        /**
+         * Returns the output with %value% replaced with given placeholder output.
+         *
+         * @param   value
+         *          Original placeholder output
+         * @return  Final replacement
+         */
+        @NotNull
+        private String apply(@NotNull String value) {
+            if (parts.length == 1) return parts[0];
+            StringBuilder builder = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                builder.append(value).append(parts[i]);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Number interval with its output.
+     */
+    @RequiredArgsConstructor
+    private static class Interval {
+
+        /** Minimum value, inclusive */
+        private final float min;
+
+        /** Maximum value, inclusive */
+        private final float max;
+
+        /** Output of the interval */
+        @NotNull private final Template output;
+    }
+
+    /**
+     * Placeholder output with its replacement, immutable so it can be
+     * published without synchronization.
+     */
+    @RequiredArgsConstructor
+    private static class Memo {
+
+        /** Placeholder output */
+        @NotNull private final String output;
+
+        /** Replacement of the output */
+        @NotNull private final String replacement;
+    }
+}
@@ -0,0 +1,400 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Storage of last known placeholder values, organized into columns by placeholder
+ * ordinal (see {@link TabPlaceholder#getOrdinal()}), each indexed by player slot
+ * (see {@link TabPlayer#getSlot()}). Reads are lock-free, writes to a column
+ * are serialized on the column. Values are not weakly referenced, they must be
+ * removed explicitly using {@link #removePlayer(TabPlayer)} when player leaves.
+ * Every slot remembers the player it belongs to. Reads and writes for players without
+ * a slot or with a slot which is no longer theirs return {@code null} and are ignored.
+ */
+public class PlaceholderValueStore {
+
+    /** Columns by placeholder ordinal, {@code null} for ordinals without a column */
+    @NotNull private volatile Column[] columns = new Column[0];
+
+    /** Players by the slot they were given, {@code null} for free slots */
+    @NotNull private volatile AtomicReferenceArray<TabPlayer> owners = new AtomicReferenceArray<>(0);
+
+    /**
+     * Creates column for player placeholder.
+     *
+     * @param   placeholder
+     *          Placeholder to create column for
+     * @return  Created column
+     */
+    @NotNull
+    public PlayerColumn createPlayerColumn(@NotNull TabPlaceholder placeholder) {
+        return addColumn(placeholder, new PlayerColumn(placeholder.getIdentifier()));
+    }
+
+    /**
+     * Creates column for relational placeholder.
+     *
+     * @param   placeholder
+     *          Placeholder to create column for
+     * @return  Created column
+     */
+    @NotNull
+    public RelationalColumn createRelationalColumn(@NotNull TabPlaceholder placeholder) {
+        return addColumn(placeholder, new RelationalColumn(placeholder.getIdentifier()));
+    }
+
+    @NotNull
+    private synchronized <T extends Column> T addColumn(@NotNull TabPlaceholder placeholder, @NotNull T column) {
+        Column[] columns = this.columns;
+        if (placeholder.getOrdinal() >= columns.length) {
+            columns = Arrays.copyOf(columns, Math.max(placeholder.getOrdinal() + 1, columns.length * 2));
+        } else {
+            columns = columns.clone();
+        }
+        columns[placeholder.getOrdinal()] = column;
+        this.columns = columns;
+        return column;
+    }
+
+    /**
+     * Gives player's slot to the player. Values left in the slot are removed first,
+     * so the player never sees values of previous owner of the slot.
+     *
+     * @param   player
+     *          Player who was given a slot
+     */
+    public void addPlayer(@NotNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot == -1) return;
+        clearSlot(slot);
+        synchronized (this) {
+            owners = grow(owners, slot);
+            owners.set(slot, player);
+        }
+    }
+
+    /**
+     * Releases player's slot and removes all values of player from all columns.
+     * Values written for the player after this call are ignored.
+     *
+     * @param   player
+     *          Player who left
+     */
+    public void removePlayer(@NotNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot == -1) return;
+        synchronized (this) {
+            if (!owners.compareAndSet(slot, player, null)) return;
+        }
+        clearSlot(slot);
+    }
+
+    /**
+     * Removes all values stored in given slot.
+     *
+     * @param   slot
+     *          Slot to clear
+     */
+    private void clearSlot(int slot) {
+        for (Column column : columns) {
+            if (column != null) column.clear(slot);
+        }
+    }
+
+    /**
+     * Returns {@code true} if player has a slot and the slot belongs to them.
+     *
+     * @param   player
+     *          Player to check
+     * @param   slot
+     *          Slot of the player
+     * @return  {@code true} if slot belongs to player, {@code false} if not
+     */
+    private boolean isOwner(@NotNull TabPlayer player, int slot) {
+        AtomicReferenceArray<TabPlayer> owners = this.owners;
+        return slot != -1 && slot < owners.length() && owners.get(slot) == player;
+    }
+
+    /**
+     * Returns approximate memory used by stored values of each placeholder,
+     * sorted from highest. Placeholders without any stored values are not included.
+     *
+     * @return  Map of placeholder identifiers and approximate amount of bytes
+     */
+    @NotNull
+    public Map<String, Long> getMemoryUsage() {
+        List<Column> list = new ArrayList<>();
+        Map<Column, Long> usage = new HashMap<>();
+        for (Column column : columns) {
+            if (column == null) continue;
+            long bytes = column.estimateMemory();
+            if (bytes == 0) continue;
+            list.add(column);
+            usage.put(column, bytes);
+        }
+        list.sort(Comparator.comparingLong(usage::get).reversed());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Column column : list) {
+            result.put(column.getIdentifier(), usage.get(column));
+        }
+        return result;
+    }
+
+    /**
+     * Returns approximate size of an array of references.
+     *
+     * @param   array
+     *          Array to get size of
+     * @return  Approximate size of the array in bytes
+     */
+    private static long estimateArray(@NotNull AtomicReferenceArray<?> array) {
+        return 16 + 4L * array.length();
+    }
+
+    /**
+     * Returns approximate size of a string. Compact strings are ignored, making this an upper estimate.
+     *
+     * @param   value
+     *          String to get size of
+     * @return  Approximate size of the string in bytes
+     */
+    private static long estimateString(@NotNull String value) {
+        return 40 + 2L * value.length();
+    }
+
+    /**
+     * Returns given array if it can hold given index, otherwise returns a larger copy.
+     *
+     * @param   array
+     *          Array to grow
+     * @param   index
+     *          Index which must fit into the array
+     * @return  Array which can hold given index
+     * @param   <T>
+     *          Element type
+     */
+    @NotNull
+    private static <T> AtomicReferenceArray<T> grow(@NotNull AtomicReferenceArray<T> array, int index) {
+        if (index < array.length()) return array;
+        AtomicReferenceArray<T> copy = new AtomicReferenceArray<>(Math.max(index + 1, array.length() * 2));
+        for (int i = 0; i < array.length(); i++) {
+            copy.set(i, array.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Values of a single placeholder.
+     */
+    @RequiredArgsConstructor
+    private abstract class Column {
+
+        /** Identifier of the placeholder */
+        @Getter @NotNull private final String identifier;
+
+        /**
+         * Removes all values stored in given slot.
+         *
+         * @param   slot
+         *          Slot to clear
+         */
+        protected abstract void clear(int slot);
+
+        /**
+         * Returns approximate memory used by this column.
+         *
+         * @return  Approximate memory in bytes, {@code 0} if no values are stored
+         */
+        protected abstract long estimateMemory();
+    }
+
+    /**
+     * Values of a player placeholder indexed by player slot. Next to final values,
+     * the column also keeps raw values returned by the placeholder before they were processed.
+     */
+    public class PlayerColumn extends Column {
+
+        /** Values by player slot */
+        @NotNull private volatile AtomicReferenceArray<String> values = new AtomicReferenceArray<>(0);
+
+        /** Raw values by player slot */
+        @NotNull private volatile AtomicReferenceArray<String> rawValues = new AtomicReferenceArray<>(0);
+
+        private PlayerColumn(@NotNull String identifier) {
+            super(identifier);
+        }
+
+        /**
+         * Returns last known value of player.
+         *
+         * @param   player
+         *          Player to get value of
+         * @return  Last known value or {@code null} if not present
+         */
+        @Nullable
+        public String get(@NotNull TabPlayer player) {
+            int slot = player.getSlot();
+            AtomicReferenceArray<String> values = this.values;
+            if (slot == -1 || slot >= values.length()) return null;
+            String value = values.get(slot);
+            return isOwner(player, slot) ? value : null;
+        }
+
+        /**
+         * Sets last known value of player.
+         *
+         * @param   player
+         *          Player to set value of
+         * @param   value
+         *          New value
+         */
+        public synchronized void set(@NotNull TabPlayer player, @NotNull String value) {
+            int slot = player.getSlot();
+            if (!isOwner(player, slot)) return;
+            values = grow(values, slot);
+            values.set(slot, value);
+        }
+
+        /**
+         * Returns last raw value of player.
+         *
+         * @param   player
+         *          Player to get raw value of
+         * @return  Last raw value or {@code null} if not present
+         */
+        @Nullable
+        public String getRaw(@NotNull TabPlayer player) {
+            int slot = player.getSlot();
+            AtomicReferenceArray<String> rawValues = this.rawValues;
+            if (slot == -1 || slot >= rawValues.length()) return null;
+            String rawValue = rawValues.get(slot);
+            return isOwner(player, slot) ? rawValue : null;
+        }
+
+        /**
+         * Sets last raw value of player.
+         *
+         * @param   player
+         *          Player to set raw value of
+         * @param   rawValue
+         *          New raw value
+         */
+        public synchronized void setRaw(@NotNull TabPlayer player, @NotNull String rawValue) {
+            int slot = player.getSlot();
+            if (!isOwner(player, slot)) return;
+            rawValues = grow(rawValues, slot);
+            rawValues.set(slot, rawValue);
+        }
+
+        @Override
+        protected synchronized void clear(int slot) {
+            if (slot < values.length()) values.set(slot, null);
+            if (slot < rawValues.length()) rawValues.set(slot, null);
+        }
+
+        @Override
+        protected long estimateMemory() {
+            AtomicReferenceArray<String> values = this.values;
+            AtomicReferenceArray<String> rawValues = this.rawValues;
+            long bytes = 0;
+            for (int i = 0; i < values.length(); i++) {
+                String value = values.get(i);
+                if (value != null) bytes += estimateString(value);
+            }
+            for (int i = 0; i < rawValues.length(); i++) {
+                String rawValue = rawValues.get(i);
+                if (rawValue != null && (i >= values.length() || rawValue != values.get(i))) bytes += estimateString(rawValue);
+            }
+            return bytes == 0 ? 0 : bytes + estimateArray(values) + estimateArray(rawValues);
+        }
+    }
+
+    /**
+     * Values of a relational placeholder indexed by viewer slot and target slot.
+     */
+    public class RelationalColumn extends Column {
+
+        /** Rows of values by viewer slot, each indexed by target slot */
+        @NotNull private volatile AtomicReferenceArray<AtomicReferenceArray<String>> rows = new AtomicReferenceArray<>(0);
+
+        private RelationalColumn(@NotNull String identifier) {
+            super(identifier);
+        }
+
+        /**
+         * Returns last known value for given players.
+         *
+         * @param   viewer
+         *          Player viewing the placeholder
+         * @param   target
+         *          Player the placeholder is displayed on
+         * @return  Last known value or {@code null} if not present
+         */
+        @Nullable
+        public String get(@NotNull TabPlayer viewer, @NotNull TabPlayer target) {
+            int viewerSlot = viewer.getSlot();
+            int targetSlot = target.getSlot();
+            AtomicReferenceArray<AtomicReferenceArray<String>> rows = this.rows;
+            if (viewerSlot == -1 || targetSlot == -1 || viewerSlot >= rows.length()) return null;
+            AtomicReferenceArray<String> row = rows.get(viewerSlot);
+            if (row == null || targetSlot >= row.length()) return null;
+            String value = row.get(targetSlot);
+            return isOwner(viewer, viewerSlot) && isOwner(target, targetSlot) ? value : null;
+        }
+
+        /**
+         * Sets last known value for given players.
+         *
+         * @param   viewer
+         *          Player viewing the placeholder
+         * @param   target
+         *          Player the placeholder is displayed on
+         * @param   value
+         *          New value
+         */
+        public synchronized void set(@NotNull TabPlayer viewer, @NotNull TabPlayer target, @NotNull String value) {
+            int viewerSlot = viewer.getSlot();
+            int targetSlot = target.getSlot();
+            if (!isOwner(viewer, viewerSlot) || !isOwner(target, targetSlot)) return;
+            rows = grow(rows, viewerSlot);
+            AtomicReferenceArray<String> row = rows.get(viewerSlot);
+            if (row == null) row = new AtomicReferenceArray<>(0);
+            AtomicReferenceArray<String> grown = grow(row, targetSlot);
+            grown.set(targetSlot, value);
+            if (grown != row) rows.set(viewerSlot, grown);
+        }
+
+        @Override
+        protected synchronized void clear(int slot) {
+            if (slot < rows.length()) rows.set(slot, null);
+            for (int i = 0; i < rows.length(); i++) {
+                AtomicReferenceArray<String> row = rows.get(i);
+                if (row != null && slot < row.length()) row.set(slot, null);
+            }
+        }
+
+        @Override
+        protected long estimateMemory() {
+            AtomicReferenceArray<AtomicReferenceArray<String>> rows = this.rows;
+            long bytes = 0;
+            for (int i = 0; i < rows.length(); i++) {
+                AtomicReferenceArray<String> row = rows.get(i);
+                if (row == null) continue;
+                bytes += estimateArray(row);
+                for (int j = 0; j < row.length(); j++) {
+                    String value = row.get(j);
+                    if (value != null) bytes += estimateString(value);
+                }
+            }
+            return bytes == 0 ? 0 : bytes + estimateArray(rows);
+        }
+    }
+}
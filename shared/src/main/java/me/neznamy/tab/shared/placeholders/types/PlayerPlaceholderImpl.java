@@ -5,13 +5,11 @@ import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.placeholders.PlaceholderValueStore;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.function.Function;
 
 /**
@@ -23,7 +21,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
     @NonNull private final Function<me.neznamy.tab.api.TabPlayer, Object> function;
 
     /** Last known values for each online player after applying replacements and nested placeholders */
-    private final Map<TabPlayer, String> lastValues = Collections.synchronizedMap(new WeakHashMap<>());
+    @NotNull private final PlaceholderValueStore.PlayerColumn lastValues;
 
     /**
      * Constructs new instance with given parameters
@@ -40,6 +38,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
         super(identifier, refresh);
         if (identifier.startsWith("%rel_")) throw new IllegalArgumentException("\"rel_\" is reserved for relational placeholder identifiers");
         this.function = function;
+        lastValues = TAB.getInstance().getPlaceholderManager().getValueStore().createPlayerColumn(this);
     }
 
     @Override
@@ -51,7 +50,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
     public void updateValue(@NonNull me.neznamy.tab.api.TabPlayer player, @Nullable Object value) {
         if (hasValueChanged((TabPlayer) player, value)) {
             if (!player.isLoaded()) return; // Updated on join
-            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
+            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(this)) {
                 long startTime = System.nanoTime();
                 r.refresh((TabPlayer) player, false);
                 TAB.getInstance().getCPUManager().addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
@@ -61,6 +60,7 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
 
     /**
      * Updates placeholder value and returns {@code true} if value changed, {@code false} if not.
+     * If the raw value is the same as last time, it is not processed again.
      *
      * @param   p
      *          Player to update value for
@@ -69,12 +69,31 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
      * @return  {@code true} if value changed, {@code false} if not
      */
     public boolean hasValueChanged(@NotNull TabPlayer p, @Nullable Object value) {
+        return hasValueChanged(p, value, false);
+    }
+
+    /**
+     * Updates placeholder value and returns {@code true} if value changed, {@code false} if not.
+     *
+     * @param   p
+     *          Player to update value for
+     * @param   value
+     *          New value
+     * @param   nestedChanged
+     *          {@code true} if a nested placeholder changed, making the raw value
+     *          produce a different result even if it did not change
+     * @return  {@code true} if value changed, {@code false} if not
+     */
+    private boolean hasValueChanged(@NotNull TabPlayer p, @Nullable Object value, boolean nestedChanged) {
         if (value == null) return false; //bridge placeholders, they are updated using updateValue method
         if (ERROR_VALUE.equals(value)) return false;
-        String newValue = replacements.findReplacement(setPlaceholders(String.valueOf(value), p));
+        String rawValue = String.valueOf(value);
+        if (!nestedChanged && rawValue.equals(lastValues.getRaw(p)) && lastValues.get(p) != null) return false;
+        lastValues.setRaw(p, rawValue);
+        String newValue = replacements.findReplacement(setPlaceholders(rawValue, p));
         String lastValue = lastValues.get(p);
         if (lastValue == null || (!identifier.equals(newValue) && !newValue.equals(lastValue))) {
-            lastValues.put(p, newValue);
+            lastValues.set(p, newValue);
             updateParents(p);
             TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(p, identifier, newValue);
             return true;
@@ -84,23 +103,28 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
 
     @Override
     public void updateFromNested(@NonNull TabPlayer player) {
-        hasValueChanged(player, request(player));
+        hasValueChanged(player, request(player), true);
     }
 
     @NotNull
     public String getLastValue(@Nullable TabPlayer p) {
         if (p == null) return identifier;
-        if (!lastValues.containsKey(p)) {
-            lastValues.put(p, replacements.findReplacement(identifier));
+        String value = lastValues.get(p);
+        if (value == null) {
+            value = replacements.findReplacement(identifier);
+            lastValues.set(p, value);
             update(p);
+            String updated = lastValues.get(p);
+            if (updated != null) value = updated;
         }
-        return lastValues.get(p);
+        return value;
     }
 
     @Override
     @NotNull
     public String getLastValueSafe(@NotNull TabPlayer player) {
-        return lastValues.getOrDefault(player, identifier);
+        String value = lastValues.get(player);
+        return value == null ? identifier : value;
     }
 
     /**
@@ -1,13 +1,12 @@
 package me.neznamy.tab.shared.placeholders.types;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.function.BiFunction;
 
 import lombok.NonNull;
 import me.neznamy.tab.shared.features.types.Refreshable;
+import me.neznamy.tab.shared.placeholders.PlaceholderValueStore;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.chat.EnumChatFormat;
 import me.neznamy.tab.api.placeholder.RelationalPlaceholder;
@@ -25,8 +24,13 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     @NonNull private final BiFunction<me.neznamy.tab.api.TabPlayer, me.neznamy.tab.api.TabPlayer, Object> function;
 
     /** Last known values for each online player duo after applying replacements and nested placeholders */
-    @NonNull private final Map<me.neznamy.tab.api.TabPlayer, Map<me.neznamy.tab.api.TabPlayer, String>> lastValues =
-            Collections.synchronizedMap(new WeakHashMap<>());
+    @NotNull private final PlaceholderValueStore.RelationalColumn lastValues;
+
+    /** Slots of players whose pairs should be re-evaluated on next incremental refresh */
+    private final BitSet invalidatedPlayers = new BitSet();
+
+    /** Specific pairs invalidated for next incremental refresh, indexed by viewer slot containing target slots */
+    private BitSet[] invalidatedPairs = new BitSet[0];
 
     /**
      * Constructs new instance with given parameters
@@ -44,6 +48,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
         super(identifier, refresh);
         if (!identifier.startsWith("%rel_")) throw new IllegalArgumentException("Relational placeholder identifiers must start with \"rel_\"");
         this.function = function;
+        lastValues = TAB.getInstance().getPlaceholderManager().getValueStore().createRelationalColumn(this);
     }
 
     @Override
@@ -54,7 +59,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     @Override
     public void updateValue(@NonNull me.neznamy.tab.api.TabPlayer viewer, @NonNull me.neznamy.tab.api.TabPlayer target, @Nullable Object value) {
         if (hasValueChanged((TabPlayer) viewer, (TabPlayer) target, value)) {
-            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
+            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(this)) {
                 long startTime = System.nanoTime();
                 r.refresh((TabPlayer) target, true);
                 TAB.getInstance().getCPUManager().addTime(r.getFeatureName(), r.getRefreshDisplayName(), System.nanoTime() - startTime);
@@ -76,9 +81,9 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     public boolean hasValueChanged(@NonNull TabPlayer viewer, @NonNull TabPlayer target, @Nullable Object value) {
         if (value == null) return false; //bridge placeholders, they are updated using updateValue method
         String newValue = replacements.findReplacement(String.valueOf(value));
-        Map<me.neznamy.tab.api.TabPlayer, String> viewerMap = lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>()));
-        if (!viewerMap.getOrDefault(target, identifier).equals(newValue)) {
-            viewerMap.put(target, newValue);
+        String lastValue = lastValues.get(viewer, target);
+        if (!(lastValue == null ? identifier : lastValue).equals(newValue)) {
+            lastValues.set(viewer, target, newValue);
             updateParents(viewer);
             updateParents(target);
             return true;
@@ -88,11 +93,11 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
 
     @Override
     public void updateFromNested(@NonNull TabPlayer viewer) {
-        Set<Refreshable> usage = TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier);
+        Refreshable[] usage = TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(this);
         for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
             Object value = request(viewer, target);
             String s = replacements.findReplacement(String.valueOf(value));
-            lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>())).put(target, s);
+            lastValues.set(viewer, target, s);
             if (!target.isLoaded()) return; // Updated on join
             for (Refreshable f : usage) {
                 long time = System.nanoTime();
@@ -110,6 +115,76 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
         updateParents(viewer);
     }
 
+    /**
+     * Marks all pairs including given player as viewer or target to be re-evaluated
+     * on next refresh when using incremental relational refresh.
+     *
+     * @param   player
+     *          Player to invalidate pairs of
+     */
+    public synchronized void invalidate(@NonNull TabPlayer player) {
+        if (player.getSlot() == -1) return;
+        invalidatedPlayers.set(player.getSlot());
+    }
+
+    /**
+     * Marks a single pair to be re-evaluated on next refresh when using incremental
+     * relational refresh.
+     *
+     * @param   viewer
+     *          Viewer of the placeholder
+     * @param   target
+     *          Target of the placeholder
+     */
+    public synchronized void invalidate(@NonNull TabPlayer viewer, @NonNull TabPlayer target) {
+        if (viewer.getSlot() == -1 || target.getSlot() == -1) return;
+        if (invalidatedPairs.length <= viewer.getSlot()) invalidatedPairs = Arrays.copyOf(invalidatedPairs, viewer.getSlot() + 1);
+        if (invalidatedPairs[viewer.getSlot()] == null) invalidatedPairs[viewer.getSlot()] = new BitSet();
+        invalidatedPairs[viewer.getSlot()].set(target.getSlot());
+    }
+
+    /**
+     * Forgets all invalidations of given player, so they do not carry over
+     * to another player taking the same slot.
+     *
+     * @param   player
+     *          Player who left
+     */
+    public synchronized void clearInvalidations(@NonNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot == -1) return;
+        invalidatedPlayers.clear(slot);
+        if (slot < invalidatedPairs.length) invalidatedPairs[slot] = null;
+        for (BitSet targets : invalidatedPairs) {
+            if (targets != null) targets.clear(slot);
+        }
+    }
+
+    /**
+     * Moves all pending invalidations into given buffers and clears them.
+     *
+     * @param   players
+     *          Buffer to move invalidated player slots into
+     * @param   pairs
+     *          Buffer to move invalidated pairs into, indexed by viewer slot
+     * @return  Buffer containing invalidated pairs, which is a new array if provided one was too small
+     */
+    @NotNull
+    public synchronized BitSet[] drainInvalidations(@NotNull BitSet players, @NotNull BitSet[] pairs) {
+        players.clear();
+        players.or(invalidatedPlayers);
+        invalidatedPlayers.clear();
+        BitSet[] result = pairs.length < invalidatedPairs.length ? Arrays.copyOf(pairs, invalidatedPairs.length) : pairs;
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != null) result[i].clear();
+            if (i >= invalidatedPairs.length || invalidatedPairs[i] == null || invalidatedPairs[i].isEmpty()) continue;
+            if (result[i] == null) result[i] = new BitSet();
+            result[i].or(invalidatedPairs[i]);
+            invalidatedPairs[i].clear();
+        }
+        return result;
+    }
+
     /**
      * Returns last known value for given players. First player is viewer,
      * second player is target.
@@ -121,13 +196,12 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
      * @return  last known value for entered player duo
      */
     public String getLastValue(@NonNull TabPlayer viewer, @NonNull TabPlayer target) {
-        return setPlaceholders(
-                EnumChatFormat.color(
-                        lastValues.computeIfAbsent(viewer, v -> Collections.synchronizedMap(new WeakHashMap<>()))
-                                .computeIfAbsent(target, t -> retrieveValue(viewer, target))
-                ),
-                target
-        );
+        String value = lastValues.get(viewer, target);
+        if (value == null) {
+            value = retrieveValue(viewer, target);
+            lastValues.set(viewer, target, value);
+        }
+        return setPlaceholders(EnumChatFormat.color(value), target);
     }
 
     @NotNull
@@ -51,7 +51,7 @@ public class ServerPlaceholderImpl extends TabPlaceholder implements ServerPlace
     @Override
     public void updateValue(@Nullable Object value) {
         if (hasValueChanged(value)) {
-            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier)) {
+            for (Refreshable r : TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(this)) {
                 for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
                     if (!all.isLoaded()) return; // Updated on join
                     long startTime = System.nanoTime();
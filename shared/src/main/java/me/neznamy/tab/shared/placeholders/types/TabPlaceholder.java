@@ -33,6 +33,9 @@ public abstract class TabPlaceholder implements Placeholder {
     /** Placeholder's identifier including % */
     @NonNull protected final String identifier;
 
+    /** Index of this placeholder unique in the placeholder manager, used to address result buffers */
+    private final int ordinal;
+
     /** Configured placeholder output replacements */
     @NonNull protected final PlaceholderReplacementPattern replacements;
 
@@ -59,6 +62,7 @@ public abstract class TabPlaceholder implements Placeholder {
             throw new IllegalArgumentException("Identifier must start and end with % (attempted to use \"" + identifier + "\")");
         this.identifier = identifier;
         this.refresh = refresh;
+        ordinal = TAB.getInstance().getPlaceholderManager().nextOrdinal();
         Map<String, Map<Object, Object>> map = TAB.getInstance().getConfiguration().getConfig().getConfigurationSection("placeholder-output-replacements");
         replacements = PlaceholderReplacementPattern.create(identifier, map.getOrDefault(identifier, Collections.emptyMap()));
         for (String nested : getNestedPlaceholders("")) {
@@ -144,7 +148,10 @@ public abstract class TabPlaceholder implements Placeholder {
      *          parent placeholder using this placeholder in output
      */
     public void addParent(@NonNull String parent) {
-        if (!parents.contains(parent)) parents.add(parent);
+        if (!parents.contains(parent)) {
+            parents.add(parent);
+            TAB.getInstance().getPlaceholderManager().invalidateDependencyGraph();
+        }
     }
 
     /**
@@ -156,8 +163,7 @@ public abstract class TabPlaceholder implements Placeholder {
      */
     public void updateParents(@NonNull TabPlayer player) {
         if (parents.isEmpty()) return;
-        for (String id : parents) {
-            TabPlaceholder pl = TAB.getInstance().getPlaceholderManager().getPlaceholder(id);
+        for (TabPlaceholder pl : TAB.getInstance().getPlaceholderManager().getDependencyGraph().getParents(this)) {
             pl.updateFromNested(player);
             pl.updateParents(player);
         }
@@ -25,6 +25,15 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
     /** Static to prevent spam when packet is sent to each player */
     private static String lastTeamOverrideMessage;
 
+    /** Update type of team updates in update buffer */
+    private static final String TEAM = "team";
+
+    /** Update type of objective updates in update buffer */
+    private static final String OBJECTIVE = "objective";
+
+    /** Update type of score updates in update buffer */
+    private static final String SCORE = "score";
+
     /** Player this scoreboard belongs to */
     protected final T player;
 
@@ -61,6 +70,7 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
      */
     public final void setDisplaySlot(int slot, @NonNull String objective) {
         if (frozen) return;
+        player.getUpdateBuffer().flush();
         setDisplaySlot0(slot, objective);
     }
 
@@ -85,13 +95,10 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to update score (%s) without the existence of its requested objective '%s' to player ", scoreHolder, objective);
             return;
         }
-        setScore0(
-                objective,
-                scoreHolder,
-                score,
-                displayName == null ? null : displayName.convert(player.getVersion()),
-                numberFormat == null ? null : numberFormat.convert(player.getVersion())
-        );
+        C convertedDisplayName = displayName == null ? null : displayName.convert(player.getVersion());
+        C convertedNumberFormat = numberFormat == null ? null : numberFormat.convert(player.getVersion());
+        player.getUpdateBuffer().add(new UpdateBuffer.Key(SCORE, objective, scoreHolder),
+                () -> setScore0(objective, scoreHolder, score, convertedDisplayName, convertedNumberFormat));
     }
 
     /**
@@ -108,6 +115,8 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to remove score (%s) without the existence of its requested objective '%s' to player ", scoreHolder, objective);
             return;
         }
+        player.getUpdateBuffer().cancel(new UpdateBuffer.Key(SCORE, objective, scoreHolder));
+        player.getUpdateBuffer().flush();
         removeScore0(objective, scoreHolder);
     }
 
@@ -130,6 +139,7 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to register duplicated objective %s to player ", objectiveName);
             return;
         }
+        player.getUpdateBuffer().flush();
         registerObjective0(
                 objectiveName,
                 cutTo(title, Limitations.SCOREBOARD_TITLE_PRE_1_13),
@@ -150,6 +160,8 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to unregister non-existing objective %s for player ", objectiveName);
             return;
         }
+        player.getUpdateBuffer().cancel(new UpdateBuffer.Key(OBJECTIVE, objectiveName, null));
+        player.getUpdateBuffer().flush();
         unregisterObjective0(objectiveName);
     }
 
@@ -172,12 +184,10 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to modify non-existing objective %s for player ", objectiveName);
             return;
         }
-        updateObjective0(
-                objectiveName,
-                cutTo(title, Limitations.SCOREBOARD_TITLE_PRE_1_13),
-                display,
-                numberFormat == null ? null : numberFormat.convert(player.getVersion())
-        );
+        String cutTitle = cutTo(title, Limitations.SCOREBOARD_TITLE_PRE_1_13);
+        C convertedNumberFormat = numberFormat == null ? null : numberFormat.convert(player.getVersion());
+        player.getUpdateBuffer().add(new UpdateBuffer.Key(OBJECTIVE, objectiveName, null),
+                () -> updateObjective0(objectiveName, cutTitle, display, convertedNumberFormat));
     }
 
     /**
@@ -213,6 +223,7 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
         for (String player : players) {
             expectedTeams.put(player, name);
         }
+        player.getUpdateBuffer().flush();
         registerTeam0(
                 name,
                 cutTo(prefix, Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13),
@@ -243,6 +254,8 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
                 break;
             }
         }
+        player.getUpdateBuffer().cancel(new UpdateBuffer.Key(TEAM, teamName, null));
+        player.getUpdateBuffer().flush();
         unregisterTeam0(teamName);
     }
 
@@ -274,15 +287,10 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
             error("Tried to modify non-existing team %s for player ", name);
             return;
         }
-        updateTeam0(
-                name,
-                cutTo(prefix, Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13),
-                cutTo(suffix, Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13),
-                visibility,
-                collision,
-                options,
-                color
-        );
+        String cutPrefix = cutTo(prefix, Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13);
+        String cutSuffix = cutTo(suffix, Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13);
+        player.getUpdateBuffer().add(new UpdateBuffer.Key(TEAM, name, null),
+                () -> updateTeam0(name, cutPrefix, cutSuffix, visibility, collision, options, color));
     }
 
     /**
@@ -299,8 +307,10 @@ public abstract class Scoreboard<T extends TabPlayer, C> {
 
     /**
      * Marks for freeze. While frozen, no packets will be sent.
+     * Pending buffered updates are sent before freezing.
      */
     public void freeze() {
+        player.getUpdateBuffer().flush();
         frozen = true;
     }
 
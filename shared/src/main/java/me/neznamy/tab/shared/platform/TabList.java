@@ -25,6 +25,12 @@ public abstract class TabList<P extends TabPlayer, C> {
     /** Name of the textures property in game profile */
     public static final String TEXTURES_PROPERTY = "textures";
 
+    /** Update type of display name updates in update buffer */
+    private static final String DISPLAY_NAME = "displayName";
+
+    /** Key of header/footer updates in update buffer */
+    private static final UpdateBuffer.Key HEADER_FOOTER = new UpdateBuffer.Key("headerFooter", "", null);
+
     /** Player this tablist belongs to */
     protected final P player;
 
@@ -46,6 +52,17 @@ public abstract class TabList<P extends TabPlayer, C> {
     /** Expected footer sent by the plugin */
     private C expectedFooter;
 
+    /**
+     * Removes entry from the TabList.
+     *
+     * @param   entry
+     *          Entry to remove
+     */
+    public void removeEntry(@NonNull UUID entry) {
+        player.getUpdateBuffer().cancel(displayNameKey(entry));
+        removeEntry0(entry);
+    }
+
     /**
      * Removes entries from the TabList.
      *
@@ -53,22 +70,63 @@ public abstract class TabList<P extends TabPlayer, C> {
      *          Entries to remove
      */
     public void removeEntries(@NonNull Collection<UUID> entries) {
-        entries.forEach(this::removeEntry);
+        for (UUID entry : entries) {
+            player.getUpdateBuffer().cancel(displayNameKey(entry));
+        }
+        removeEntries0(entries);
     }
 
     /**
-     * Adds specified entries into the TabList.
+     * Adds specified entries into the TabList at once.
      *
      * @param   entries
      *          Entries to add
      */
     public void addEntries(@NonNull Collection<Entry> entries) {
-        entries.forEach(this::addEntry);
+        if (entries.isEmpty()) return;
+        List<Entry> entryList = new ArrayList<>(entries);
+        List<C> displayNames = new ArrayList<>(entryList.size());
+        for (Entry entry : entryList) {
+            C component = entry.displayName == null ? null : toComponent(entry.displayName);
+            setExpectedDisplayName(entry.getUniqueId(), component);
+            player.getUpdateBuffer().cancel(displayNameKey(entry.getUniqueId()));
+            displayNames.add(component);
+        }
+        addEntries0(entryList, displayNames);
+
+        if (player.getVersion().getMinorVersion() == 8) {
+            // Compensation for 1.8.0 client sided bug
+            Map<UUID, C> compensation = new LinkedHashMap<>();
+            for (int i = 0; i < entryList.size(); i++) {
+                compensation.put(entryList.get(i).getUniqueId(), displayNames.get(i));
+            }
+            updateDisplayNames0(compensation);
+        }
+    }
+
+    /**
+     * Updates display names of multiple entries at once. Using {@code null} as a
+     * display name makes it undefined and scoreboard team prefix/suffix will be visible instead.
+     *
+     * @param   displayNames
+     *          Map of entries and their new display names
+     */
+    public void updateDisplayNames(@NonNull Map<UUID, TabComponent> displayNames) {
+        if (displayNames.isEmpty()) return;
+        Map<UUID, C> converted = new LinkedHashMap<>();
+        for (Map.Entry<UUID, TabComponent> entry : displayNames.entrySet()) {
+            C component = entry.getValue() == null ? null : toComponent(entry.getValue());
+            setExpectedDisplayName(entry.getKey(), component);
+            player.getUpdateBuffer().cancel(displayNameKey(entry.getKey()));
+            converted.put(entry.getKey(), component);
+        }
+        updateDisplayNames0(converted);
     }
 
     /**
      * Updates display name of an entry. Using {@code null} makes it undefined and
-     * scoreboard team prefix/suffix will be visible instead.
+     * scoreboard team prefix/suffix will be visible instead. The update is buffered
+     * and replaced if the display name changes again before it is sent.
      *
      * @param   entry
      *          Entry to update
@@ -78,7 +136,7 @@ public abstract class TabList<P extends TabPlayer, C> {
     public void updateDisplayName(@NonNull UUID entry, @Nullable TabComponent displayName) {
         C component = displayName == null ? null : toComponent(displayName);
         setExpectedDisplayName(entry, component);
-        updateDisplayName0(entry, component);
+        player.getUpdateBuffer().add(displayNameKey(entry), () -> updateDisplayName0(entry, component));
     }
 
     /**
@@ -90,6 +148,7 @@ public abstract class TabList<P extends TabPlayer, C> {
     public void addEntry(@NonNull Entry entry) {
         C component = entry.displayName == null ? null : toComponent(entry.displayName);
         setExpectedDisplayName(entry.getUniqueId(), component);
+        player.getUpdateBuffer().cancel(displayNameKey(entry.getUniqueId()));
         addEntry0(entry.uniqueId, entry.name, entry.skin, entry.listed, entry.latency, entry.gameMode, component);
 
         if (player.getVersion().getMinorVersion() == 8) {
@@ -111,7 +170,19 @@ public abstract class TabList<P extends TabPlayer, C> {
         C convertedFooter = footer.convert(player.getVersion());
         expectedHeader = convertedHeader;
         expectedFooter = convertedFooter;
-        setPlayerListHeaderFooter0(convertedHeader, convertedFooter);
+        player.getUpdateBuffer().add(HEADER_FOOTER, () -> setPlayerListHeaderFooter0(convertedHeader, convertedFooter));
+    }
+
+    /**
+     * Returns key of display name update of given entry in update buffer.
+     *
+     * @param   entry
+     *          Entry to get key of
+     * @return  Key of display name update of given entry
+     */
+    @NotNull
+    private static UpdateBuffer.Key displayNameKey(@NonNull UUID entry) {
+        return new UpdateBuffer.Key(DISPLAY_NAME, entry, null);
     }
 
     /**
@@ -205,7 +276,18 @@ public abstract class TabList<P extends TabPlayer, C> {
      * @param   entry
      *          Entry to remove
      */
-    public abstract void removeEntry(@NonNull UUID entry);
+    public abstract void removeEntry0(@NonNull UUID entry);
+
+    /**
+     * Removes entries from the TabList. Default implementation removes them one by one,
+     * platforms able to remove them at once override it.
+     *
+     * @param   entries
+     *          Entries to remove
+     */
+    public void removeEntries0(@NonNull Collection<UUID> entries) {
+        entries.forEach(this::removeEntry0);
+    }
 
     /**
      * Updates display name of an entry. Using {@code null} makes it undefined and
@@ -268,6 +350,33 @@ public abstract class TabList<P extends TabPlayer, C> {
      */
     public abstract void addEntry0(@NonNull UUID id, @NonNull String name, @Nullable Skin skin, boolean listed, int latency, int gameMode, @Nullable C displayName);
 
+    /**
+     * Adds specified entries to tablist. Default implementation adds them one by one,
+     * platforms able to send them in a single packet override it.
+     *
+     * @param   entries
+     *          Entries to add
+     * @param   displayNames
+     *          Converted display names of entries in the same order
+     */
+    public void addEntries0(@NonNull List<Entry> entries, @NonNull List<C> displayNames) {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            addEntry0(entry.uniqueId, entry.name, entry.skin, entry.listed, entry.latency, entry.gameMode, displayNames.get(i));
+        }
+    }
+
+    /**
+     * Updates display names of multiple entries. Default implementation updates them one by one,
+     * platforms able to send them in a single packet override it.
+     *
+     * @param   displayNames
+     *          Map of entries and their new display names
+     */
+    public void updateDisplayNames0(@NonNull Map<UUID, C> displayNames) {
+        displayNames.forEach(this::updateDisplayName0);
+    }
+
     /**
      * Sets header and footer to specified values.
      *
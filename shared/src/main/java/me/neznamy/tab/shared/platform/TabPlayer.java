@@ -79,9 +79,19 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
      */
     @Getter private boolean loaded;
 
+    /**
+     * Index of this player unique among online players, assigned on join and
+     * reused by another player after this player leaves. Used to address
+     * per-player result buffers without hashing.
+     */
+    @Getter @Setter private int slot = -1;
+
     /** Flag tracking whether the player is online or not */
     @Getter private boolean online = true;
 
+    /** Buffer of scoreboard and tablist updates sent to this player */
+    @Getter private final UpdateBuffer updateBuffer = new UpdateBuffer();
+
     /** Data for sorting */
     public final Sorting.PlayerData sortingData = new Sorting.PlayerData();
 
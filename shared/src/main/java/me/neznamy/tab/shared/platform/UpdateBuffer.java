@@ -0,0 +1,137 @@
+package me.neznamy.tab.shared.platform;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import me.neznamy.tab.shared.TAB;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer of outgoing updates for a single player. Updates are identified by a key,
+ * an update replaces a pending update with the same key instead of sending another packet.
+ * Adding the first pending update queues a flush on the processing thread, which runs
+ * after all tasks already queued there and sends pending updates in the order their keys
+ * were first added. Updates are sent outside of this buffer's lock, so sending
+ * never blocks threads adding new updates.
+ */
+public class UpdateBuffer {
+
+    /** Whether updates should be buffered or sent immediately */
+    @Getter @Setter private static volatile boolean enabled = true;
+
+    /** Amount of updates which were sent */
+    private static final LongAdder sent = new LongAdder();
+
+    /** Amount of updates which were replaced or cancelled before being sent */
+    private static final LongAdder saved = new LongAdder();
+
+    /** Pending updates by their key */
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+
+    /** Flag tracking whether a flush task is scheduled */
+    private boolean flushScheduled;
+
+    /**
+     * Adds update into the buffer, replacing pending update with the same key.
+     * If buffering is disabled, the update is sent immediately.
+     *
+     * @param   key
+     *          Key identifying the updated value, such as team name
+     * @param   update
+     *          Task sending the update
+     */
+    public void add(@NotNull Object key, @NotNull Runnable update) {
+        if (!enabled) {
+            flush();
+            send(update);
+            return;
+        }
+        boolean scheduleFlush;
+        synchronized (this) {
+            if (pending.put(key, update) != null) saved.increment();
+            scheduleFlush = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (scheduleFlush) TAB.getInstance().getCpu().runTask(this::flush);
+    }
+
+    /**
+     * Cancels pending update with given key, because it was superseded by another operation.
+     *
+     * @param   key
+     *          Key of the update to cancel
+     */
+    public synchronized void cancel(@NotNull Object key) {
+        if (pending.isEmpty()) return;
+        if (pending.remove(key) != null) saved.increment();
+    }
+
+    /**
+     * Sends all pending updates on the calling thread. This must be called before sending
+     * any packet which is not buffered and depends on the previous state.
+     */
+    public void flush() {
+        List<Runnable> updates;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            updates = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Runnable update : updates) {
+            send(update);
+        }
+    }
+
+    /**
+     * Sends update and counts it.
+     *
+     * @param   update
+     *          Task sending the update
+     */
+    private void send(@NotNull Runnable update) {
+        sent.increment();
+        update.run();
+    }
+
+    /**
+     * Returns amount of updates which were sent.
+     *
+     * @return  Amount of sent updates
+     */
+    public static long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * Returns amount of updates which were replaced or cancelled before being sent.
+     *
+     * @return  Amount of saved updates
+     */
+    public static long getSaved() {
+        return saved.sum();
+    }
+
+    /**
+     * Key identifying a buffered update.
+     */
+    @Data
+    public static class Key {
+
+        /** Type of the update, such as team or score */
+        @NotNull private final String type;
+
+        /** Name of the updated value */
+        @NotNull private final Object name;
+
+        /** Secondary name, such as score holder of a score */
+        @Nullable private final Object subName;
+    }
+}
@@ -56,6 +56,8 @@ public abstract class ProxyPlatform implements Platform {
         registeredMessages.put("Placeholder", UpdatePlaceholder::new);
         registeredMessages.put("PlayerJoinResponse", PlayerJoinResponse::new);
         registeredMessages.put("RegisterPlaceholder", me.neznamy.tab.shared.proxy.message.incoming.RegisterPlaceholder::new);
+        registeredMessages.put("Batching", Batching::new);
+        registeredMessages.put("Batch", Batch::new);
     }
 
     @Override
@@ -133,7 +135,21 @@ public abstract class ProxyPlatform implements Platform {
         ProxyTabPlayer player = (ProxyTabPlayer) TAB.getInstance().getPlayer(uuid);
         if (player == null) return;
         ByteArrayDataInput in = ByteStreams.newDataInput(bytes);
-        Supplier<IncomingMessage> supplier = registeredMessages.get(in.readUTF());
+        processMessage(player, in.readUTF(), in);
+    }
+
+    /**
+     * Reads and processes message of given type. Unknown message types are ignored.
+     *
+     * @param   player
+     *          Player who received the message
+     * @param   type
+     *          Message type
+     * @param   in
+     *          Message content without its type
+     */
+    public void processMessage(@NotNull ProxyTabPlayer player, @NotNull String type, @NotNull ByteArrayDataInput in) {
+        Supplier<IncomingMessage> supplier = registeredMessages.get(type);
         if (supplier != null) {
             IncomingMessage msg = supplier.get();
             msg.read(in);
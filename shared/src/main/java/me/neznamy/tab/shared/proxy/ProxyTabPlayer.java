@@ -1,5 +1,6 @@
 package me.neznamy.tab.shared.proxy;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
@@ -7,14 +8,19 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.nametags.unlimited.NameTagX;
+import me.neznamy.tab.shared.proxy.message.outgoing.MessageBatch;
 import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
 import me.neznamy.tab.shared.proxy.message.outgoing.PermissionRequest;
 import me.neznamy.tab.shared.proxy.message.outgoing.PlayerJoin;
+import me.neznamy.tab.shared.proxy.message.outgoing.RegisterPermission;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract class for player on proxy containing variables and methods
@@ -45,7 +51,20 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     private int gamemode;
 
     /** Map of player's requested permissions */
-    private final Map<String, Boolean> permissions = new HashMap<>();
+    private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+
+    /** Map of times when permissions were last requested from bridge */
+    private final Map<String, Long> permissionRequests = new ConcurrentHashMap<>();
+
+    /** Permissions registered on bridge, which sends their values every time they change */
+    private final Set<String> registeredPermissions = ConcurrentHashMap.newKeySet();
+
+    /** Highest batch format version supported by bridge, 0 if bridge does not support batching */
+    private volatile int bridgeBatchingVersion;
+
+    /** Encoded messages waiting to be sent as a batch */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final List<byte[]> pendingMessages = new ArrayList<>();
 
     /**
      * Constructs new instance with given parameters and sends a message
@@ -75,7 +94,11 @@ public abstract class ProxyTabPlayer extends TabPlayer {
      * joined, containing all plugin configuration data.
      */
     public void sendJoinPluginMessage() {
+        flushPluginMessages(); // Messages for previous server
+        bridgeBatchingVersion = 0; // New server's bridge will send handshake again
         bridgeConnected = false; // Reset on server switch
+        permissionRequests.clear(); // Request permissions from the new server
+        registeredPermissions.clear();
 
         PlayerJoin.UnlimitedNametagSettings settings = null;
         NameTagX nametagx = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.UNLIMITED_NAME_TAGS);
@@ -140,12 +163,34 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     @Override
     public boolean hasPermission(@NotNull String permission) {
         if (TAB.getInstance().getConfiguration().isBukkitPermissions()) {
-            sendPluginMessage(new PermissionRequest(permission));
-            return permissions != null && permissions.getOrDefault(permission, false);
+            requestPermission(permission);
+            return permissions.getOrDefault(permission, false);
         }
         return hasPermission0(permission);
     }
 
+    /**
+     * Makes sure bridge sends value of the permission. Bridges supporting permission
+     * registration are asked once per server to send the value every time it changes.
+     * Older bridges are asked again if the permission was not requested yet or the last
+     * request is older than configured refresh interval. The response is processed
+     * asynchronously, until then the last received value is used.
+     *
+     * @param   permission
+     *          Permission to request
+     */
+    private void requestPermission(@NotNull String permission) {
+        if (bridgeBatchingVersion >= MessageBatch.PERMISSION_REGISTRATION_VERSION) {
+            if (registeredPermissions.add(permission)) sendPluginMessage(new RegisterPermission(permission));
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long lastRequest = permissionRequests.get(permission);
+        if (lastRequest != null && now - lastRequest < TAB.getInstance().getConfiguration().getBukkitPermissionsRefreshInterval()) return;
+        permissionRequests.put(permission, now);
+        sendPluginMessage(new PermissionRequest(permission));
+    }
+
     /**
      * Sends plugin message to the player.
      *
@@ -153,6 +198,35 @@ public abstract class ProxyTabPlayer extends TabPlayer {
      *          Plugin message to send
      */
     public void sendPluginMessage(@NotNull OutgoingMessage message) {
-        sendPluginMessage(message.write().toByteArray());
+        byte[] bytes = message.write().toByteArray();
+        if (bridgeBatchingVersion == 0) {
+            sendPluginMessage(bytes);
+            return;
+        }
+        synchronized (pendingMessages) {
+            pendingMessages.add(bytes);
+            if (pendingMessages.size() > 1) return; // Flush already scheduled
+        }
+        TAB.getInstance().getCPUManager().runTask(this::flushPluginMessages);
+    }
+
+    /**
+     * Sends all pending messages. Messages are divided into batches which fit into
+     * a single plugin message, a batch containing only one message is sent as is.
+     */
+    public void flushPluginMessages() {
+        List<byte[]> messages;
+        synchronized (pendingMessages) {
+            if (pendingMessages.isEmpty()) return;
+            messages = new ArrayList<>(pendingMessages);
+            pendingMessages.clear();
+        }
+        for (List<byte[]> batch : MessageBatch.split(messages, MessageBatch.MAX_SIZE)) {
+            if (batch.size() == 1) {
+                sendPluginMessage(batch.get(0));
+            } else {
+                sendPluginMessage(new MessageBatch(batch).write().toByteArray());
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package me.neznamy.tab.shared.proxy.message.incoming;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteStreams;
+import me.neznamy.tab.shared.proxy.ProxyPlatform;
+import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import me.neznamy.tab.shared.proxy.message.outgoing.MessageBatch;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envelope of multiple messages sent by bridge as a single plugin message,
+ * using the same format as {@link MessageBatch}.
+ */
+public class Batch implements IncomingMessage {
+
+    /** Types of contained messages */
+    private final List<String> types = new ArrayList<>();
+
+    /** Payloads of contained messages */
+    private final List<byte[]> payloads = new ArrayList<>();
+
+    @Override
+    public void read(@NotNull ByteArrayDataInput in) {
+        int version = MessageBatch.readVarInt(in);
+        if (version > MessageBatch.VERSION) return; // Unknown format
+        String[] typeTable = new String[MessageBatch.readVarInt(in)];
+        for (int i = 0; i < typeTable.length; i++) {
+            typeTable[i] = in.readUTF();
+        }
+        int count = MessageBatch.readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            types.add(typeTable[MessageBatch.readVarInt(in)]);
+            byte[] payload = new byte[MessageBatch.readVarInt(in)];
+            in.readFully(payload);
+            payloads.add(payload);
+        }
+    }
+
+    @Override
+    public void process(@NotNull ProxyTabPlayer player) {
+        ProxyPlatform platform = (ProxyPlatform) player.getPlatform();
+        for (int i = 0; i < types.size(); i++) {
+            platform.processMessage(player, types.get(i), ByteStreams.newDataInput(payloads.get(i)));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.neznamy.tab.shared.proxy.message.incoming;
+
+import com.google.common.io.ByteArrayDataInput;
+import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import me.neznamy.tab.shared.proxy.message.outgoing.MessageBatch;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Handshake sent by bridge versions which can receive batched messages,
+ * containing the highest batch format version the bridge supports.
+ */
+public class Batching implements IncomingMessage {
+
+    private int version;
+
+    @Override
+    public void read(@NotNull ByteArrayDataInput in) {
+        version = in.readInt();
+    }
+
+    @Override
+    public void process(@NotNull ProxyTabPlayer player) {
+        player.setBridgeBatchingVersion(Math.min(version, MessageBatch.VERSION));
+    }
+}
@@ -0,0 +1,151 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envelope containing multiple encoded messages sent as a single plugin message.
+ * Message types are written only once into a string table and messages refer
+ * to them by index. Format:
+ * <ul>
+ *     <li>"Batch" as UTF</li>
+ *     <li>Protocol version as varint</li>
+ *     <li>Amount of message types as varint, followed by each type as UTF</li>
+ *     <li>Amount of messages as varint, followed by each message as varint type index,
+ *         varint payload length and payload (message without its type)</li>
+ * </ul>
+ * Plugin messages sent to servers are limited in size, messages should therefore
+ * be divided into batches using {@link #split(List, int)} before being sent.
+ */
+@RequiredArgsConstructor
+@SuppressWarnings("UnstableApiUsage")
+public class MessageBatch implements OutgoingMessage {
+
+    /**
+     * Version of the batch format. Version 1 added batches, version 2 added
+     * {@link RegisterPermission} with permission changes pushed by bridge.
+     */
+    public static final int VERSION = 2;
+
+    /** First batch format version which supports {@link RegisterPermission} */
+    public static final int PERMISSION_REGISTRATION_VERSION = 2;
+
+    /** Maximum size of an encoded batch in bytes, with a reserve under the 32767 bytes limit of plugin messages */
+    public static final int MAX_SIZE = 30000;
+
+    /** Size of batch header without the type table, with all varints at their maximum length */
+    private static final int HEADER_SIZE = 7 + 3 * 5;
+
+    /** Maximum size added to a message when encoded into batch, which are the type index and payload length varints */
+    private static final int MESSAGE_OVERHEAD = 2 * 5;
+
+    /** Encoded messages, each starting with its type as UTF */
+    @NotNull
+    private final List<byte[]> messages;
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        Map<String, Integer> typeIndexes = new HashMap<>();
+        List<String> types = new ArrayList<>();
+        int[] indexes = new int[messages.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            String type = ByteStreams.newDataInput(messages.get(i)).readUTF();
+            Integer index = typeIndexes.get(type);
+            if (index == null) {
+                index = types.size();
+                typeIndexes.put(type, index);
+                types.add(type);
+            }
+            indexes[i] = index;
+        }
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("Batch");
+        writeVarInt(out, VERSION);
+        writeVarInt(out, types.size());
+        for (String type : types) {
+            out.writeUTF(type);
+        }
+        writeVarInt(out, messages.size());
+        for (int i = 0; i < indexes.length; i++) {
+            byte[] message = messages.get(i);
+            int offset = 2 + (((message[0] & 0xFF) << 8) | (message[1] & 0xFF));
+            writeVarInt(out, indexes[i]);
+            writeVarInt(out, message.length - offset);
+            out.write(message, offset, message.length - offset);
+        }
+        return out;
+    }
+
+    /**
+     * Divides encoded messages into groups, where each group encoded as a batch
+     * does not exceed given size. The order of messages is kept. Messages too large
+     * to fit into a batch with other messages are put into a group on their own.
+     *
+     * @param   messages
+     *          Encoded messages, each starting with its type as UTF
+     * @param   maxSize
+     *          Maximum size of an encoded batch in bytes
+     * @return  Groups of messages in original order
+     */
+    @NotNull
+    public static List<List<byte[]>> split(@NotNull List<byte[]> messages, int maxSize) {
+        List<List<byte[]>> groups = new ArrayList<>();
+        List<byte[]> group = new ArrayList<>();
+        int size = HEADER_SIZE;
+        for (byte[] message : messages) {
+            // Type is written at most once into the type table and never repeated in the payload
+            int messageSize = message.length + MESSAGE_OVERHEAD;
+            if (!group.isEmpty() && size + messageSize > maxSize) {
+                groups.add(group);
+                group = new ArrayList<>();
+                size = HEADER_SIZE;
+            }
+            group.add(message);
+            size += messageSize;
+        }
+        if (!group.isEmpty()) groups.add(group);
+        return groups;
+    }
+
+    /**
+     * Writes variable-length int, using 1 byte for values up to 127.
+     *
+     * @param   out
+     *          Output to write to
+     * @param   value
+     *          Value to write
+     */
+    public static void writeVarInt(@NotNull ByteArrayDataOutput out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads variable-length int written by {@link #writeVarInt(ByteArrayDataOutput, int)}.
+     *
+     * @param   in
+     *          Input to read from
+     * @return  Read value
+     */
+    public static int readVarInt(@NotNull ByteArrayDataInput in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("VarInt is too big");
+    }
+}
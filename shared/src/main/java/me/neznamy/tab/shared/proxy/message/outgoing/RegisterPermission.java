@@ -0,0 +1,28 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import lombok.AllArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers permission node the proxy checks. Bridge responds with its current
+ * value and from then on sends the value again every time it changes, grouping
+ * all changes into batches. Only sent to bridges with batch format version
+ * {@link MessageBatch#PERMISSION_REGISTRATION_VERSION} or higher.
+ */
+@AllArgsConstructor
+@SuppressWarnings("UnstableApiUsage")
+public class RegisterPermission implements OutgoingMessage {
+
+    private String permission;
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("RegisterPermission");
+        out.writeUTF(permission);
+        return out;
+    }
+}
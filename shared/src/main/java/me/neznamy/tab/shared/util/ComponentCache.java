@@ -1,31 +1,141 @@
 package me.neznamy.tab.shared.util;
 
-import lombok.AllArgsConstructor;
-import lombok.SneakyThrows;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.ProtocolVersion;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 
 /**
  * Component cache to save resources when converting the same
- * values over and over.
+ * values over and over. The cache is thread-safe and bounded by
+ * amount of entries, evicting least recently used entries
+ * once the limit is exceeded. It is split into independently locked
+ * segments to reduce contention between threads. Each segment holds
+ * 1/16 of the maximum size, so entries may be evicted from a segment
+ * receiving more keys than others before the whole cache is full.
  *
  * @param   <K>
  *          Source component
  * @param   <V>
  *          Target component
  */
-@AllArgsConstructor
 public class ComponentCache<K, V> {
 
-    private final int cacheSize;
-    private final BiFunction<K, ProtocolVersion, V> function;
-    private final Map<K, V> cacheModern = new HashMap<>();
-    private final Map<K, V> cacheLegacy = new HashMap<>();
+    /** Amount of segments of each cache, must be a power of 2 */
+    private static final int SEGMENTS = 16;
+
+    /** All created caches for statistics */
+    @Getter private static final List<ComponentCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    /** Configured maximum sizes by cache name */
+    private static final Map<String, Integer> configuredSizes = new ConcurrentHashMap<>();
+
+    /** Name of this cache used in configuration and statistics */
+    @Getter @NotNull private final String name;
+
+    /** Function converting source component to target component */
+    @NotNull private final BiFunction<K, ProtocolVersion, V> function;
+
+    /** Default maximum size if not configured */
+    private final int defaultMaximumSize;
+
+    /** Maximum amount of entries in a single segment */
+    private volatile int segmentMaximumSize;
+
+    /** Segments for clients supporting RGB */
+    @NotNull private final Segment<K, V>[] cacheModern = createSegments();
+
+    /** Segments for clients not supporting RGB */
+    @NotNull private final Segment<K, V>[] cacheLegacy = createSegments();
+
+    /** Amount of requests which found the value in cache */
+    private final LongAdder hits = new LongAdder();
+
+    /** Amount of requests which had to convert the value */
+    private final LongAdder misses = new LongAdder();
+
+    /** Amount of entries removed to fit in the size limit */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   name
+     *          Name of the cache used in configuration and statistics
+     * @param   cacheSize
+     *          Maximum amount of entries if not configured
+     * @param   function
+     *          Function converting source component to target component
+     */
+    public ComponentCache(@NotNull String name, int cacheSize, @NotNull BiFunction<K, ProtocolVersion, V> function) {
+        this.name = name;
+        this.function = function;
+        defaultMaximumSize = cacheSize;
+        setMaximumSize(configuredSizes.getOrDefault(name, cacheSize));
+        caches.add(this);
+    }
+
+    /**
+     * Applies configured maximum sizes to all caches, including caches created later.
+     * Caches not present in the map use their default maximum size.
+     *
+     * @param   sizes
+     *          Map of cache names and their maximum sizes
+     */
+    public static void configure(@NotNull Map<String, Integer> sizes) {
+        configuredSizes.clear();
+        configuredSizes.putAll(sizes);
+        for (ComponentCache<?, ?> cache : caches) {
+            cache.setMaximumSize(sizes.getOrDefault(cache.name, cache.defaultMaximumSize));
+        }
+    }
+
+    /**
+     * Creates array of empty segments.
+     *
+     * @return  Array of empty segments
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private Segment<K, V>[] createSegments() {
+        Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(this);
+        }
+        return segments;
+    }
+
+    /**
+     * Sets maximum amount of entries for a single client type (RGB or legacy) and evicts entries
+     * exceeding the new limit. The size is divided between segments rounding up, so the cache
+     * can hold at least the given amount of entries if keys are spread evenly.
+     *
+     * @param   maximumSize
+     *          New maximum size
+     */
+    public void setMaximumSize(int maximumSize) {
+        segmentMaximumSize = Math.max(1, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            cacheModern[i].evict();
+            cacheLegacy[i].evict();
+        }
+    }
+
+    /**
+     * Returns maximum amount of entries for a single client type (RGB or legacy).
+     *
+     * @return  Maximum amount of entries for a single client type
+     */
+    public int getMaximumSize() {
+        return segmentMaximumSize * SEGMENTS;
+    }
 
     /**
      * Gets value from cache. If not present, it is created using given function, inserted
@@ -37,10 +147,126 @@ public class ComponentCache<K, V> {
      *          Client version to convert for
      * @return  Converted component
      */
-    @SneakyThrows
     public @NotNull V get(@NotNull K key, @Nullable ProtocolVersion clientVersion) {
-        Map<K, V> cache = clientVersion == null || clientVersion.supportsRGB() ? cacheModern : cacheLegacy;
-        if (cache.size() > cacheSize) cache.clear();
-        return cache.computeIfAbsent(key, k -> function.apply(k, clientVersion));
+        Segment<K, V>[] cache = clientVersion == null || clientVersion.supportsRGB() ? cacheModern : cacheLegacy;
+        int hash = key.hashCode();
+        Segment<K, V> segment = cache[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        V value = segment.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        // Convert outside the lock, another thread may convert the same key in the meantime
+        return segment.put(key, function.apply(key, clientVersion));
+    }
+
+    /**
+     * Returns amount of requests which found the value in cache.
+     *
+     * @return  Amount of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns amount of requests which had to convert the value.
+     *
+     * @return  Amount of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns amount of entries removed to fit in the size limit.
+     *
+     * @return  Amount of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns current amount of entries in the cache for all client types combined.
+     *
+     * @return  Current amount of entries
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            size += cacheModern[i].size() + cacheLegacy[i].size();
+        }
+        return size;
+    }
+
+    /**
+     * A part of the cache with its own lock and least recently used ordering.
+     *
+     * @param   <K>
+     *          Source component
+     * @param   <V>
+     *          Target component
+     */
+    @RequiredArgsConstructor
+    private static class Segment<K, V> {
+
+        /** Cache this segment belongs to */
+        @NotNull private final ComponentCache<K, V> cache;
+
+        /** Entries in access order, least recently used first */
+        private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Returns cached value and marks it as recently used.
+         *
+         * @param   key
+         *          Source component
+         * @return  Cached value or {@code null} if not present
+         */
+        @Nullable
+        private synchronized V get(@NotNull K key) {
+            return entries.get(key);
+        }
+
+        /**
+         * Inserts value into the segment unless another thread inserted it already
+         * and evicts least recently used entries exceeding the size limit.
+         *
+         * @param   key
+         *          Source component
+         * @param   value
+         *          Converted component
+         * @return  Value present in the cache
+         */
+        @NotNull
+        private synchronized V put(@NotNull K key, @NotNull V value) {
+            V existing = entries.putIfAbsent(key, value);
+            if (existing != null) return existing;
+            evict();
+            return value;
+        }
+
+        /**
+         * Removes least recently used entries until the segment fits in the size limit.
+         */
+        private synchronized void evict() {
+            Iterator<K> iterator = entries.keySet().iterator();
+            while (entries.size() > cache.segmentMaximumSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                cache.evictions.increment();
+            }
+        }
+
+        /**
+         * Returns amount of entries in the segment.
+         *
+         * @return  Amount of entries in the segment
+         */
+        private synchronized int size() {
+            return entries.size();
+        }
     }
 }
@@ -0,0 +1,220 @@
+package me.neznamy.tab.shared.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread-safe map with primitive int keys using open addressing, so lookups
+ * do not box keys or walk entry objects. Lookups are lock-free and read an
+ * immutable table, modifications copy the table and publish the copy. This makes
+ * it suitable for data read very often from multiple threads and modified rarely,
+ * such as entity ids read from every entity packet. {@code null} values are not allowed.
+ *
+ * @param   <V>
+ *          Value type
+ */
+public class IntObjectMap<V> {
+
+    /** Shared empty table */
+    private static final Table EMPTY = new Table(8);
+
+    /** Current table, replaced on every modification */
+    private volatile Table table = EMPTY;
+
+    /**
+     * Returns value mapped to given key.
+     *
+     * @param   key
+     *          Key to get value of
+     * @return  Value mapped to given key or {@code null} if not present
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Table table = this.table;
+        int mask = table.keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object value = table.values[i];
+            if (value == null) return null;
+            if (table.keys[i] == key) return (V) value;
+        }
+    }
+
+    /**
+     * Returns value mapped to given key or default value if not present.
+     *
+     * @param   key
+     *          Key to get value of
+     * @param   defaultValue
+     *          Value to return if key is not present
+     * @return  Value mapped to given key or default value if not present
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Maps given key to given value, replacing previous value if present.
+     *
+     * @param   key
+     *          Key to map
+     * @param   value
+     *          Value to map key to
+     */
+    public synchronized void put(int key, @NotNull V value) {
+        Table table = this.table;
+        int capacity = table.keys.length;
+        if ((table.size + 1) * 2 > capacity) capacity *= 2;
+        Table copy = new Table(capacity);
+        copy.insertAll(table);
+        copy.insert(key, value);
+        this.table = copy;
+    }
+
+    /**
+     * Removes mapping of given key.
+     *
+     * @param   key
+     *          Key to remove
+     * @return  Removed value or {@code null} if key was not present
+     */
+    @Nullable
+    public synchronized V remove(int key) {
+        V previous = get(key);
+        if (previous == null) return null;
+        Table table = this.table;
+        Table copy = new Table(table.keys.length);
+        for (int i = 0; i < table.keys.length; i++) {
+            if (table.values[i] != null && table.keys[i] != key) copy.insert(table.keys[i], table.values[i]);
+        }
+        this.table = copy;
+        return previous;
+    }
+
+    /**
+     * Removes all mappings.
+     */
+    public synchronized void clear() {
+        table = EMPTY;
+    }
+
+    /**
+     * Returns amount of mappings.
+     *
+     * @return  Amount of mappings
+     */
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Returns snapshot of all keys.
+     *
+     * @return  Array of all keys at the time of calling
+     */
+    @NotNull
+    public int[] keys() {
+        Table table = this.table;
+        int[] keys = new int[table.size];
+        int index = 0;
+        for (int i = 0; i < table.keys.length; i++) {
+            if (table.values[i] != null) keys[index++] = table.keys[i];
+        }
+        return keys;
+    }
+
+    /**
+     * Returns snapshot of all values.
+     *
+     * @return  List of all values at the time of calling
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        Table table = this.table;
+        List<V> values = new ArrayList<>(table.size);
+        for (Object value : table.values) {
+            if (value != null) values.add((V) value);
+        }
+        return values;
+    }
+
+    /**
+     * Spreads bits of the key, so sequential entity ids do not form long probe chains.
+     *
+     * @param   key
+     *          Key to hash
+     * @return  Hash of the key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Table of keys and values using linear probing. A slot is empty
+     * if its value is {@code null}. Tables are never modified after being published.
+     */
+    private static class Table {
+
+        /** Keys of entries */
+        private final int[] keys;
+
+        /** Values of entries */
+        private final Object[] values;
+
+        /** Amount of entries */
+        private int size;
+
+        /**
+         * Constructs new empty table with given capacity.
+         *
+         * @param   capacity
+         *          Capacity, must be a power of 2
+         */
+        private Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+        }
+
+        /**
+         * Inserts all entries of another table.
+         *
+         * @param   other
+         *          Table to copy entries from
+         */
+        private void insertAll(@NotNull Table other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.values[i] != null) insert(other.keys[i], other.values[i]);
+            }
+        }
+
+        /**
+         * Inserts entry, replacing value of the key if already present.
+         *
+         * @param   key
+         *          Key to insert
+         * @param   value
+         *          Value to insert
+         */
+        private void insert(int key, @NotNull Object value) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (values[i] == null) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package me.neznamy.tab.shared.chat;
+
+import me.neznamy.tab.shared.chat.rgb.RGBUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ColoredTextParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "Plain text",
+            "&aGreen &lbold &rreset",
+            "&4&lRed bold &9Blue",
+            "&x&1&2&3&4&5&6Spigot hex",
+            "Uppercase &A&LCODES",
+            "&zInvalid &code"
+    })
+    void legacyCodes(String text) {
+        assertSameAsLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "&#FF0000Red &#00FF00Green",
+            "<#FF0000>Red",
+            "#FF0000Text",
+            "#FF0000|lText",
+            "{#FF0000}CMI",
+            "&lBold &#123456keeps bold",
+            "#12345G not a color",
+            "<#FF0000 not a color"
+    })
+    void hexColors(String text) {
+        assertSameAsLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<#FF0000>Gradient</#0000FF>",
+            "<#FF0000>&lBold gradient</#0000FF>",
+            "{#FF0000>}CMI gradient{#0000FF<}",
+            "{#FF0000>}Multi{#00FF00<>}stop{#0000FF<}",
+            "<$#FF0000>Text<$#0000FF>",
+            "<gradient:#FF0000>Nex gradient</gradient:#0000FF>",
+            "Before <#FF0000>Gradient</#0000FF> after"
+    })
+    void gradients(String text) {
+        assertSameAsLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "&kMagic&r &l&oBoldItalic",
+            "&m&nStrike under&r plain",
+            "&l&k&aColor resets magic",
+            "&#FF0000&lBold red&r &oItalic"
+    })
+    void resetAndMagicCodes(String text) {
+        assertSameAsLegacy(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "&aText&",
+            "Text§",
+            "#12345",
+            "&#FF00",
+            "<#FF00",
+            "&l&#FF0000x",
+            "<#FF0000>Grad&lient</#0000FF>&a!",
+            "&a{#FF0000>}x{#00FF00<}y",
+            "<#FF0000>Unclosed gradient",
+            "x</#0000FF>"
+    })
+    void codesSplitAtBoundaries(String text) {
+        assertSameAsLegacy(text);
+    }
+
+    @Test
+    void fontIsAppliedToAllComponents() {
+        String colored = EnumChatFormat.color("&aGreen &#FF0000red");
+        List<StructuredComponent> parsed = ColoredTextParser.parse(colored, "minecraft:uniform");
+        assertNotNull(parsed);
+        assertEquals(describe(TabComponent.applyFormatsAndParse(colored, "minecraft:uniform")), describe(parsed));
+    }
+
+    private void assertSameAsLegacy(String text) {
+        String colored = EnumChatFormat.color(text);
+        // Same condition as in TabComponent, MiniMessage is only called by the regular conversion
+        assumeFalse(RGBUtils.getInstance().isMiniMessage() && colored.indexOf('<') != -1);
+        List<StructuredComponent> parsed = ColoredTextParser.parse(colored, null);
+        assertNotNull(parsed, () -> "Text was not parsed in a single pass: " + text);
+        assertEquals(describe(TabComponent.applyFormatsAndParse(colored, null)), describe(parsed), text);
+    }
+
+    private List<String> describe(List<StructuredComponent> components) {
+        List<String> list = new ArrayList<>();
+        for (StructuredComponent component : components) {
+            ChatModifier modifier = component.getModifier();
+            TextColor color = modifier.getColor();
+            list.add(String.join(",",
+                    "text=" + component.getText(),
+                    "color=" + (color == null ? "none" : color.getHexCode() + "|" + color.getLegacyColor() + "|" + color.isLegacyColorForced()),
+                    "bold=" + modifier.isBold(),
+                    "italic=" + modifier.isItalic(),
+                    "underlined=" + modifier.isUnderlined(),
+                    "strikethrough=" + modifier.isStrikethrough(),
+                    "obfuscated=" + modifier.isObfuscated(),
+                    "font=" + modifier.getFont()
+            ));
+        }
+        return list;
+    }
+}
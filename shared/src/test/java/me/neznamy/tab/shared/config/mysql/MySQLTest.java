@@ -0,0 +1,101 @@
+package me.neznamy.tab.shared.config.mysql;
+
+import me.neznamy.tab.shared.ErrorManager;
+import me.neznamy.tab.shared.TAB;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import javax.sql.rowset.CachedRowSet;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MySQLTest {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private final ErrorManager errorManager = mock(ErrorManager.class);
+    private MySQL mysql;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TAB instance = mock(TAB.class, Answers.RETURNS_DEEP_STUBS);
+        when(instance.getErrorManager()).thenReturn(errorManager);
+        setInstance(instance); // Static mocks are thread-local, but MySQL uses its own threads
+        mysql = new MySQL("localhost", 3306, "tab", "user", "password", false, 2) {
+
+            @Override
+            Connection connect() throws SQLException {
+                return DriverManager.getConnection(url);
+            }
+        };
+        mysql.openConnection();
+        mysql.execute("create table `tab_users` (`user` varchar(64), `property` varchar(16), `value` varchar(1024), " +
+                "`world` varchar(64), `server` varchar(64))");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mysql.closeConnection();
+        setInstance(null);
+    }
+
+    private void setInstance(TAB instance) throws Exception {
+        Field field = TAB.class.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, instance);
+    }
+
+    @Test
+    void queuedUpdatesAreWrittenInOrder() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            mysql.queueUpdate("delete from `tab_users` where `user` = ?", "player");
+            mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`) values (?, ?, ?)", "player", "tabprefix", "value-" + i);
+        }
+        assertEquals(singletonValue("value-49"), values("player"));
+    }
+
+    @Test
+    void failingUpdateDoesNotLoseOtherUpdates() throws Exception {
+        mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`) values (?, ?, ?)", "first", "tabprefix", "a");
+        mysql.queueUpdate("insert into `missing_table` (`user`) values (?)", "broken");
+        mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`) values (?, ?, ?)", "second", "tabprefix", "b");
+        assertEquals(singletonValue("a"), values("first"));
+        assertEquals(singletonValue("b"), values("second"));
+        verify(errorManager, timeout(5000).times(1)).mysqlQueryFailed(any());
+    }
+
+    @Test
+    void readAfterQueuedUpdateSeesIt() throws Exception {
+        mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`) values (?, ?, ?)", "player", "tabprefix", "old");
+        assertEquals(singletonValue("old"), values("player"));
+        mysql.queueUpdate("delete from `tab_users` where `user` = ?", "player");
+        mysql.queueUpdate("insert into `tab_users` (`user`, `property`, `value`) values (?, ?, ?)", "player", "tabprefix", "new");
+        assertEquals(singletonValue("new"), values("player"));
+    }
+
+    private List<String> singletonValue(String value) {
+        List<String> list = new ArrayList<>();
+        list.add(value);
+        return list;
+    }
+
+    private List<String> values(String user) throws Exception {
+        CachedRowSet crs = mysql.getCRSAsync("select * from `tab_users` where `user` = ?", user).get(5, TimeUnit.SECONDS);
+        List<String> values = new ArrayList<>();
+        while (crs.next()) {
+            values.add(crs.getString("value"));
+        }
+        return values;
+    }
+}
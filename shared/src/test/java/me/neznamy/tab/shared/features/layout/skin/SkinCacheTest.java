@@ -0,0 +1,54 @@
+package me.neznamy.tab.shared.features.layout.skin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkinCacheTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    void skinsAreLoadedFromFile() throws Exception {
+        SkinCache cache = cache();
+        cache.put("players", "first", Arrays.asList("value1", "signature1"));
+        cache.put("textures", "second", Arrays.asList("value2", null));
+
+        SkinCache loaded = cache();
+        assertEquals(Arrays.asList("value1", "signature1"), loaded.get("players", "first"));
+        assertEquals(Arrays.asList("value2", null), loaded.get("textures", "second"));
+        assertNull(loaded.get("players", "second"));
+    }
+
+    @Test
+    void truncatedRecordIsRemoved() throws Exception {
+        File file = new File(folder, "skincache.dat");
+        SkinCache cache = cache();
+        cache.put("players", "first", Arrays.asList("value1", "signature1"));
+        long validLength = file.length();
+        cache.put("players", "second", Arrays.asList("value2", "signature2"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(file.length() - 5); // Crash while writing the second record
+        }
+
+        SkinCache loaded = cache();
+        assertEquals(Arrays.asList("value1", "signature1"), loaded.get("players", "first"));
+        assertNull(loaded.get("players", "second"));
+        assertEquals(validLength, file.length());
+
+        loaded.put("players", "third", Arrays.asList("value3", "signature3"));
+        SkinCache reloaded = cache();
+        assertEquals(Arrays.asList("value1", "signature1"), reloaded.get("players", "first"));
+        assertEquals(Arrays.asList("value3", "signature3"), reloaded.get("players", "third"));
+    }
+
+    private SkinCache cache() throws Exception {
+        return new SkinCache(new File(folder, "skincache.dat"), new File(folder, "skincache.yml"));
+    }
+}
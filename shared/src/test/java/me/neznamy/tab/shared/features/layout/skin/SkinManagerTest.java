@@ -0,0 +1,184 @@
+package me.neznamy.tab.shared.features.layout.skin;
+
+import com.sun.net.httpserver.HttpServer;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.platform.TabList.Skin;
+import org.jetbrains.annotations.NotNull;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SkinManagerTest {
+
+    private static final long START = 1_000_000L;
+
+    @TempDir
+    File folder;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CompletableFuture<Set<String>> downloaded = new CompletableFuture<>();
+    private final AtomicLong time = new AtomicLong(START);
+    private final AtomicInteger timeReads = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private SkinManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TAB instance = mock(TAB.class, Answers.RETURNS_DEEP_STUBS);
+        CpuManager cpu = mock(CpuManager.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, Runnable.class).run();
+            return null;
+        }).when(cpu).runMeasuredTask(anyString(), anyString(), any(Runnable.class));
+        when(instance.getCPUManager()).thenReturn(cpu);
+        setInstance(instance); // Static mocks are thread-local, but skins are downloaded by other threads
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String name = exchange.getRequestURI().getPath().substring(1);
+            requests.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (name.startsWith("missing")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                byte[] body = ("{\"value\":\"value-" + name + "\",\"signature\":\"signature-" + name + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+
+        SkinCache cache = new SkinCache(new File(folder, "skincache.dat"), new File(folder, "skincache.yml"));
+        cache.put("test", "default", Arrays.asList("default-value", "default-signature"));
+        manager = new SkinManager("test:default", Collections.emptyMap(), downloaded::complete,
+                Collections.singletonMap("test", new LocalSkin(cache))) {
+
+            @Override
+            long currentTimeMillis() {
+                timeReads.incrementAndGet();
+                return time.get();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdown();
+        setInstance(null);
+    }
+
+    private void setInstance(TAB instance) throws Exception {
+        Field field = TAB.class.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, instance);
+    }
+
+    @Test
+    void concurrentRequestsDownloadSkinOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Skin>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> manager.getSkin("test:player")));
+            }
+            for (Future<Skin> future : futures) {
+                assertEquals(manager.getDefaultSkin(), future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        release.countDown();
+
+        assertEquals(Collections.singleton("test:player"), downloaded.get(5, TimeUnit.SECONDS));
+        assertEquals(new Skin("value-player", "signature-player"), manager.getSkin("test:player"));
+        assertEquals(1, requests("player"));
+    }
+
+    @Test
+    void invalidSkinIsRetriedAfterFiveMinutes() throws Exception {
+        release.countDown();
+        assertEquals(manager.getDefaultSkin(), manager.getSkin("test:missing"));
+        waitUntil(() -> timeReads.get() > 0); // Time is first read when the failed download is recorded
+        assertEquals(1, requests("missing"));
+
+        time.set(START + TimeUnit.MINUTES.toMillis(5) - 1);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(manager.getDefaultSkin(), manager.getSkin("test:missing"));
+        }
+        Thread.sleep(100);
+        assertEquals(1, requests("missing"));
+
+        time.set(START + TimeUnit.MINUTES.toMillis(5));
+        assertEquals(manager.getDefaultSkin(), manager.getSkin("test:missing"));
+        waitUntil(() -> requests("missing") == 2);
+        assertFalse(downloaded.isDone());
+    }
+
+    private int requests(String name) {
+        AtomicInteger count = requests.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition was not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Skin source downloading skins from the local server.
+     */
+    private class LocalSkin extends SkinSource {
+
+        private LocalSkin(@NotNull SkinCache cache) {
+            super(cache, "test");
+        }
+
+        @Override
+        @NotNull
+        public List<String> download(@NotNull String input) {
+            try {
+                JSONObject json = getResponse("http://127.0.0.1:" + server.getAddress().getPort() + "/" + input);
+                return Arrays.asList((String) json.get("value"), (String) json.get("signature"));
+            } catch (IOException | ParseException e) {
+                return Collections.emptyList();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlaceholderRefreshEngineTest {
+
+    private final CpuManager cpu = new CpuManager();
+
+    @AfterEach
+    void tearDown() {
+        cpu.cancelAllTasks();
+    }
+
+    @Test
+    void shardsAreCappedByPlayerCount() {
+        PlaceholderRefreshTask task = new PlaceholderRefreshTask(placeholder(), 4, (t, shard) -> {}, false);
+        assertEquals(1, startedShards(task, 10));
+        assertEquals(2, startedShards(task, 40));
+        assertEquals(4, startedShards(task, 100));
+        assertEquals(4, startedShards(task, 1000));
+    }
+
+    @Test
+    void interruptedShardDoesNotStopRefreshing() throws InterruptedException {
+        PlayerPlaceholderImpl placeholder = placeholder();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch requestedAgain = new CountDownLatch(1);
+        when(placeholder.request(any())).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                worker.set(Thread.currentThread());
+                blocked.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Interrupted while requesting value", e);
+                }
+            }
+            requestedAgain.countDown();
+            return "value";
+        });
+        CountDownLatch processed = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        PlaceholderRefreshEngine engine = new PlaceholderRefreshEngine(cpu, "Test", 1, false, tasks -> {
+            tasks.forEach(PlaceholderRefreshTask::finish);
+            processed.countDown();
+        }, error::set);
+        TabPlayer[] players = players(1);
+
+        engine.refresh(Collections.singletonList(placeholder), players);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        worker.get().interrupt();
+        assertTrue(processed.await(5, TimeUnit.SECONDS), "Interrupted shard was never finished");
+        assertInstanceOf(IllegalStateException.class, error.get());
+
+        engine.refresh(Collections.singletonList(placeholder), players);
+        assertTrue(requestedAgain.await(5, TimeUnit.SECONDS), "Placeholder was not refreshed again");
+    }
+
+    @Test
+    void playerLeavingDuringRefreshKeepsSlotSnapshot() throws InterruptedException {
+        PlayerPlaceholderImpl placeholder = placeholder();
+        TabPlayer[] players = players(2);
+        when(placeholder.request(any())).thenAnswer(invocation -> {
+            when(players[0].getSlot()).thenReturn(-1); // Player left and slot was released
+            return "value-" + invocation.getArgument(0).hashCode();
+        });
+        AtomicReference<PlaceholderRefreshTask> result = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch processed = new CountDownLatch(1);
+        PlaceholderRefreshEngine engine = new PlaceholderRefreshEngine(cpu, "Test", 1, false, tasks -> {
+            result.set(tasks.get(0));
+            processed.countDown();
+        }, error::set);
+
+        engine.refresh(Collections.singletonList(placeholder), players);
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        assertNull(error.get());
+        assertEquals("value-" + players[0].hashCode(), result.get().getPlayerResult(0));
+        assertEquals("value-" + players[1].hashCode(), result.get().getPlayerResult(1));
+    }
+
+    private int startedShards(PlaceholderRefreshTask task, int players) {
+        assertTrue(task.start(players(players)));
+        task.finish();
+        return task.getActiveShards();
+    }
+
+    private PlayerPlaceholderImpl placeholder() {
+        PlayerPlaceholderImpl placeholder = mock(PlayerPlaceholderImpl.class);
+        when(placeholder.getOrdinal()).thenReturn(0);
+        when(placeholder.getIdentifier()).thenReturn("%test%");
+        return placeholder;
+    }
+
+    private TabPlayer[] players(int amount) {
+        TabPlayer[] players = new TabPlayer[amount];
+        for (int i = 0; i < amount; i++) {
+            players[i] = mock(TabPlayer.class);
+            when(players[i].getSlot()).thenReturn(i);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,64 @@
+package me.neznamy.tab.shared.placeholders;
+
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlaceholderValueStoreTest {
+
+    private final PlaceholderValueStore store = new PlaceholderValueStore();
+
+    @Test
+    void valueWrittenAfterQuitIsIgnored() {
+        PlaceholderValueStore.PlayerColumn column = store.createPlayerColumn(placeholder(0));
+        TabPlayer left = player(0);
+        store.addPlayer(left);
+        column.set(left, "old");
+        store.removePlayer(left);
+        column.set(left, "late");
+
+        TabPlayer joined = player(0);
+        store.addPlayer(joined);
+        assertNull(column.get(joined));
+        assertNull(column.get(left));
+    }
+
+    @Test
+    void previousOwnerCannotAccessReusedSlot() {
+        PlaceholderValueStore.PlayerColumn column = store.createPlayerColumn(placeholder(0));
+        PlaceholderValueStore.RelationalColumn relational = store.createRelationalColumn(placeholder(1));
+        TabPlayer left = player(0);
+        TabPlayer other = player(1);
+        store.addPlayer(left);
+        store.addPlayer(other);
+        store.removePlayer(left);
+
+        TabPlayer joined = player(0);
+        store.addPlayer(joined);
+        column.set(joined, "value");
+        relational.set(joined, other, "relational");
+        relational.set(left, other, "stale");
+
+        assertEquals("value", column.get(joined));
+        assertEquals("relational", relational.get(joined, other));
+        assertNull(column.get(left));
+        assertNull(relational.get(left, other));
+    }
+
+    private TabPlaceholder placeholder(int ordinal) {
+        TabPlaceholder placeholder = mock(TabPlaceholder.class);
+        when(placeholder.getOrdinal()).thenReturn(ordinal);
+        when(placeholder.getIdentifier()).thenReturn("%test-" + ordinal + "%");
+        return placeholder;
+    }
+
+    private TabPlayer player(int slot) {
+        TabPlayer player = mock(TabPlayer.class);
+        when(player.getSlot()).thenReturn(slot);
+        return player;
+    }
+}
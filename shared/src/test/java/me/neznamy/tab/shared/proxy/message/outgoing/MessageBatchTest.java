@@ -0,0 +1,83 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("UnstableApiUsage")
+class MessageBatchTest {
+
+    @Test
+    void largeBatchIsSplit() {
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.add(message(i % 2 == 0 ? "Placeholder" : "Permission", 4000, i));
+        }
+        List<List<byte[]>> batches = MessageBatch.split(messages, MessageBatch.MAX_SIZE);
+        assertTrue(batches.size() > 1, "Messages were not split");
+
+        List<byte[]> decoded = new ArrayList<>();
+        for (List<byte[]> batch : batches) {
+            byte[] encoded = new MessageBatch(batch).write().toByteArray();
+            assertTrue(encoded.length <= MessageBatch.MAX_SIZE, "Batch has " + encoded.length + " bytes");
+            decoded.addAll(decode(encoded));
+        }
+        assertEquals(messages.size(), decoded.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertArrayEquals(messages.get(i), decoded.get(i), "Message #" + i + " differs");
+        }
+    }
+
+    @Test
+    void smallBatchIsNotSplit() {
+        List<byte[]> messages = Arrays.asList(message("Placeholder", 100, 0), message("Permission", 100, 1));
+        assertEquals(1, MessageBatch.split(messages, MessageBatch.MAX_SIZE).size());
+    }
+
+    @Test
+    void oversizedMessageIsSentAlone() {
+        List<byte[]> messages = Arrays.asList(message("Placeholder", 100, 0),
+                message("Placeholder", MessageBatch.MAX_SIZE, 1), message("Placeholder", 100, 2));
+        List<List<byte[]>> batches = MessageBatch.split(messages, MessageBatch.MAX_SIZE);
+        assertEquals(3, batches.size());
+        assertSame(messages.get(1), batches.get(1).get(0));
+    }
+
+    private byte[] message(String type, int payloadSize, int seed) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(type);
+        for (int i = 0; i < payloadSize; i++) {
+            out.writeByte(i + seed);
+        }
+        return out.toByteArray();
+    }
+
+    private List<byte[]> decode(byte[] batch) {
+        ByteArrayDataInput in = ByteStreams.newDataInput(batch);
+        assertEquals("Batch", in.readUTF());
+        assertEquals(MessageBatch.VERSION, MessageBatch.readVarInt(in));
+        String[] types = new String[MessageBatch.readVarInt(in)];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = in.readUTF();
+        }
+        int count = MessageBatch.readVarInt(in);
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String type = types[MessageBatch.readVarInt(in)];
+            byte[] payload = new byte[MessageBatch.readVarInt(in)];
+            in.readFully(payload);
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            out.writeUTF(type);
+            out.write(payload);
+            messages.add(out.toByteArray());
+        }
+        return messages;
+    }
+}
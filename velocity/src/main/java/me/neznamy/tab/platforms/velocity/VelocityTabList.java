@@ -28,7 +28,7 @@ public class VelocityTabList extends TabList<VelocityTabPlayer, Component> {
     }
 
     @Override
-    public void removeEntry(@NonNull UUID entry) {
+    public void removeEntry0(@NonNull UUID entry) {
         player.getPlayer().getTabList().removeEntry(entry);
     }
 
@@ -74,7 +74,7 @@ public class VelocityTabList extends TabList<VelocityTabPlayer, Component> {
         // #2 - If player is 1.20.2+, tablist is cleared by the client itself without requirement to remove
         //      manually by the proxy, however velocity's tablist entry tracker still thinks they are present
         //      and therefore will refuse to add them
-        removeEntry(id);
+        removeEntry0(id);
 
         player.getPlayer().getTabList().addEntry(e);
     }